@@ -2,28 +2,23 @@ package com.example.tetris_concept;
 
 import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
-import android.animation.ArgbEvaluator;
 import android.animation.ObjectAnimator;
-import android.animation.ValueAnimator;
 import android.content.Context;
 import android.graphics.Color;
-import android.graphics.LinearGradient;
 import android.graphics.Shader;
-import android.graphics.drawable.AnimationDrawable;
-import android.os.CountDownTimer;
-import android.os.Handler;
 import android.util.DisplayMetrics;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.animation.AccelerateDecelerateInterpolator;
 import android.view.animation.Animation;
-import android.view.animation.LinearInterpolator;
 import android.view.animation.TranslateAnimation;
 import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.cardview.widget.CardView;
 import androidx.constraintlayout.widget.ConstraintLayout;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.ViewTreeLifecycleOwner;
 
 /**
  * Utility class providing functions for animating UI elements in the application.
@@ -40,20 +35,21 @@ public class AnimFunctions {
     /**
      * Animates the background image by shifting its position horizontally in a loop.
      *
+     * <p>All screens share one animator through {@link BackgroundParallax}; it stops driving the image
+     * once the image is detached.</p>
+     *
      * @param backgroundImage the ImageView containing the background image to animate
      */
     public static void setupBackgroundAnimation(ImageView backgroundImage) {
-        ObjectAnimator animator = ObjectAnimator.ofFloat(backgroundImage, "translationX", -100f, 100f);
-        animator.setInterpolator(new AccelerateDecelerateInterpolator());
-        animator.setDuration(8000);  // Duration in milliseconds
-        animator.setRepeatCount(ObjectAnimator.INFINITE);
-        animator.setRepeatMode(ObjectAnimator.REVERSE);
-        animator.start();
+        BackgroundParallax.attach(backgroundImage, BackgroundParallax.DEFAULT_BACKGROUND);
     }
 
     /**
      * Animates the height of an ImageView to 50% of the screen height.
      *
+     * <p>The transition runs through {@link HeightTransition}, which animates the clip bounds and
+     * changes the layout height only once.</p>
+     *
      * @param imageView the ImageView whose height will be animated
      * @param context   the context used to get display metrics
      * @param duration  the duration of the animation in milliseconds
@@ -78,32 +74,8 @@ public class AnimFunctions {
         // Convert targetHeightDp back to pixels for the animation
         final int targetHeightPx = (int) (targetHeightDp * density);
 
-        // Get the current height of the ImageView
-        int currentHeight = imageView.getLayoutParams().height;
-
-        // If the height is initially set to 0 (as in your layout), update the current height
-        if (currentHeight == ViewGroup.LayoutParams.WRAP_CONTENT || currentHeight <= 0) {
-            currentHeight = 1; // Set it to 1 to avoid division issues in animation
-        }
-
-        // Create a ValueAnimator to animate between the current height and target height
-        ValueAnimator heightAnimator = ValueAnimator.ofInt(currentHeight, targetHeightPx);
-        heightAnimator.setDuration(duration); // Duration of the animation in milliseconds
-        heightAnimator.setInterpolator(new AccelerateDecelerateInterpolator()); // Smooth animation
-
-        // Update the height of the ImageView as the animation progresses
-        heightAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                int animatedHeight = (int) animation.getAnimatedValue();
-                ViewGroup.LayoutParams layoutParams = imageView.getLayoutParams();
-                layoutParams.height = animatedHeight;
-                imageView.setLayoutParams(layoutParams);
-            }
-        });
-
-        // Start the animation
-        heightAnimator.start();
+        // Clip-based transition: the layout runs once instead of on every frame
+        HeightTransition.animateHeight(imageView, targetHeightPx, duration);
     }
 
 
@@ -121,31 +93,8 @@ public class AnimFunctions {
      */
 
     public static void resetImageViewHeight(final ImageView imageView, Context context, int duration) {
-        // Get the current height of the ImageView
-        int currentHeight = imageView.getLayoutParams().height;
-
-        // Get the original height of the ImageView from its layout parameters
-        ViewGroup.LayoutParams layoutParams = imageView.getLayoutParams();
-        final int originalHeight = ViewGroup.LayoutParams.WRAP_CONTENT; // Default back to WRAP_CONTENT or specific value
-
-        // Create a ValueAnimator to animate from current height back to original height
-        ValueAnimator resetHeightAnimator = ValueAnimator.ofInt(currentHeight, originalHeight);
-        resetHeightAnimator.setDuration(duration); // Duration of the reset animation in milliseconds
-        resetHeightAnimator.setInterpolator(new AccelerateDecelerateInterpolator()); // Smooth animation
-
-        // Update the height of the ImageView as the reset animation progresses
-        resetHeightAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                int animatedHeight = (int) animation.getAnimatedValue();
-                ViewGroup.LayoutParams layoutParams = imageView.getLayoutParams();
-                layoutParams.height = animatedHeight;
-                imageView.setLayoutParams(layoutParams);
-            }
-        });
-
-        // Start the reset animation
-        resetHeightAnimator.start();
+        // Animate back to the original height without a layout pass per frame
+        HeightTransition.animateHeight(imageView, ViewGroup.LayoutParams.WRAP_CONTENT, duration);
     }
 
 
@@ -248,8 +197,8 @@ public class AnimFunctions {
         int colorFrom = Color.parseColor(colorFromHex);
         int colorTo = Color.parseColor(colorToHex);
 
-        // Create a Handler to apply the delay
-        new Handler().postDelayed(new Runnable() {
+        // Apply the delay on the shared timer wheel
+        TimerWheel.getInstance().schedule(ViewTreeLifecycleOwner.get(viewGroup), "backgroundColor", delay, new Runnable() {
             @Override
             public void run() {
                 // Create an ObjectAnimator to animate the background color
@@ -257,7 +206,7 @@ public class AnimFunctions {
                 colorAnimation.setDuration(duration); // Set the duration of the animation
                 colorAnimation.start(); // Start the animation
             }
-        }, delay); // Delay in milliseconds
+        });
     }
 
     /**
@@ -269,7 +218,7 @@ public class AnimFunctions {
         TextView loadingStellarPetsText = view.findViewById(R.id.loadingStellarPetsText1);
 
         // Define the color array for the loading stellar pets text
-        int[] loadingColors = {Color.parseColor("#e200ff"), Color.parseColor("#F78CC2")};
+        int[] loadingColors = ShaderCache.STELLAR_TITLE_COLORS;
 //        // Create and apply the LinearGradient shader
 //        applyGradientShader(loadingStellarPetsText, loadingColors);
 
@@ -284,8 +233,7 @@ public class AnimFunctions {
      * @param colors   an array of colors to use in the gradient
      */
     public static void applyGradientShader(TextView textView, int[] colors) {
-        Shader shader = new LinearGradient(0, 0, 0, textView.getTextSize(),
-                colors, null, Shader.TileMode.CLAMP);
+        Shader shader = ShaderCache.verticalGradient(colors, textView.getTextSize(), Shader.TileMode.CLAMP);
         textView.getPaint().setShader(shader);
         textView.invalidate(); // Refresh the text view to apply the shader
     }
@@ -296,31 +244,7 @@ public class AnimFunctions {
      * @param textView the TextView whose text color will be animated
      */
     public static void animateTextColor(final TextView textView, final String colorHex1, final String colorHex2) {
-        // Convert the hexadecimal colors to integers
-        final int color1 = Color.parseColor(colorHex1);
-        final int color2 = Color.parseColor(colorHex2);
-
-        // Create a ValueAnimator to smoothly transition between the two colors
-        ValueAnimator colorAnimator = ValueAnimator.ofFloat(0f, 1f); // Cycle between 0 and 1 for smooth blending
-        colorAnimator.setDuration(3000); // Duration of the transition
-        colorAnimator.setInterpolator(new LinearInterpolator()); // Linear progression
-        colorAnimator.setRepeatCount(ValueAnimator.INFINITE); // Loop infinitely
-        colorAnimator.setRepeatMode(ValueAnimator.REVERSE); // Reverse the animation to blend back
-
-        colorAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animator) {
-                float ratio = (float) animator.getAnimatedValue();
-
-                // Interpolate between the two colors
-                int blendedColor = blendColors(color1, color2, ratio);
-
-                // Set the text color to the interpolated color
-                textView.setTextColor(blendedColor);
-            }
-        });
-
-        colorAnimator.start(); // Start the animation
+        animateTextColor(textView, colorHex1, colorHex2, 3000);
     }
 
     /**
@@ -336,31 +260,10 @@ public class AnimFunctions {
      */
 
     public static void animateTextColor(final TextView textView, final String colorHex1, final String colorHex2, int duration) {
-        // Convert the hexadecimal colors to integers
-        final int color1 = Color.parseColor(colorHex1);
-        final int color2 = Color.parseColor(colorHex2);
-
-        // Create a ValueAnimator to smoothly transition between the two colors
-        ValueAnimator colorAnimator = ValueAnimator.ofFloat(0f, 1f); // Cycle between 0 and 1 for smooth blending
-        colorAnimator.setDuration(duration); // Duration of the transition
-        colorAnimator.setInterpolator(new LinearInterpolator()); // Linear progression
-        colorAnimator.setRepeatCount(ValueAnimator.INFINITE); // Loop infinitely
-        colorAnimator.setRepeatMode(ValueAnimator.REVERSE); // Reverse the animation to blend back
-
-        colorAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animator) {
-                float ratio = (float) animator.getAnimatedValue();
-
-                // Interpolate between the two colors
-                int blendedColor = blendColors(color1, color2, ratio);
-
-                // Set the text color to the interpolated color
-                textView.setTextColor(blendedColor);
-            }
-        });
-
-        colorAnimator.start(); // Start the animation
+        // Blend back and forth on the shared clock; the track ends when the TextView is detached
+        ColorAnimationClock.getInstance().add(textView,
+                ColorAnimationClock.pingPong(Color.parseColor(colorHex1), Color.parseColor(colorHex2), duration),
+                textView::setTextColor);
     }
 
 
@@ -395,34 +298,24 @@ public class AnimFunctions {
      */
 
     public static void startCountdown(TextView countdownText, int seconds, int delay) {
-        // Convert seconds to milliseconds
-        long duration = seconds * 1000;
+        // Tick once per second on the shared timer wheel, tied to the lifecycle of the hosting screen
+        LifecycleOwner owner = ViewTreeLifecycleOwner.get(countdownText);
+        final TimerWheel.Timeout[] countdown = new TimerWheel.Timeout[1];
+        countdown[0] = TimerWheel.getInstance().scheduleRepeating(owner, "countdown", delay, 1000, new Runnable() {
+            int remaining = seconds;
 
-        // Create a new Handler
-        Handler handler = new Handler();
-
-        // Post a delayed runnable to start the countdown after the specified delay
-        handler.postDelayed(new Runnable() {
             @Override
             public void run() {
-                // Create a new CountDownTimer
-                new CountDownTimer(duration, 1000) { // 1000 ms = 1 second interval
-
-                    @Override
-                    public void onTick(long millisUntilFinished) {
-                        // Update the TextView with the remaining time
-                        countdownText.setText(String.valueOf(millisUntilFinished / 1000));
-                    }
-
-                    @Override
-                    public void onFinish() {
-                        // When the countdown finishes, display "Done"
-
-                    }
-
-                }.start();
+                if (remaining <= 0) {
+                    // When the countdown finishes, stop ticking
+                    countdown[0].cancel();
+                    return;
+                }
+                // Update the TextView with the remaining time
+                countdownText.setText(String.valueOf(remaining));
+                remaining--;
             }
-        }, delay); // Delay specified by the parameter
+        });
     }
 
     /**
@@ -441,48 +334,10 @@ public class AnimFunctions {
                 Color.RED, Color.MAGENTA, Color.BLUE, Color.CYAN, Color.GREEN, Color.YELLOW, Color.RED
         };
 
-        // Create a ValueAnimator to animate between the colors
-        ValueAnimator colorAnimator = ValueAnimator.ofFloat(0, rainbowColors.length - 1);
-        colorAnimator.setDuration(100); // Set duration of one full cycle (1 second)
-        colorAnimator.setRepeatCount(ValueAnimator.INFINITE); // Repeat indefinitely
-        colorAnimator.setRepeatMode(ValueAnimator.RESTART); // Restart the animation after each cycle
-
-        // Update the text color during the animation
-        colorAnimator.addUpdateListener(animation -> {
-            float animatedValue = (float) animation.getAnimatedValue();
-            int colorIndex = (int) animatedValue;
-            int nextColorIndex = (colorIndex + 1) % rainbowColors.length;
-            float fraction = animatedValue - colorIndex;
-
-            // Interpolate between the two colors
-            int blendedColor = blendColorsRainBow(rainbowColors[colorIndex], rainbowColors[nextColorIndex], fraction);
-            textView.setTextColor(blendedColor);
-        });
-
-        colorAnimator.start();
+        // One pass through the rainbow every 100 ms on the shared clock
+        ColorAnimationClock.getInstance().add(textView, ColorAnimationClock.cycle(rainbowColors, 100), textView::setTextColor);
     }
 
-    /**
-     * Blends two colors together based on the specified ratio.
-     *
-     * <p>This method performs a linear interpolation between two colors, blending them based on the
-     * provided ratio. The ratio determines the mix of the two colors, where a ratio of 0 will return
-     * the first color and a ratio of 1 will return the second color.</p>
-     *
-     * @param color1 The first color to blend.
-     * @param color2 The second color to blend.
-     * @param ratio The ratio of blending between the two colors. A value between 0 and 1, where 0
-     *              means fully {@code color1} and 1 means fully {@code color2}.
-     * @return The resulting blended color as an integer ARGB value.
-     */
-
-    private static int blendColorsRainBow(int color1, int color2, float ratio) {
-        int alpha = (int) (Color.alpha(color1) * (1 - ratio) + Color.alpha(color2) * ratio);
-        int red = (int) (Color.red(color1) * (1 - ratio) + Color.red(color2) * ratio);
-        int green = (int) (Color.green(color1) * (1 - ratio) + Color.green(color2) * ratio);
-        int blue = (int) (Color.blue(color1) * (1 - ratio) + Color.blue(color2) * ratio);
-        return Color.argb(alpha, red, green, blue);
-    }
 
 
 
@@ -491,9 +346,10 @@ public class AnimFunctions {
     /**
      * Animates the background color change of multiple CardViews in a smooth transition.
      *
-     * <p>This method uses a ValueAnimator to interpolate between two colors, transitioning the
-     * background color of each CardView from a start color to an end color, and reversing the
-     * animation in an infinite loop. The animation duration is set to 3 seconds for each cycle.</p>
+     * <p>This method uses the shared {@link ColorAnimationClock} to interpolate between two colors,
+     * transitioning the background color of each CardView from a start color to an end color, and
+     * reversing the animation in an infinite loop. The animation duration is set to 3 seconds for each
+     * cycle.</p>
      *
      * @param cardView1 The first CardView whose background color will be animated.
      * @param cardView2 The second CardView whose background color will be animated.
@@ -502,61 +358,34 @@ public class AnimFunctions {
      */
 
     public static void animateColorChange(CardView cardView1, CardView cardView2, CardView cardView3, CardView cardView4) {
-        // Define the colors to transition between
-        int colorStart = 0xFFFF0000; // Red color
-        int colorEnd = 0xFF0000FF;   // Blue color
-
-        // Create a ValueAnimator that interpolates between two colors
-        ValueAnimator colorAnimator = ValueAnimator.ofObject(new ArgbEvaluator(), colorStart, colorEnd);
-        colorAnimator.setDuration(3000); // Duration for one cycle (in milliseconds)
-        colorAnimator.setRepeatCount(ValueAnimator.INFINITE); // Infinite loop
-        colorAnimator.setRepeatMode(ValueAnimator.REVERSE); // Reverse the animation on repeat
-
-        // Update the background color of each CardView on each animation frame
-        colorAnimator.addUpdateListener(animator -> {
-            int animatedColor = (int) animator.getAnimatedValue();
-            cardView1.setCardBackgroundColor(animatedColor);
-            cardView2.setCardBackgroundColor(animatedColor);
-            cardView3.setCardBackgroundColor(animatedColor);
-            cardView4.setCardBackgroundColor(animatedColor);
+        // Red to blue and back every 3 seconds, applied to all four cards in the same frame
+        ColorAnimationClock.getInstance().add(cardView1, ColorAnimationClock.pingPong(0xFFFF0000, 0xFF0000FF, 3000), color -> {
+            cardView1.setCardBackgroundColor(color);
+            cardView2.setCardBackgroundColor(color);
+            cardView3.setCardBackgroundColor(color);
+            cardView4.setCardBackgroundColor(color);
         });
-
-        // Start the animation
-        colorAnimator.start();
     }
 
 
     /**
      * Animates the text color change of two TextViews in a smooth transition.
      *
-     * <p>This method uses a ValueAnimator to interpolate between two colors, transitioning the text
-     * color of each TextView from a start color to an end color, and reversing the animation in an
-     * infinite loop. The animation duration is set to 500 milliseconds for rapid color changes.</p>
+     * <p>This method uses the shared {@link ColorAnimationClock} to interpolate between two colors,
+     * transitioning the text color of each TextView from a start color to an end color, and reversing
+     * the animation in an infinite loop. The animation duration is set to 500 milliseconds for rapid
+     * color changes.</p>
      *
      * @param textView1 The first TextView whose text color will be animated.
      * @param textView2 The second TextView whose text color will be animated.
      */
 
     public static void animateTextColorChange(TextView textView1, TextView textView2) {
-        // Define the colors to transition between (for example, red and blue)
-        int colorStart = 0xFF3FFFF3; // #3FFFF3 (light cyan)
-        int colorEnd = 0xFFFF3FE8;   // #FF3FE8 (magenta)
-
-        // Create a ValueAnimator to interpolate between the two colors
-        ValueAnimator colorAnimator = ValueAnimator.ofObject(new ArgbEvaluator(), colorStart, colorEnd);
-        colorAnimator.setDuration(500); // Short duration for rapid color change (in milliseconds)
-        colorAnimator.setRepeatCount(ValueAnimator.INFINITE); // Infinite loop to continuously change colors
-        colorAnimator.setRepeatMode(ValueAnimator.REVERSE); // Reverse the animation after each cycle
-
-        // Update the text color of each TextView on each animation frame
-        colorAnimator.addUpdateListener(animator -> {
-            int animatedColor = (int) animator.getAnimatedValue();
-            textView1.setTextColor(animatedColor);
-            textView2.setTextColor(animatedColor);
+        // Light cyan (#3FFFF3) to magenta (#FF3FE8) and back every 500 ms
+        ColorAnimationClock.getInstance().add(textView1, ColorAnimationClock.pingPong(0xFF3FFFF3, 0xFFFF3FE8, 500), color -> {
+            textView1.setTextColor(color);
+            textView2.setTextColor(color);
         });
-
-        // Start the color animation
-        colorAnimator.start();
     }
 
 
@@ -566,1054 +395,367 @@ public class AnimFunctions {
 
     //___________________________PET ANIMATION____________________________________________________
 
-    //FLAME PET ANIMATION:________________________________________
+    // The pet loops are data: see PetAnimationTable, played by PetAnimationController.
+    // These shortcuts show the single-state idle and sleep tables used outside a loop.
 
     /**
-     * Starts a frame-by-frame animation for a pet running.
-     *
-     * <p>This method sets the image resource for the provided ImageView to a frame animation
-     * that represents the pet running. The frames are processed to disable bitmap filtering
-     * for better performance, and the animation is started.</p>
+     * Shows the fire pet idling.
      *
-     * @param animatedImageView The ImageView where the frame animation will be displayed.
+     * @param animatedImageView The ImageView to apply the idle animation to.
      */
 
-    public static void flamePetRunAnim(ImageView animatedImageView) {
-        animatedImageView.setImageResource(R.drawable.fire_run_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-
-        // Start the initial animation
-        frameAnimation.start();
+    public static void flamePetIdleAnim(ImageView animatedImageView) {
+        PetAnimationController.forView(animatedImageView).play("FIRE", PetAnimationTable.IDLE);
     }
 
     /**
-     * Applies an idle animation to the provided ImageView using a frame-by-frame animation.
+     * Shows the fire pet sleeping.
      *
-     * <p>This method sets the appropriate image resource for the idle animation,
-     * applies necessary adjustments to prevent bitmap filtering, and starts the frame animation.</p>
+     * @param animatedImageView The ImageView to apply the sleeping animation to.
+     */
+
+    public static void flameSleepAnim(ImageView animatedImageView) {
+        PetAnimationController.forView(animatedImageView).play("FIRE", PetAnimationTable.SLEEP);
+    }
+
+    /**
+     * Shows the fox pet idling.
      *
      * @param animatedImageView The ImageView to apply the idle animation to.
      */
 
-    public static void flamePetIdleAnim(ImageView animatedImageView) {
-        animatedImageView.setImageResource(R.drawable.fire_idle_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-
-        // Start the initial animation
-        frameAnimation.start();
+    public static void foxPetIdleAnim(ImageView animatedImageView) {
+        PetAnimationController.forView(animatedImageView).play("FOX", PetAnimationTable.IDLE);
     }
 
     /**
-     * Applies a shot animation to the provided ImageView using a frame-by-frame animation.
-     *
-     * <p>This method sets the appropriate image resource for the shot animation,
-     * applies necessary adjustments to prevent bitmap filtering, and starts the frame animation.</p>
+     * Shows the fox pet sleeping.
      *
-     * @param animatedImageView The ImageView to apply the shot animation to.
+     * @param animatedImageView The ImageView to apply the sleeping animation to.
      */
 
-    public static void flamePetShotAnim(ImageView animatedImageView) {
-        animatedImageView.setImageResource(R.drawable.fire_shot_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-
-        // Start the initial animation
-        frameAnimation.start();
+    public static void foxSleepAnim(ImageView animatedImageView) {
+        PetAnimationController.forView(animatedImageView).play("FOX", PetAnimationTable.SLEEP);
     }
 
     /**
-     * Applies a hurt shot animation to the provided ImageView using a frame-by-frame animation.
-     *
-     * <p>This method sets the appropriate image resource for the hurt shot animation,
-     * applies necessary adjustments to prevent bitmap filtering, and starts the frame animation.</p>
+     * Shows the squirrel pet idling.
      *
-     * @param animatedImageView The ImageView to apply the hurt shot animation to.
+     * @param animatedImageView The ImageView to apply the idle animation to.
      */
 
-    public static void flameHurtShotAnim(ImageView animatedImageView) {
-        animatedImageView.setImageResource(R.drawable.fire_hurt_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-
-        // Start the initial animation
-        frameAnimation.start();
+    public static void squirrelPetIdleAnim(ImageView animatedImageView) {
+        PetAnimationController.forView(animatedImageView).play("SQUIRREL", PetAnimationTable.IDLE);
     }
 
     /**
-     * Applies a sleeping animation to the provided ImageView using a frame-by-frame animation.
-     *
-     * <p>This method sets the appropriate image resource for the sleeping animation,
-     * applies a scaling transformation to the ImageView, and starts the frame animation.
-     * The animation frames are adjusted to prevent bitmap filtering.</p>
+     * Shows the squirrel pet sleeping.
      *
      * @param animatedImageView The ImageView to apply the sleeping animation to.
      */
 
-    public static void flameSleepAnim(ImageView animatedImageView) {
-        animatedImageView.setTranslationX(50f); // Move 50 pixels to the right
-        animatedImageView.setImageResource(R.drawable.fire_sleep_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-
-        // Start the initial animation
-        frameAnimation.start();
+    public static void squirrelSleepAnim(ImageView animatedImageView) {
+        PetAnimationController.forView(animatedImageView).play("SQUIRREL", PetAnimationTable.SLEEP);
     }
 
 
-    private static final int ANIMATION_DURATION = 2000; // Duration each animation plays in milliseconds
-    private static Handler animationHandler = new Handler();
+    // Former per-state and per-screen methods, kept so existing callers still compile. Each one now
+    // shows the same frames and transform through PetAnimationController.
 
     /**
-     * Starts an infinite loop of animations for a pet in various states.
+     * Shows the fire pet running.
      *
-     * <p>This method applies transformations (scaling and translation) to the provided
-     * ImageView, then alternates between different animations representing the pet
-     * in various states such as idle, sleep, and other actions. The loop continues indefinitely
-     * by scheduling the next animation after each cycle.</p>
-     *
-     * @param animatedImageView The ImageView that will display the pet animations.
+     * @param animatedImageView The ImageView where the frame animation will be displayed.
+     * @deprecated Use {@link PetAnimationController#play(String, String)} with {@link PetAnimationTable#RUN}.
      */
-
-    public static void playInfiniteFireAnimation(final ImageView animatedImageView) {
-
-        animationHandler.removeCallbacksAndMessages(null);
-        animatedImageView.setScaleX(-1.0f); // Scale width by 1.5 times
-        animatedImageView.setScaleY(1.0f); // Scale height by 1.5 times
-        animatedImageView.setTranslationX(0f); // Move 50 pixels to the right
-
-
-        // Runnable to switch between animations
-        Runnable animationRunnable = new Runnable() {
-            int animationIndex = 0;
-
-            @Override
-            public void run() {
-                switch (animationIndex) {
-                    case 0:
-                        flamePetRunAnim(animatedImageView);
-                        break;
-                    case 1:
-                        flamePetIdleAnim(animatedImageView);
-                        break;
-                    case 2:
-                        flamePetShotAnim(animatedImageView);
-                        break;
-                    case 3:
-                        flameHurtShotAnim(animatedImageView);
-                        break;
-                }
-
-                // Move to the next animation
-                animationIndex = (animationIndex + 1) % 4;
-
-                // Schedule the next animation after the duration
-                animationHandler.postDelayed(this, ANIMATION_DURATION);
-            }
-        };
-
-        // Start the infinite animation loop
-        animationHandler.post(animationRunnable);
+    @Deprecated
+    public static void flamePetRunAnim(ImageView animatedImageView) {
+        PetAnimationController.forView(animatedImageView).play("FIRE", PetAnimationTable.RUN);
     }
 
     /**
-     * Starts an infinite loop of animations for a pet in various states. v4
-     *
-     * <p>This method applies transformations (scaling and translation) to the provided
-     * ImageView, then alternates between different animations representing the pet
-     * in various states such as idle, sleep, and other actions. The loop continues indefinitely
-     * by scheduling the next animation after each cycle.</p>
+     * Shows the fire pet shooting.
      *
-     * @param animatedImageView The ImageView that will display the pet animations.
+     * @param animatedImageView The ImageView to apply the animation to.
+     * @deprecated Show the state through a {@link PetAnimationTable} instead.
      */
-
-    public void playInfiniteFireAnimationV4(final ImageView animatedImageView) {
-
-//
-//        animationHandler.removeCallbacksAndMessages(null);
-        animatedImageView.setScaleX(-1.0f); // Scale width by 1.5 times
-        animatedImageView.setScaleY(1.0f); // Scale height by 1.5 times
-        animatedImageView.setTranslationY(30f); // Adjust the value as needed
-        animatedImageView.setTranslationX(0f); // Move 50 pixels to the right
-
-
-        // Runnable to switch between animations
-        Runnable animationRunnable = new Runnable() {
-            int animationIndex = 0;
-
-            @Override
-            public void run() {
-                switch (animationIndex) {
-                    case 0:
-                        flamePetRunAnim(animatedImageView);
-                        break;
-                    case 1:
-                        flamePetIdleAnim(animatedImageView);
-                        break;
-                    case 2:
-                        flamePetShotAnim(animatedImageView);
-                        break;
-                    case 3:
-                        flameHurtShotAnim(animatedImageView);
-                        break;
-                }
-
-                // Move to the next animation
-                animationIndex = (animationIndex + 1) % 4;
-
-                // Schedule the next animation after the duration
-                animationHandler.postDelayed(this, ANIMATION_DURATION);
-            }
-        };
-
-        // Start the infinite animation loop
-        animationHandler.post(animationRunnable);
-
+    @Deprecated
+    public static void flamePetShotAnim(ImageView animatedImageView) {
+        playPose(animatedImageView, "FIRE", "shot", R.drawable.fire_shot_frame_animation, PetAnimationTable.Transform.NONE);
     }
 
     /**
-     * Starts an infinite loop of animations for a pet in various states. v2
-     *
-     * <p>This method applies transformations (scaling and translation) to the provided
-     * ImageView, then alternates between different animations representing the pet
-     * in various states such as idle, sleep, and other actions. The loop continues indefinitely
-     * by scheduling the next animation after each cycle.</p>
+     * Shows the fire pet hurt.
      *
-     * @param animatedImageView The ImageView that will display the pet animations.
+     * @param animatedImageView The ImageView to apply the animation to.
+     * @deprecated Show the state through a {@link PetAnimationTable} instead.
      */
-
-    public static void playInfiniteFireAnimationV2(final ImageView animatedImageView) {
-
-        animationHandler.removeCallbacksAndMessages(null);
-        animatedImageView.setScaleX(-1.4f); // Scale width by 1.5 times
-        animatedImageView.setScaleY(1.4f); // Scale height by 1.5 times
-        animatedImageView.setTranslationY(-50f); // Adjust the value as needed
-        animatedImageView.setTranslationX(0f); // Adjust the value as needed
-
-
-        // Runnable to switch between animations
-        Runnable animationRunnable = new Runnable() {
-            int animationIndex = 0;
-
-            @Override
-            public void run() {
-                switch (animationIndex) {
-                    case 0:
-                        flamePetRunAnim(animatedImageView);
-                        break;
-                    case 1:
-                        flamePetIdleAnim(animatedImageView);
-                        break;
-                    case 2:
-                        flamePetShotAnim(animatedImageView);
-                        break;
-                    case 3:
-                        flameHurtShotAnim(animatedImageView);
-                        break;
-                }
-
-                // Move to the next animation
-                animationIndex = (animationIndex + 1) % 4;
-
-                // Schedule the next animation after the duration
-                animationHandler.postDelayed(this, ANIMATION_DURATION);
-            }
-        };
-
-        // Start the infinite animation loop
-        animationHandler.post(animationRunnable);
+    @Deprecated
+    public static void flameHurtShotAnim(ImageView animatedImageView) {
+        playPose(animatedImageView, "FIRE", "hurt", R.drawable.fire_hurt_frame_animation, PetAnimationTable.Transform.NONE);
     }
 
-
-    //FOX PET ANIMATION:________________________________________
-
     /**
-     * Starts a frame-by-frame animation for a pet running.
+     * Loops the fire pet on the home screen.
      *
-     * <p>This method sets the image resource for the provided ImageView to a frame animation
-     * that represents the pet running. The frames are processed to disable bitmap filtering
-     * for better performance, and the animation is started.</p>
-     *
-     * @param animatedImageView The ImageView where the frame animation will be displayed.
+     * @param animatedImageView The ImageView that will display the pet animations.
+     * @deprecated Use {@link PetAnimationController#play(String, String)} with {@link PetAnimationTable#HOME}.
      */
-
-    public static void foxPetRunAnim(ImageView animatedImageView) {
-        animatedImageView.setImageResource(R.drawable.fox_run_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-
-        // Start the initial animation
-        frameAnimation.start();
+    @Deprecated
+    public static void playInfiniteFireAnimation(final ImageView animatedImageView) {
+        PetAnimationController.forView(animatedImageView).play("FIRE", PetAnimationTable.HOME);
     }
 
     /**
-     * Starts a frame-by-frame animation for a pet running. V2
-     *
-     * <p>This method sets the image resource for the provided ImageView to a frame animation
-     * that represents the pet running. The frames are processed to disable bitmap filtering
-     * for better performance, and the animation is started.</p>
+     * Loops the fire pet in the inventory preview.
      *
-     * @param animatedImageView The ImageView where the frame animation will be displayed.
+     * @param animatedImageView The ImageView that will display the pet animations.
+     * @deprecated Use {@link PetAnimationController#play(String, String)} with {@link PetAnimationTable#PREVIEW}.
      */
-
-    public static void foxPetRunAnimV2(ImageView animatedImageView) {
-        animatedImageView.setImageResource(R.drawable.fox_run_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-        animatedImageView.setScaleX(-0.8f); // Scale width by 1.5 times
-        animatedImageView.setScaleY(0.8f); // Scale height by 1.5 times
-        animatedImageView.setTranslationX(-10f); // Adjust the value as needed
-        // Start the initial animation
-        frameAnimation.start();
+    @Deprecated
+    public static void playInfiniteFireAnimationV2(final ImageView animatedImageView) {
+        PetAnimationController.forView(animatedImageView).play("FIRE", PetAnimationTable.PREVIEW);
     }
 
     /**
-     * Applies an idle animation to the provided ImageView using a frame-by-frame animation.
+     * Loops the fire pet on the home screen.
      *
-     * <p>This method sets the appropriate image resource for the idle animation,
-     * applies necessary adjustments to prevent bitmap filtering, and starts the frame animation.</p>
-     *
-     * @param animatedImageView The ImageView to apply the idle animation to.
+     * @param animatedImageView The ImageView that will display the pet animations.
+     * @deprecated Use {@link PetAnimationController#play(String, String)} with {@link PetAnimationTable#HOME}.
      */
-
-    public static void foxPetIdleAnim(ImageView animatedImageView) {
-        animatedImageView.setImageResource(R.drawable.fox_idle_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-
-        animatedImageView.setScaleX(-0.8f); // Scale width by 1.5 times
-        animatedImageView.setScaleY(0.8f); // Scale height by 1.5 times
-//        animatedImageView.setTranslationY(30f); // Adjust the value as needed
-
-        // Start the initial animation
-        frameAnimation.start();
+    @Deprecated
+    public void playInfiniteFireAnimationV4(final ImageView animatedImageView) {
+        PetAnimationController.forView(animatedImageView).play("FIRE", PetAnimationTable.HOME);
     }
 
     /**
-     * Applies an idle animation to the provided ImageView using a frame-by-frame animation. v4
+     * Shows the fox pet running.
      *
-     * <p>This method sets the appropriate image resource for the idle animation,
-     * applies necessary adjustments to prevent bitmap filtering, and starts the frame animation.</p>
-     *
-     * @param animatedImageView The ImageView to apply the idle animation to.
+     * @param animatedImageView The ImageView where the frame animation will be displayed.
+     * @deprecated Use {@link PetAnimationController#play(String, String)} with {@link PetAnimationTable#RUN}.
      */
-
-    public static void foxPetIdleAnimV4(ImageView animatedImageView) {
-        animatedImageView.setImageResource(R.drawable.fox_idle_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-
-        animatedImageView.setScaleX(-0.8f); // Scale width by 1.5 times
-        animatedImageView.setScaleY(0.8f); // Scale height by 1.5 times
-        animatedImageView.setTranslationX(-15f); // Adjust the value as needed
-
-        // Start the initial animation
-        frameAnimation.start();
+    @Deprecated
+    public static void foxPetRunAnim(ImageView animatedImageView) {
+        PetAnimationController.forView(animatedImageView).play("FOX", PetAnimationTable.RUN);
     }
 
     /**
-     * Applies an idle animation to the provided ImageView using a frame-by-frame animation. v3
+     * Shows the fox pet running, mirrored at 0.8 scale and moved 10 pixels left.
      *
-     * <p>This method sets the appropriate image resource for the idle animation,
-     * applies necessary adjustments to prevent bitmap filtering, and starts the frame animation.</p>
-     *
-     * @param animatedImageView The ImageView to apply the idle animation to.
+     * @param animatedImageView The ImageView to apply the animation to.
+     * @deprecated Show the state through a {@link PetAnimationTable} instead.
      */
-
-    public static void foxPetIdleAnimV3(ImageView animatedImageView) {
-        animatedImageView.setImageResource(R.drawable.fox_idle_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-
-        animatedImageView.setScaleX(0.8f); // Scale width by 1.5 times
-        animatedImageView.setScaleY(0.8f); // Scale height by 1.5 times
-//        animatedImageView.setTranslationY(30f); // Adjust the value as needed
-
-        // Start the initial animation
-        frameAnimation.start();
+    @Deprecated
+    public static void foxPetRunAnimV2(ImageView animatedImageView) {
+        playPose(animatedImageView, "FOX", "run", R.drawable.fox_run_frame_animation, new PetAnimationTable.Transform(-0.8f, 0.8f, -10f, PetAnimationTable.KEEP));
     }
 
     /**
-     * Applies an idle animation to the provided ImageView using a frame-by-frame animation. v2
-     *
-     * <p>This method sets the appropriate image resource for the idle animation,
-     * applies necessary adjustments to prevent bitmap filtering, and starts the frame animation.</p>
+     * Shows the fox pet idling without changing its transform.
      *
-     * @param animatedImageView The ImageView to apply the idle animation to.
+     * @param animatedImageView The ImageView to apply the animation to.
+     * @deprecated Show the state through a {@link PetAnimationTable} instead.
      */
-
+    @Deprecated
     public static void foxPetIdleAnimV2(ImageView animatedImageView) {
-        animatedImageView.setImageResource(R.drawable.fox_idle_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-
-
-//        animatedImageView.setTranslationY(30f); // Adjust the value as needed
-
-        // Start the initial animation
-        frameAnimation.start();
+        playPose(animatedImageView, "FOX", "idle", R.drawable.fox_idle_frame_animation, PetAnimationTable.Transform.NONE);
     }
 
     /**
-     * Applies a shot animation to the provided ImageView using a frame-by-frame animation.
-     *
-     * <p>This method sets the appropriate image resource for the shot animation,
-     * applies necessary adjustments to prevent bitmap filtering, and starts the frame animation.</p>
+     * Shows the fox pet idling at 0.8 scale, not mirrored.
      *
-     * @param animatedImageView The ImageView to apply the shot animation to.
+     * @param animatedImageView The ImageView to apply the animation to.
+     * @deprecated Show the state through a {@link PetAnimationTable} instead.
      */
-
-    public static void foxPetShotAnim(ImageView animatedImageView) {
-        animatedImageView.setImageResource(R.drawable.fox_shot_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-
-        // Start the initial animation
-        frameAnimation.start();
+    @Deprecated
+    public static void foxPetIdleAnimV3(ImageView animatedImageView) {
+        playPose(animatedImageView, "FOX", "idle", R.drawable.fox_idle_frame_animation, new PetAnimationTable.Transform(0.8f, 0.8f, PetAnimationTable.KEEP, PetAnimationTable.KEEP));
     }
 
     /**
-     * Applies a shot animation to the provided ImageView using a frame-by-frame animation.
-     *
-     * <p>This method sets the appropriate image resource for the shot animation,
-     * applies necessary adjustments to prevent bitmap filtering, and starts the frame animation.</p>
+     * Shows the fox pet idling, mirrored at 0.8 scale and moved 15 pixels left.
      *
-     * @param animatedImageView The ImageView to apply the shot animation to.
+     * @param animatedImageView The ImageView to apply the animation to.
+     * @deprecated Show the state through a {@link PetAnimationTable} instead.
      */
-
-    public static void foxHurtShotAnim(ImageView animatedImageView) {
-        animatedImageView.setImageResource(R.drawable.fox_hurt_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-
-        // Start the initial animation
-        frameAnimation.start();
+    @Deprecated
+    public static void foxPetIdleAnimV4(ImageView animatedImageView) {
+        playPose(animatedImageView, "FOX", "idle", R.drawable.fox_idle_frame_animation, new PetAnimationTable.Transform(-0.8f, 0.8f, -15f, PetAnimationTable.KEEP));
     }
 
     /**
-     * Applies a shot animation to the provided ImageView using a frame-by-frame animation. v2
-     *
-     * <p>This method sets the appropriate image resource for the shot animation,
-     * applies necessary adjustments to prevent bitmap filtering, and starts the frame animation.</p>
+     * Shows the fox pet shooting.
      *
-     * @param animatedImageView The ImageView to apply the shot animation to.
+     * @param animatedImageView The ImageView to apply the animation to.
+     * @deprecated Show the state through a {@link PetAnimationTable} instead.
      */
+    @Deprecated
+    public static void foxPetShotAnim(ImageView animatedImageView) {
+        playPose(animatedImageView, "FOX", "shot", R.drawable.fox_shot_frame_animation, PetAnimationTable.Transform.NONE);
+    }
 
     /**
-     * Applies a hurt shot animation to the provided ImageView using a frame-by-frame animation.
-     *
-     * <p>This method sets the appropriate image resource for the hurt shot animation,
-     * applies necessary adjustments to prevent bitmap filtering, and starts the frame animation.</p>
+     * Shows the fox pet hurt.
      *
-     * @param animatedImageView The ImageView to apply the hurt shot animation to.
+     * @param animatedImageView The ImageView to apply the animation to.
+     * @deprecated Show the state through a {@link PetAnimationTable} instead.
      */
-
-    public static void foxHurtShotAnimV2(ImageView animatedImageView) {
-        animatedImageView.setImageResource(R.drawable.fox_hurt_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-        animatedImageView.setScaleX(-0.8f); // Scale width by 1.5 times
-        animatedImageView.setScaleY(0.8f); // Scale height by 1.5 times
-        animatedImageView.setTranslationX(2f); // Adjust the value as needed
-        // Start the initial animation
-        frameAnimation.start();
+    @Deprecated
+    public static void foxHurtShotAnim(ImageView animatedImageView) {
+        playPose(animatedImageView, "FOX", "hurt", R.drawable.fox_hurt_frame_animation, PetAnimationTable.Transform.NONE);
     }
 
     /**
-     * Applies a sleeping animation to the provided ImageView using a frame-by-frame animation.
+     * Shows the fox pet hurt, mirrored at 0.8 scale and moved 2 pixels right.
      *
-     * <p>This method sets the appropriate image resource for the sleeping animation,
-     * applies a scaling transformation to the ImageView, and starts the frame animation.
-     * The animation frames are adjusted to prevent bitmap filtering.</p>
-     *
-     * @param animatedImageView The ImageView to apply the sleeping animation to.
+     * @param animatedImageView The ImageView to apply the animation to.
+     * @deprecated Show the state through a {@link PetAnimationTable} instead.
      */
-
-    public static void foxSleepAnim(ImageView animatedImageView) {
-
-        animatedImageView.setScaleX(-0.8f); // Scale width by 1.5 times
-        animatedImageView.setScaleY(0.8f); // Scale height by 1.5 times
-        animatedImageView.setTranslationY(30f); // Adjust the value as needed
-        animatedImageView.setTranslationX(30f); // Move 50 pixels to the right
-
-        animatedImageView.setImageResource(R.drawable.fox_sleep_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-
-        // Start the initial animation
-        frameAnimation.start();
+    @Deprecated
+    public static void foxHurtShotAnimV2(ImageView animatedImageView) {
+        playPose(animatedImageView, "FOX", "hurt", R.drawable.fox_hurt_frame_animation, new PetAnimationTable.Transform(-0.8f, 0.8f, 2f, PetAnimationTable.KEEP));
     }
 
-
     /**
-     * Starts an infinite loop of animations for a pet in various states.
-     *
-     * <p>This method applies transformations (scaling and translation) to the provided
-     * ImageView, then alternates between different animations representing the pet
-     * in various states such as idle, sleep, and other actions. The loop continues indefinitely
-     * by scheduling the next animation after each cycle.</p>
+     * Loops the fox pet on the home screen.
      *
      * @param animatedImageView The ImageView that will display the pet animations.
+     * @deprecated Use {@link PetAnimationController#play(String, String)} with {@link PetAnimationTable#HOME}.
      */
-
+    @Deprecated
     public static void playInfiniteFoxAnimation(final ImageView animatedImageView) {
-
-        animationHandler.removeCallbacksAndMessages(null);
-        animatedImageView.setScaleX(-0.8f); // Scale width by 1.5 times
-        animatedImageView.setScaleY(0.8f); // Scale height by 1.5 times
-        animatedImageView.setTranslationY(30f); // Adjust the value as needed
-        animatedImageView.setTranslationX(0f); // Move 50 pixels to the right
-
-
-        // Runnable to switch between animations
-        Runnable animationRunnable = new Runnable() {
-            int animationIndex = 0;
-
-            @Override
-            public void run() {
-                switch (animationIndex) {
-                    case 0:
-                        foxPetRunAnim(animatedImageView);
-                        break;
-                    case 1:
-                        foxPetIdleAnim(animatedImageView);
-                        break;
-                    case 2:
-                        foxPetShotAnim(animatedImageView);
-                        break;
-                    case 3:
-                        foxHurtShotAnim(animatedImageView);
-                        break;
-                }
-
-                // Move to the next animation
-                animationIndex = (animationIndex + 1) % 4;
-
-                // Schedule the next animation after the duration
-                animationHandler.postDelayed(this, ANIMATION_DURATION);
-            }
-        };
-
-        // Start the infinite animation loop
-        animationHandler.post(animationRunnable);
+        PetAnimationController.forView(animatedImageView).play("FOX", PetAnimationTable.HOME);
     }
 
     /**
-     * Starts an infinite loop of animations for a pet in various states. v3
-     *
-     * <p>This method applies transformations (scaling and translation) to the provided
-     * ImageView, then alternates between different animations representing the pet
-     * in various states such as idle, sleep, and other actions. The loop continues indefinitely
-     * by scheduling the next animation after each cycle.</p>
+     * Loops the fox pet in the inventory preview.
      *
      * @param animatedImageView The ImageView that will display the pet animations.
+     * @deprecated Use {@link PetAnimationController#play(String, String)} with {@link PetAnimationTable#PREVIEW}.
      */
-
-    public void playInfiniteFoxAnimationV3(final ImageView animatedImageView) {
-
-        animatedImageView.setScaleX(-0.8f); // Scale width by 1.5 times
-        animatedImageView.setScaleY(0.8f); // Scale height by 1.5 times
-        animatedImageView.setTranslationY(30f); // Adjust the value as needed
-        animatedImageView.setTranslationX(0f); // Move 50 pixels to the right
-
-
-        // Runnable to switch between animations
-        Runnable animationRunnable = new Runnable() {
-            int animationIndex = 0;
-
-            @Override
-            public void run() {
-                switch (animationIndex) {
-                    case 0:
-                        foxPetRunAnim(animatedImageView);
-                        break;
-                    case 1:
-                        foxPetIdleAnim(animatedImageView);
-                        break;
-                    case 2:
-                        foxPetShotAnim(animatedImageView);
-                        break;
-                    case 3:
-                        foxHurtShotAnim(animatedImageView);
-                        break;
-                }
-
-                // Move to the next animation
-                animationIndex = (animationIndex + 1) % 4;
-
-                // Schedule the next animation after the duration
-                animationHandler.postDelayed(this, ANIMATION_DURATION);
-            }
-        };
-
-        // Start the infinite animation loop
-        animationHandler.post(animationRunnable);
+    @Deprecated
+    public static void playInfiniteFoxAnimationV2(final ImageView animatedImageView) {
+        PetAnimationController.forView(animatedImageView).play("FOX", PetAnimationTable.PREVIEW);
     }
 
     /**
-     * Starts an infinite loop of animations for a pet in various states. v2
-     *
-     * <p>This method applies transformations (scaling and translation) to the provided
-     * ImageView, then alternates between different animations representing the pet
-     * in various states such as idle, sleep, and other actions. The loop continues indefinitely
-     * by scheduling the next animation after each cycle.</p>
+     * Loops the fox pet on the home screen.
      *
      * @param animatedImageView The ImageView that will display the pet animations.
+     * @deprecated Use {@link PetAnimationController#play(String, String)} with {@link PetAnimationTable#HOME}.
      */
-
-    public static void playInfiniteFoxAnimationV2(final ImageView animatedImageView) {
-
-        animationHandler.removeCallbacksAndMessages(null);
-        animatedImageView.setScaleX(-1.16f); // Scale width by 1.5 times
-        animatedImageView.setScaleY(1.16f); // Scale height by 1.5 times
-        animatedImageView.setTranslationY(-30f); // Adjust the value as needed
-        animatedImageView.setTranslationX(0); // Adjust the value as needed
-
-
-        // Runnable to switch between animations
-        Runnable animationRunnable = new Runnable() {
-            int animationIndex = 0;
-
-            @Override
-            public void run() {
-                switch (animationIndex) {
-                    case 0:
-                        foxPetRunAnim(animatedImageView);
-                        break;
-                    case 1:
-                        foxPetIdleAnimV2(animatedImageView);
-                        break;
-                    case 2:
-                        foxPetShotAnim(animatedImageView);
-                        break;
-                    case 3:
-                        foxHurtShotAnim(animatedImageView);
-                        break;
-                }
-
-                // Move to the next animation
-                animationIndex = (animationIndex + 1) % 4;
-
-                // Schedule the next animation after the duration
-                animationHandler.postDelayed(this, ANIMATION_DURATION);
-            }
-        };
-
-        // Start the infinite animation loop
-        animationHandler.post(animationRunnable);
+    @Deprecated
+    public void playInfiniteFoxAnimationV3(final ImageView animatedImageView) {
+        PetAnimationController.forView(animatedImageView).play("FOX", PetAnimationTable.HOME);
     }
 
-
-    //SQUIRREL PET ANIMATION:________________________________________
-
     /**
-     * Starts a frame-by-frame animation for a pet running.
-     *
-     * <p>This method sets the image resource for the provided ImageView to a frame animation
-     * that represents the pet running. The frames are processed to disable bitmap filtering
-     * for better performance, and the animation is started.</p>
+     * Shows the squirrel pet running.
      *
      * @param animatedImageView The ImageView where the frame animation will be displayed.
+     * @deprecated Use {@link PetAnimationController#play(String, String)} with {@link PetAnimationTable#RUN}.
      */
-
+    @Deprecated
     public static void squirrelPetRunAnim(ImageView animatedImageView) {
-        animatedImageView.setImageResource(R.drawable.squirrel_run_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-
-        // Start the initial animation
-        frameAnimation.start();
+        PetAnimationController.forView(animatedImageView).play("SQUIRREL", PetAnimationTable.RUN);
     }
 
     /**
-     * Applies an idle animation to the provided ImageView using a frame-by-frame animation.
+     * Shows the squirrel pet idling at 1.7 scale, not mirrored, moved 50 pixels right.
      *
-     * <p>This method sets the appropriate image resource for the idle animation,
-     * applies necessary adjustments to prevent bitmap filtering, and starts the frame animation.</p>
-     *
-     * @param animatedImageView The ImageView to apply the idle animation to.
+     * @param animatedImageView The ImageView to apply the animation to.
+     * @deprecated Show the state through a {@link PetAnimationTable} instead.
      */
-
-    public static void squirrelPetIdleAnim(ImageView animatedImageView) {
-        // Set the image resource to the animation drawable
-        animatedImageView.setImageResource(R.drawable.squirrel_idle_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-
-        // Optional: Turn off bitmap filtering for sharper pixel scaling, if desired
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-
-        // Apply scaling transformation to the ImageView to enlarge the animation
-        animatedImageView.setScaleX(-1.7f); // Scale width by 1.5 times
-        animatedImageView.setScaleY(1.7f); // Scale height by 1.5 times
-
-        // Start the initial animation
-        frameAnimation.start();
+    @Deprecated
+    public static void squirrelPetIdleAnimV2(ImageView animatedImageView) {
+        playPose(animatedImageView, "SQUIRREL", "idle", R.drawable.squirrel_idle_frame_animation, new PetAnimationTable.Transform(1.7f, 1.7f, 50f, PetAnimationTable.KEEP));
     }
 
     /**
-     * Applies an idle animation to the provided ImageView using a frame-by-frame animation. v3
+     * Shows the squirrel pet idling, mirrored at 1.7 scale and moved 15 pixels left.
      *
-     * <p>This method sets the appropriate image resource for the idle animation,
-     * applies necessary adjustments to prevent bitmap filtering, and starts the frame animation.</p>
-     *
-     * @param animatedImageView The ImageView to apply the idle animation to.
+     * @param animatedImageView The ImageView to apply the animation to.
+     * @deprecated Show the state through a {@link PetAnimationTable} instead.
      */
-
+    @Deprecated
     public static void squirrelPetIdleAnimV3(ImageView animatedImageView) {
-        // Set the image resource to the animation drawable
-        animatedImageView.setImageResource(R.drawable.squirrel_idle_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-
-        // Optional: Turn off bitmap filtering for sharper pixel scaling, if desired
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-
-        // Apply scaling transformation to the ImageView to enlarge the animation
-        animatedImageView.setScaleX(-1.7f); // Scale width by 1.5 times
-        animatedImageView.setScaleY(1.7f); // Scale height by 1.5 times
-        animatedImageView.setTranslationX(-15f); // Adjust the value as needed
-
-        // Start the initial animation
-        frameAnimation.start();
-    }
-
-    /**
-     * Applies an idle animation to the provided ImageView using a frame-by-frame animation. v2
-     *
-     * <p>This method sets the appropriate image resource for the idle animation,
-     * applies necessary adjustments to prevent bitmap filtering, and starts the frame animation.</p>
-     *
-     * @param animatedImageView The ImageView to apply the idle animation to.
-     */
-
-    public static void squirrelPetIdleAnimV2(ImageView animatedImageView) {
-        // Set the image resource to the animation drawable
-        animatedImageView.setImageResource(R.drawable.squirrel_idle_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-
-        // Optional: Turn off bitmap filtering for sharper pixel scaling, if desired
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-
-        // Apply scaling transformation to the ImageView to enlarge the animation
-        animatedImageView.setScaleX(1.7f); // Scale width by 1.5 times
-        animatedImageView.setScaleY(1.7f); // Scale height by 1.5 times
-        animatedImageView.setTranslationX(50f); // Adjust the value as needed
-
-        // Start the initial animation
-        frameAnimation.start();
+        playPose(animatedImageView, "SQUIRREL", "idle", R.drawable.squirrel_idle_frame_animation, new PetAnimationTable.Transform(-1.7f, 1.7f, -15f, PetAnimationTable.KEEP));
     }
 
     /**
-     * Applies a shot animation to the provided ImageView using a frame-by-frame animation.
+     * Shows the squirrel pet shooting.
      *
-     * <p>This method sets the appropriate image resource for the shot animation,
-     * applies necessary adjustments to prevent bitmap filtering, and starts the frame animation.</p>
-     *
-     * @param animatedImageView The ImageView to apply the shot animation to.
+     * @param animatedImageView The ImageView to apply the animation to.
+     * @deprecated Show the state through a {@link PetAnimationTable} instead.
      */
-
+    @Deprecated
     public static void squirrelPetShotAnim(ImageView animatedImageView) {
-        animatedImageView.setImageResource(R.drawable.squirrel_shot_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-
-        animatedImageView.setScaleX(-1.7f); // Scale width by 1.5 times
-        animatedImageView.setScaleY(1.7f); // Scale height by 1.5 times
-
-        // Start the initial animation
-        frameAnimation.start();
+        playPose(animatedImageView, "SQUIRREL", "shot", R.drawable.squirrel_shot_frame_animation, PetAnimationTable.Transform.scale(-1.7f, 1.7f));
     }
 
     /**
-     * Applies a hurt shot animation to the provided ImageView using a frame-by-frame animation.
-     *
-     * <p>This method sets the appropriate image resource for the hurt shot animation,
-     * applies necessary adjustments to prevent bitmap filtering, and starts the frame animation.</p>
+     * Shows the squirrel pet hurt.
      *
-     * @param animatedImageView The ImageView to apply the hurt shot animation to.
+     * @param animatedImageView The ImageView to apply the animation to.
+     * @deprecated Show the state through a {@link PetAnimationTable} instead.
      */
-
+    @Deprecated
     public static void squirrelHurtShotAnim(ImageView animatedImageView) {
-        animatedImageView.setImageResource(R.drawable.squirrel_hurt_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-
-        animatedImageView.setScaleX(-1.7f); // Scale width by 1.5 times
-        animatedImageView.setScaleY(1.7f); // Scale height by 1.5 times
-
-        // Start the initial animation
-        frameAnimation.start();
+        playPose(animatedImageView, "SQUIRREL", "hurt", R.drawable.squirrel_hurt_frame_animation, PetAnimationTable.Transform.scale(-1.7f, 1.7f));
     }
 
-
     /**
-     * Applies a sleeping animation to the provided ImageView using a frame-by-frame animation.
-     *
-     * <p>This method sets the appropriate image resource for the sleeping squirrel animation,
-     * applies a scaling transformation to the ImageView, and starts the frame animation.
-     * The animation frames are adjusted to prevent bitmap filtering.</p>
+     * Shows the squirrel pet sleeping, mirrored at 1.7 scale and moved 15 pixels left.
      *
-     * @param animatedImageView The ImageView to apply the sleeping animation to.
+     * @param animatedImageView The ImageView to apply the animation to.
+     * @deprecated Show the state through a {@link PetAnimationTable} instead.
      */
-
-    public static void squirrelSleepAnim(ImageView animatedImageView) {
-        animatedImageView.setImageResource(R.drawable.squirrel_sleep_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-        animatedImageView.setScaleX(-1.7f); // Scale width by 1.5 times
-        animatedImageView.setScaleY(1.7f); // Scale height by 1.5 times
-
-        // Start the initial animation
-        frameAnimation.start();
+    @Deprecated
+    public static void squirrelSleepAnimV2(ImageView animatedImageView) {
+        playPose(animatedImageView, "SQUIRREL", "sleep", R.drawable.squirrel_sleep_frame_animation, new PetAnimationTable.Transform(-1.7f, 1.7f, -15f, PetAnimationTable.KEEP));
     }
 
     /**
-     * Applies a sleeping animation to the provided ImageView using a frame-by-frame animation.
+     * Loops the squirrel pet on the home screen.
      *
-     * <p>This method sets the appropriate image resource for the sleeping squirrel animation,
-     * applies a scaling transformation to the ImageView, and starts the frame animation.
-     * The animation frames are adjusted to prevent bitmap filtering.</p>
-     *
-     * @param animatedImageView The ImageView to apply the sleeping animation to.
+     * @param animatedImageView The ImageView that will display the pet animations.
+     * @deprecated Use {@link PetAnimationController#play(String, String)} with {@link PetAnimationTable#HOME}.
      */
-
-    public static void squirrelSleepAnimV2(ImageView animatedImageView) {
-        animatedImageView.setImageResource(R.drawable.squirrel_sleep_frame_animation);
-        AnimationDrawable frameAnimation = (AnimationDrawable) animatedImageView.getDrawable();
-        for (int i = 0; i < frameAnimation.getNumberOfFrames(); i++) {
-            frameAnimation.getFrame(i).mutate().setFilterBitmap(false);
-        }
-        animatedImageView.setScaleX(-1.7f); // Scale width by 1.5 times
-        animatedImageView.setScaleY(1.7f); // Scale height by 1.5 times
-        animatedImageView.setTranslationX(-15f); // Adjust the value as needed
-
-        // Start the initial animation
-        frameAnimation.start();
+    @Deprecated
+    public static void playInfiniteSquirrelAnimation(final ImageView animatedImageView) {
+        PetAnimationController.forView(animatedImageView).play("SQUIRREL", PetAnimationTable.HOME);
     }
 
-
     /**
-     * Starts an infinite loop of animations for a pet in various states.
-     *
-     * <p>This method applies transformations (scaling and translation) to the provided
-     * ImageView, then alternates between different animations representing the pet
-     * in various states such as idle, sleep, and other actions. The loop continues indefinitely
-     * by scheduling the next animation after each cycle.</p>
+     * Loops the squirrel pet in the inventory preview.
      *
      * @param animatedImageView The ImageView that will display the pet animations.
+     * @deprecated Use {@link PetAnimationController#play(String, String)} with {@link PetAnimationTable#PREVIEW}.
      */
-
-    public static void playInfiniteSquirrelAnimation(final ImageView animatedImageView) {
-        // Runnable to switch between animations
-
-        animationHandler.removeCallbacksAndMessages(null);
-        animatedImageView.setScaleX(-1.7f); // Scale width by 1.5 times
-        animatedImageView.setScaleY(1.7f); // Scale height by 1.5 times
-        animatedImageView.setTranslationY(0f); // Adjust the value as needed
-        animatedImageView.setTranslationX(0f); // Move 50 pixels to the right
-
-        Runnable animationRunnable = new Runnable() {
-            int animationIndex = 0;
-
-            @Override
-            public void run() {
-                switch (animationIndex) {
-                    case 0:
-                        squirrelSleepAnim(animatedImageView);
-                        break;
-                    case 1:
-                        squirrelPetIdleAnim(animatedImageView);
-                        break;
-                    case 2:
-                        squirrelPetShotAnim(animatedImageView);
-                        break;
-                    case 3:
-                        squirrelHurtShotAnim(animatedImageView);
-                        break;
-                }
-
-                // Move to the next animation
-                animationIndex = (animationIndex + 1) % 4;
-
-                // Schedule the next animation after the duration
-                animationHandler.postDelayed(this, ANIMATION_DURATION);
-            }
-        };
-
-        // Start the infinite animation loop
-        animationHandler.post(animationRunnable);
+    @Deprecated
+    public static void playInfiniteSquirrelAnimationV2(final ImageView animatedImageView) {
+        PetAnimationController.forView(animatedImageView).play("SQUIRREL", PetAnimationTable.PREVIEW);
     }
 
     /**
-     * Starts an infinite loop of animations for a pet in various states.v3
-     *
-     * <p>This method applies transformations (scaling and translation) to the provided
-     * ImageView, then alternates between different animations representing the pet
-     * in various states such as idle, sleep, and other actions. The loop continues indefinitely
-     * by scheduling the next animation after each cycle.</p>
+     * Loops the squirrel pet on the home screen.
      *
      * @param animatedImageView The ImageView that will display the pet animations.
+     * @deprecated Use {@link PetAnimationController#play(String, String)} with {@link PetAnimationTable#HOME}.
      */
-
+    @Deprecated
     public void playInfiniteSquirrelAnimationV3(final ImageView animatedImageView) {
-        // Runnable to switch between animations
-
-        animatedImageView.setScaleX(-1.7f); // Scale width by 1.5 times
-        animatedImageView.setScaleY(1.7f); // Scale height by 1.5 times
-        animatedImageView.setTranslationX(0f); // Move 50 pixels to the right
-
-
-
-        Runnable animationRunnable = new Runnable() {
-            int animationIndex = 0;
-
-            @Override
-            public void run() {
-                switch (animationIndex) {
-                    case 0:
-                        squirrelSleepAnim(animatedImageView);
-                        break;
-                    case 1:
-                        squirrelPetIdleAnim(animatedImageView);
-                        break;
-                    case 2:
-                        squirrelPetShotAnim(animatedImageView);
-                        break;
-                    case 3:
-
-                        squirrelHurtShotAnim(animatedImageView);
-
-                        break;
-                }
-
-                // Move to the next animation
-                animationIndex = (animationIndex + 1) % 4;
-
-                // Schedule the next animation after the duration
-                animationHandler.postDelayed(this, ANIMATION_DURATION);
-            }
-        };
-
-        // Start the infinite animation loop
-        animationHandler.post(animationRunnable);
+        PetAnimationController.forView(animatedImageView).play("SQUIRREL", PetAnimationTable.HOME);
     }
 
-
     /**
-     * Starts an infinite loop of animations for a pet in various states.v2
-     *
-     * <p>This method applies transformations (scaling and translation) to the provided
-     * ImageView, then alternates between different animations representing the pet
-     * in various states such as idle, sleep, and other actions. The loop continues indefinitely
-     * by scheduling the next animation after each cycle.</p>
-     *
-     * @param animatedImageView The ImageView that will display the pet animations.
+     * Shows one frame animation of a pet with a transform, as a table of a single state.
      */
-
-    public static void playInfiniteSquirrelAnimationV2(final ImageView animatedImageView) {
-        // Runnable to switch between animations
-
-        animationHandler.removeCallbacksAndMessages(null);
-        animatedImageView.setScaleX(-2.5f); // Scale width by 1.5 times
-        animatedImageView.setScaleY(2.5f); // Scale height by 1.5 times
-        animatedImageView.setTranslationY(-30f); // Adjust the value as needed
-        animatedImageView.setTranslationX(30f); // Adjust the value as needed
-
-
-        Runnable animationRunnable = new Runnable() {
-            int animationIndex = 0;
-
-            @Override
-            public void run() {
-                switch (animationIndex) {
-                    case 0:
-                        squirrelSleepAnim(animatedImageView);
-                        animatedImageView.setScaleX(-2.5f); // Scale width by 1.5 times
-                        animatedImageView.setScaleY(2.5f); // Scale height by 1.5 times
-                        animatedImageView.setTranslationY(-30f); // Adjust the value as needed
-                        animatedImageView.setTranslationX(-30f); // Adjust the value as needed
-
-                        break;
-                    case 1:
-                        squirrelPetIdleAnim(animatedImageView);
-                        animatedImageView.setScaleX(-2.5f); // Scale width by 1.5 times
-                        animatedImageView.setScaleY(2.5f); // Scale height by 1.5 times
-                        animatedImageView.setTranslationY(-30f); // Adjust the value as needed
-                        animatedImageView.setTranslationX(-30f); // Adjust the value as needed
-
-                        break;
-                    case 2:
-//
-                        squirrelPetShotAnim(animatedImageView);
-                        animatedImageView.setTranslationX(-30f); // Adjust the value as needed
-
-
-                        break;
-                    case 3:
-
-                        squirrelHurtShotAnim(animatedImageView);
-                        animatedImageView.setScaleX(-2.5f); // Scale width by 1.5 times
-                        animatedImageView.setScaleY(2.5f); // Scale height by 1.5 times
-                        animatedImageView.setTranslationY(30f); // Adjust the value as needed
-                        animatedImageView.setTranslationX(-30f); // Adjust the value as needed
-
-                        break;
-                }
-
-                // Move to the next animation
-                animationIndex = (animationIndex + 1) % 4;
-
-                // Schedule the next animation after the duration
-                animationHandler.postDelayed(this, ANIMATION_DURATION);
-            }
-        };
-
-        // Start the infinite animation loop
-        animationHandler.post(animationRunnable);
+    private static void playPose(ImageView view, String petKey, String name, int frameRes,
+                                 PetAnimationTable.Transform transform) {
+        PetAnimationController.forView(view).play(new PetAnimationTable(petKey, PetAnimationTable.POSE,
+                PetAnimationTable.Transform.NONE,
+                new PetAnimationTable.State(name, frameRes, transform, PetAnimationTable.DEFAULT_STATE_MILLIS, 0)));
     }
 
 
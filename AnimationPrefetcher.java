@@ -0,0 +1,74 @@
+package com.example.tetris_concept;
+
+import android.content.Context;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Decodes pet frames into the {@link FrameCache} on a background thread at startup.
+ * <p>
+ * {@link HomePage#onCreate} starts the prefetch before inflating its layout. The currently chosen pet
+ * is decoded first, so by the time {@link HomeFragment} plays it the atlas is usually ready and the
+ * first frame shows without a decode on the main thread. The other pets follow, which covers the idle
+ * frames of the inventory dialog. If the home screen asks for a pet that is still being decoded it
+ * waits for that decode instead of starting a second one.
+ * </p>
+ *
+ * <p>
+ * The time the whole prefetch took is printed and kept for {@link #getLastDurationMillis()}.
+ * </p>
+ *
+ * @author Collin
+ */
+public final class AnimationPrefetcher {
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "AnimationPrefetcher");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);  // Below the main thread, above idle work
+        return thread;
+    });
+
+    private static volatile long lastDurationMillis = -1;
+
+    private AnimationPrefetcher() {
+    }
+
+    /**
+     * Starts decoding the chosen pet's frames and then every other pet's frames. Returns immediately.
+     *
+     * @param context any context; only the application context is used
+     */
+    public static void prefetch(Context context) {
+        Context appContext = context.getApplicationContext();
+        EXECUTOR.execute(() -> {
+            long start = AppClock.get().uptimeMillis();
+            try {
+                String currentPet = new Storage(appContext).getCurrentChosenPet();
+                SpriteSheet.forPet(appContext, currentPet);
+
+                PetRepository petRepository = PetRepository.getInstance(appContext);
+                for (int id = 0; id < petRepository.getPetCount(); id++) {
+                    String petKey = petRepository.keyOf(id);
+                    if (!petKey.equals(currentPet)) {
+                        SpriteSheet.forPet(appContext, petKey);
+                    }
+                }
+            } catch (RuntimeException e) {
+                // Prefetching is only an optimisation: the screens decode on demand if it fails
+                System.out.println("Error prefetching pet animations.");
+                e.printStackTrace();
+            }
+            lastDurationMillis = AppClock.get().uptimeMillis() - start;
+            System.out.println("Pet animations prefetched in " + lastDurationMillis + " ms. "
+                    + FrameCache.getInstance(appContext).dump());
+        });
+    }
+
+    /**
+     * @return how long the last prefetch took in milliseconds, or -1 if none has finished
+     */
+    public static long getLastDurationMillis() {
+        return lastDurationMillis;
+    }
+}
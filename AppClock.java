@@ -0,0 +1,71 @@
+package com.example.tetris_concept;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+/**
+ * Holds the {@link Clock} used by the app.
+ * <p>
+ * In the app this is the system clock, which posts wake-ups to the main thread. Tests and
+ * benchmarks call {@link #set(Clock)} with a {@link VirtualClock} before anything is scheduled.
+ * </p>
+ *
+ * @author Eric
+ */
+public final class AppClock {
+
+    private static Clock clock;
+
+    private AppClock() {
+    }
+
+    /**
+     * Returns the clock in use, creating the system clock on first use.
+     *
+     * @return the current clock
+     */
+    public static synchronized Clock get() {
+        if (clock == null) {
+            clock = new SystemTimeClock();
+        }
+        return clock;
+    }
+
+    /**
+     * Replaces the clock. Must be called before any timer is scheduled.
+     *
+     * @param newClock the clock to use, or {@code null} to go back to the system clock
+     */
+    public static synchronized void set(Clock newClock) {
+        clock = newClock;
+    }
+
+    /**
+     * The real clock: wall time from {@link System#currentTimeMillis()}, monotonic time from
+     * {@link SystemClock#uptimeMillis()} and wake-ups on the main thread's {@link Handler}.
+     */
+    private static final class SystemTimeClock implements Clock {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+
+        @Override
+        public long uptimeMillis() {
+            return SystemClock.uptimeMillis();
+        }
+
+        @Override
+        public void postAtTime(Runnable task, long uptimeMillis) {
+            handler.postAtTime(task, uptimeMillis);
+        }
+
+        @Override
+        public void removeCallbacks(Runnable task) {
+            handler.removeCallbacks(task);
+        }
+    }
+}
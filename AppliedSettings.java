@@ -4,7 +4,6 @@ import static com.example.tetris_concept.MusicService.isMusicMute;
 
 import android.content.Context;
 import android.content.Intent;
-import android.media.MediaPlayer;
 import android.view.View;
 import android.widget.Toast;
 
@@ -37,12 +36,14 @@ public class AppliedSettings {
     /**
      * Plays a button sound effect.
      *
+     * <p>The effect is played from memory by {@link SfxEngine}; nothing is decoded or created per tap.
+     * When sound effects are muted the audio stack is not touched at all.</p>
+     *
      * @param context the context used to access the sound resource
      */
     public static void btnSoundFx(Context context) {
         if (!isSoundFXMute) {
-            MediaPlayer btnSoundFx = MediaPlayer.create(context, R.raw.btn_fx_two);
-            btnSoundFx.start();
+            SfxEngine.getInstance(context).play(SfxEngine.BUTTON);
         }
 
     }
@@ -51,7 +52,8 @@ public class AppliedSettings {
      * Loads application settings related to music and sound effects from storage and applies them.
      *
      * <p>This method retrieves the user's music and sound effect preferences and starts
-     * the music service if music is not muted.</p>
+     * the music service if music is not muted. The sound effects are decoded only if they are
+     * not muted; otherwise the engine is created by the first effect played after unmuting.</p>
      *
      * @param context The context used to access storage and start the music service.
      */
@@ -60,6 +62,9 @@ public class AppliedSettings {
         Storage appStorage = new Storage(context);
         isMusicMute = appStorage.getIsMusicMute();
         isSoundFXMute = appStorage.getIsSoundFXMute();
+        if (!isSoundFXMute) {
+            SfxEngine.getInstance(context);  // Decode the sound effects before the first tap
+        }
 
 
         if (isMusicMute) {
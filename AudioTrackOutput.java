@@ -0,0 +1,122 @@
+package com.example.tetris_concept;
+
+import android.media.AudioAttributes;
+import android.media.AudioFormat;
+import android.media.AudioTrack;
+import android.os.Build;
+import android.os.Process;
+
+/**
+ * Plays a {@link PcmMixer} through a streaming {@link AudioTrack}.
+ * <p>
+ * A dedicated audio-priority thread mixes one block at a time and writes it to the track. The write
+ * blocks until the track has room, so the track's buffer paces the mixer. The block buffer is
+ * allocated once, so nothing is allocated while playing.
+ * </p>
+ *
+ * <p>
+ * The owner of the output starts and stops it with its own pause and resume, and releases it when
+ * it is done; a playing output keeps an {@link AudioTrack} and its thread busy even while the mix is
+ * silent. {@link MusicService} still plays its tracks through {@link MusicEngine}, so it does not
+ * create one.
+ * </p>
+ *
+ * @author Collin
+ */
+public final class AudioTrackOutput {
+
+    /** Output sample rate in Hz. */
+    public static final int SAMPLE_RATE = CrossfadeMixer.DEFAULT_SAMPLE_RATE;
+    /** Frames mixed per block: 10 ms at {@link #SAMPLE_RATE}. */
+    public static final int BLOCK_FRAMES = SAMPLE_RATE / 100;
+
+    private final PcmMixer mixer;
+    private final AudioTrack audioTrack;
+    private final short[] block = new short[BLOCK_FRAMES * PcmMixer.CHANNELS];
+    private volatile boolean running = false;
+    private volatile Thread thread;
+
+    /**
+     * @param mixer the mixer to play; its {@code maxFrames} must be at least {@link #BLOCK_FRAMES}
+     */
+    public AudioTrackOutput(PcmMixer mixer) {
+        this.mixer = mixer;
+        int minBufferBytes = AudioTrack.getMinBufferSize(SAMPLE_RATE,
+                AudioFormat.CHANNEL_OUT_STEREO, AudioFormat.ENCODING_PCM_16BIT);
+        AudioTrack.Builder builder = new AudioTrack.Builder()
+                .setAudioAttributes(new AudioAttributes.Builder()
+                        .setUsage(AudioAttributes.USAGE_GAME)
+                        .setContentType(AudioAttributes.CONTENT_TYPE_MUSIC)
+                        .build())
+                .setAudioFormat(new AudioFormat.Builder()
+                        .setSampleRate(SAMPLE_RATE)
+                        .setChannelMask(AudioFormat.CHANNEL_OUT_STEREO)
+                        .setEncoding(AudioFormat.ENCODING_PCM_16BIT)
+                        .build())
+                .setBufferSizeInBytes(Math.max(minBufferBytes, 2 * block.length * 2))  // At least two blocks
+                .setTransferMode(AudioTrack.MODE_STREAM);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            builder.setPerformanceMode(AudioTrack.PERFORMANCE_MODE_LOW_LATENCY);
+        }
+        audioTrack = builder.build();
+    }
+
+    /**
+     * Starts playing. Does nothing if already playing.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        audioTrack.play();
+        thread = new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_AUDIO);
+            while (true) {
+                synchronized (block) {
+                    // A thread left over from an earlier start exits once a newer one has replaced it
+                    if (!running || thread != Thread.currentThread()) {
+                        return;
+                    }
+                    mixer.mix(block, BLOCK_FRAMES);
+                    try {
+                        int written = audioTrack.write(block, 0, block.length);
+                        if (written < 0) {
+                            System.out.println("Error writing to the audio track: " + written + ".");
+                            return;
+                        }
+                    } catch (IllegalStateException e) {
+                        return;  // Released while this write was pending
+                    }
+                }
+            }
+        }, "AudioTrackOutput");
+        thread.start();
+    }
+
+    /**
+     * Stops playing and waits briefly for the mixing thread to finish. The track can be started again.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        audioTrack.pause();  // Unblocks a pending write
+        audioTrack.flush();
+        try {
+            thread.join(100);  // At most a few blocks; the thread exits on its next loop
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    /**
+     * Stops playing and releases the track. The output cannot be used afterwards.
+     */
+    public synchronized void release() {
+        stop();
+        audioTrack.release();
+    }
+}
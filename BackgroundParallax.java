@@ -0,0 +1,113 @@
+package com.example.tetris_concept;
+
+import android.animation.ValueAnimator;
+import android.view.View;
+import android.view.animation.AccelerateDecelerateInterpolator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The slow side-to-side drift of the screen backgrounds, shared by every screen that shows it.
+ * <p>
+ * One animator per background key drives the {@code translationX} of every attached view with that
+ * key, so going back and forth between screens reuses the same animator instead of starting a new
+ * one each time, and the background keeps its position across screens. A view is dropped when it is
+ * detached; when no view is left the animator is paused, so nothing runs for a screen that is gone.
+ * </p>
+ *
+ * <p>
+ * Only {@code translationX} changes, which is a render node property: each frame updates the
+ * property on the render thread's display list without redrawing the background. The public SDK
+ * offers no way to run the animator itself on the render thread, so its tick stays on the main thread.
+ * </p>
+ *
+ * @author Aryan Farhang-pour
+ */
+public final class BackgroundParallax {
+
+    /** Key of the drifting background shared by the home, game map, settings and about screens. */
+    public static final String DEFAULT_BACKGROUND = "background";
+
+    private static final Map<String, BackgroundParallax> SHARED = new HashMap<>();
+    private static final Map<View, BackgroundParallax> ATTACHED = new WeakHashMap<>();
+
+    private final ValueAnimator animator;
+    private final List<View> views = new ArrayList<>();
+
+    private final View.OnAttachStateChangeListener attachListener = new View.OnAttachStateChangeListener() {
+        @Override
+        public void onViewAttachedToWindow(View v) {
+            if (!views.contains(v)) {
+                views.add(v);
+            }
+            v.setTranslationX((float) animator.getAnimatedValue());
+            run();
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(View v) {
+            views.remove(v);
+            if (views.isEmpty()) {
+                animator.pause();  // Keeps the position for the next screen
+            }
+        }
+    };
+
+    private BackgroundParallax() {
+        animator = ValueAnimator.ofFloat(-100f, 100f);
+        animator.setInterpolator(new AccelerateDecelerateInterpolator());
+        animator.setDuration(8000);  // Duration in milliseconds
+        animator.setRepeatCount(ValueAnimator.INFINITE);
+        animator.setRepeatMode(ValueAnimator.REVERSE);
+        animator.addUpdateListener(animation -> {
+            float translationX = (float) animation.getAnimatedValue();
+            for (int i = 0; i < views.size(); i++) {
+                views.get(i).setTranslationX(translationX);
+            }
+        });
+    }
+
+    /**
+     * Makes a view drift with the shared animator of its key. Calling it again for the same view does
+     * nothing. Must be called on the main thread.
+     *
+     * @param view the background view
+     * @param key  the background key; views with the same key move together
+     */
+    public static void attach(View view, String key) {
+        if (ATTACHED.containsKey(view)) {
+            return;
+        }
+        BackgroundParallax parallax = SHARED.get(key);
+        if (parallax == null) {
+            parallax = new BackgroundParallax();
+            SHARED.put(key, parallax);
+        }
+        ATTACHED.put(view, parallax);
+        view.addOnAttachStateChangeListener(parallax.attachListener);
+        if (view.isAttachedToWindow()) {
+            parallax.attachListener.onViewAttachedToWindow(view);
+        }
+    }
+
+    /**
+     * @param key the background key
+     * @return the number of attached views moving with that key
+     */
+    public static int getViewCount(String key) {
+        BackgroundParallax parallax = SHARED.get(key);
+        return parallax == null ? 0 : parallax.views.size();
+    }
+
+    private void run() {
+        if (!animator.isStarted()) {
+            animator.start();
+        } else if (animator.isPaused()) {
+            animator.resume();
+        }
+    }
+}
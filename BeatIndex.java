@@ -0,0 +1,177 @@
+package com.example.tetris_concept;
+
+import android.content.Context;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The beats and sections of one music track, read from the index written by
+ * {@code com.example.tetris_concept.tools.BeatAnalyzer} in the {@code tools} module.
+ * <p>
+ * Indexes live in {@code assets/beats/<track>.beats}, named after the track's raw resource, which is
+ * also {@link GameMapItem#getMusicName()}. An index is read the first time its track is asked for and
+ * then kept; a missing index is remembered as missing, so it is only looked up once.
+ * {@link #loadIntervals(Context, GameMapItem)} fills a map's music intervals from its track's index;
+ * {@link GameMapFragment} calls it for every map its list shows.
+ * </p>
+ *
+ * @author Aryan Farhang-pour
+ */
+public final class BeatIndex {
+
+    /** Interval key: the typical time between two beats, in milliseconds. */
+    public static final String KEY_BEAT = "beat";
+    /** Interval key: the time of one bar of four beats, in milliseconds. */
+    public static final String KEY_BAR = "bar";
+    /** Interval key: the time of the first beat from the start of the track, in milliseconds. */
+    public static final String KEY_FIRST_BEAT = "firstBeat";
+    /** Interval key prefix: {@code section1}, {@code section2}... hold the start of each section in milliseconds. */
+    public static final String KEY_SECTION_PREFIX = "section";
+
+    private static final int MAGIC = 0x50425449;  // "PBTI"
+    private static final int VERSION = 1;
+    private static final int HASH_BYTES = 32;
+    private static final String ASSET_DIR = "beats/";
+
+    private static final Map<String, BeatIndex> LOADED = new HashMap<>();
+    private static final Set<String> MISSING = new HashSet<>();
+
+    private final float tempoBpm;
+    private final int[] beatMillis;
+    private final int[] sectionMillis;
+
+    private BeatIndex(float tempoBpm, int[] beatMillis, int[] sectionMillis) {
+        this.tempoBpm = tempoBpm;
+        this.beatMillis = beatMillis;
+        this.sectionMillis = sectionMillis;
+    }
+
+    /**
+     * Returns the index of a track, reading it on first use.
+     *
+     * @param context   any context; used to open the assets
+     * @param musicName the track's raw resource name
+     * @return the index, or null if the track has none or it cannot be read
+     */
+    public static synchronized BeatIndex forTrack(Context context, String musicName) {
+        if (musicName == null || MISSING.contains(musicName)) {
+            return null;
+        }
+        BeatIndex index = LOADED.get(musicName);
+        if (index == null) {
+            index = read(context, musicName);
+            if (index == null) {
+                MISSING.add(musicName);
+            } else {
+                LOADED.put(musicName, index);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Fills a map's music intervals from its track's index, if the map has none yet.
+     *
+     * @param context any context; used to open the assets
+     * @param map     the map to fill
+     * @return whether the map has music intervals afterwards
+     */
+    public static boolean loadIntervals(Context context, GameMapItem map) {
+        if (!map.getMusicIntervalsMap().isEmpty()) {
+            return true;
+        }
+        BeatIndex index = forTrack(context, map.getMusicName());
+        if (index == null) {
+            return false;
+        }
+        map.setMusicIntervalsMap(index.toIntervalsMap());
+        return true;
+    }
+
+    /**
+     * @return the tempo in beats per minute
+     */
+    public float getTempoBpm() {
+        return tempoBpm;
+    }
+
+    /**
+     * @return the time of every beat in milliseconds, in order
+     */
+    public int[] getBeatMillis() {
+        return beatMillis.clone();
+    }
+
+    /**
+     * @return the start of every section in milliseconds, in order; the first is 0
+     */
+    public int[] getSectionMillis() {
+        return sectionMillis.clone();
+    }
+
+    /**
+     * Finds the first beat at or after a playback position, for example to start an effect on the beat.
+     *
+     * @param positionMillis the playback position
+     * @return the beat time in milliseconds, or -1 if no beat follows
+     */
+    public int nextBeatMillis(long positionMillis) {
+        int found = Arrays.binarySearch(beatMillis, (int) Math.min(Integer.MAX_VALUE, positionMillis));
+        int next = found >= 0 ? found : -found - 1;
+        return next < beatMillis.length ? beatMillis[next] : -1;
+    }
+
+    /**
+     * @return the intervals in the form {@link GameMapItem} keeps them, see the {@code KEY_} constants
+     */
+    public Map<String, Integer> toIntervalsMap() {
+        Map<String, Integer> intervals = new HashMap<>();
+        if (tempoBpm > 0) {
+            int beat = Math.round(60_000f / tempoBpm);
+            intervals.put(KEY_BEAT, beat);
+            intervals.put(KEY_BAR, beat * 4);
+        }
+        if (beatMillis.length > 0) {
+            intervals.put(KEY_FIRST_BEAT, beatMillis[0]);
+        }
+        for (int i = 0; i < sectionMillis.length; i++) {
+            intervals.put(KEY_SECTION_PREFIX + (i + 1), sectionMillis[i]);
+        }
+        return intervals;
+    }
+
+    private static BeatIndex read(Context context, String musicName) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                context.getAssets().open(ASSET_DIR + musicName + ".beats")))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                System.out.println("Beat index of " + musicName + " has an unknown format.");
+                return null;
+            }
+            in.skipBytes(HASH_BYTES);  // Only the analyzer needs the content hash
+            float tempoBpm = in.readInt() / 100f;
+            int[] beats = new int[in.readInt()];
+            for (int i = 0; i < beats.length; i++) {
+                beats[i] = i == 0 ? in.readInt() : beats[i - 1] + in.readUnsignedShort();
+            }
+            int[] sections = new int[in.readShort()];
+            for (int i = 0; i < sections.length; i++) {
+                sections[i] = in.readInt();
+            }
+            return new BeatIndex(tempoBpm, beats, sections);
+        } catch (FileNotFoundException e) {
+            return null;  // The track has not been analysed
+        } catch (IOException e) {
+            System.out.println("Error reading the beat index of " + musicName + ".");
+            e.printStackTrace();
+            return null;
+        }
+    }
+}
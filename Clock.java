@@ -0,0 +1,40 @@
+package com.example.tetris_concept;
+
+/**
+ * The source of time for all time-driven logic: energy refills, the parental limit, the
+ * animation prefetch timing and the {@link TimerWheel}.
+ * <p>
+ * Code reads time and schedules wake-ups through {@link AppClock#get()} instead of calling
+ * {@code System.currentTimeMillis()}, {@code new Date()} or a {@code Handler} directly, so the
+ * whole app can run against a {@link VirtualClock} where a simulated week passes in milliseconds.
+ * </p>
+ *
+ * @author Eric
+ */
+public interface Clock {
+
+    /**
+     * @return the wall-clock time as epoch milliseconds
+     */
+    long currentTimeMillis();
+
+    /**
+     * @return a monotonic time in milliseconds, used for scheduling
+     */
+    long uptimeMillis();
+
+    /**
+     * Runs a task once {@link #uptimeMillis()} reaches the given time.
+     *
+     * @param task         the task to run
+     * @param uptimeMillis the time to run it at
+     */
+    void postAtTime(Runnable task, long uptimeMillis);
+
+    /**
+     * Removes every pending run of a task posted with {@link #postAtTime(Runnable, long)}.
+     *
+     * @param task the task to remove
+     */
+    void removeCallbacks(Runnable task);
+}
@@ -0,0 +1,219 @@
+package com.example.tetris_concept;
+
+import android.view.Choreographer;
+import android.view.View;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.ViewTreeLifecycleOwner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One vsync-driven clock for every looping color animation in the app.
+ * <p>
+ * Instead of one infinite {@code ValueAnimator} per text or card, each animation is a {@link Track}:
+ * a pure {@link ColorFunction} of elapsed time plus a {@link ColorTarget} that applies the color.
+ * A single {@link Choreographer} frame callback updates all active tracks in one pass per frame, and
+ * is only posted while at least one track is active.
+ * </p>
+ *
+ * <p>
+ * A track belongs to an anchor view. It runs while the anchor is attached and its lifecycle owner
+ * is at least started, and pauses when the screen stops. When the anchor is detached the clock lets
+ * go of the track; only the anchor keeps it, through its attach listener, so a view that is attached
+ * again (a dialog shown twice) resumes its animation, and recreating a fragment never leaves old
+ * animations running. Must be used on the main thread.
+ * </p>
+ *
+ * @author Aryan Farhang-pour
+ */
+public final class ColorAnimationClock implements Choreographer.FrameCallback {
+
+    /**
+     * Computes the color of an animation at a point in time. Must not touch views.
+     */
+    public interface ColorFunction {
+        /**
+         * @param elapsedMillis time since the animation first ran
+         * @return the ARGB color to show
+         */
+        int colorAt(long elapsedMillis);
+    }
+
+    /**
+     * Applies a color to one or more views.
+     */
+    public interface ColorTarget {
+        /**
+         * @param color the ARGB color to apply
+         */
+        void apply(int color);
+    }
+
+    private static ColorAnimationClock instance;
+
+    private final List<Track> tracks = new ArrayList<>();
+    private boolean frameScheduled = false;
+
+    /**
+     * A color animation tied to an anchor view.
+     */
+    private final class Track implements View.OnAttachStateChangeListener, LifecycleEventObserver {
+        private final View anchor;
+        private final ColorFunction function;
+        private final ColorTarget target;
+        private LifecycleOwner owner;
+        private boolean started = false;
+        private long startNanos = -1;
+        private int lastColor;
+        private boolean hasColor = false;
+
+        Track(View anchor, ColorFunction function, ColorTarget target) {
+            this.anchor = anchor;
+            this.function = function;
+            this.target = target;
+        }
+
+        boolean isActive() {
+            return started;
+        }
+
+        void update(long frameTimeNanos) {
+            if (startNanos < 0) {
+                startNanos = frameTimeNanos;
+            }
+            int color = function.colorAt((frameTimeNanos - startNanos) / 1_000_000L);
+            if (!hasColor || color != lastColor) {
+                lastColor = color;
+                hasColor = true;
+                target.apply(color);
+            }
+        }
+
+        @Override
+        public void onViewAttachedToWindow(View v) {
+            tracks.add(this);
+            owner = ViewTreeLifecycleOwner.get(anchor);
+            if (owner != null) {
+                owner.getLifecycle().addObserver(this);  // Replays the current state into onStateChanged
+            } else {
+                started = true;
+                scheduleFrame();
+            }
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(View v) {
+            tracks.remove(this);
+            started = false;
+            if (owner != null) {
+                owner.getLifecycle().removeObserver(this);
+                owner = null;
+            }
+        }
+
+        @Override
+        public void onStateChanged(LifecycleOwner source, Lifecycle.Event event) {
+            started = source.getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED);
+            if (started) {
+                scheduleFrame();
+            }
+        }
+    }
+
+    private ColorAnimationClock() {
+    }
+
+    /**
+     * Returns the app-wide clock. Must be called on the main thread.
+     *
+     * @return the shared {@code ColorAnimationClock}
+     */
+    public static ColorAnimationClock getInstance() {
+        if (instance == null) {
+            instance = new ColorAnimationClock();
+        }
+        return instance;
+    }
+
+    /**
+     * Adds a looping color animation. It starts on the next frame once the anchor is attached, stops
+     * when the anchor is detached and starts again if the anchor is attached again.
+     *
+     * @param anchor   the view whose attachment and lifecycle the animation follows
+     * @param function the color over time
+     * @param target   applies the color
+     */
+    public void add(View anchor, ColorFunction function, ColorTarget target) {
+        Track track = new Track(anchor, function, target);
+        anchor.addOnAttachStateChangeListener(track);
+        if (anchor.isAttachedToWindow()) {
+            track.onViewAttachedToWindow(anchor);
+        }
+    }
+
+    /**
+     * @return the number of tracks on attached views, running or paused
+     */
+    public int getTrackCount() {
+        return tracks.size();
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        frameScheduled = false;
+        boolean anyActive = false;
+        for (int i = 0; i < tracks.size(); i++) {
+            Track track = tracks.get(i);
+            if (track.isActive()) {
+                track.update(frameTimeNanos);
+                anyActive = true;
+            }
+        }
+        if (anyActive) {
+            scheduleFrame();
+        }
+    }
+
+    private void scheduleFrame() {
+        if (!frameScheduled) {
+            frameScheduled = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    // Color functions ___________________________________________________________________________
+
+    /**
+     * Blends from one color to another and back, forever. Colors come from a shared {@link GradientLut}.
+     *
+     * @param from           the color at the start of each cycle
+     * @param to             the color halfway through each cycle
+     * @param durationMillis the time from {@code from} to {@code to}
+     * @return the color function
+     */
+    public static ColorFunction pingPong(int from, int to, long durationMillis) {
+        GradientLut lut = GradientLut.of(from, to);
+        return elapsedMillis -> {
+            long phase = elapsedMillis % (2 * durationMillis);
+            long distance = phase <= durationMillis ? phase : 2 * durationMillis - phase;
+            return lut.colorAtIndex((int) (distance * (GradientLut.SIZE - 1) / durationMillis));
+        };
+    }
+
+    /**
+     * Steps through a list of colors, blending between neighbours, and restarts at the first color.
+     * Colors come from a shared {@link GradientLut}.
+     *
+     * @param colors         the colors in order
+     * @param durationMillis the time for one pass through the whole list
+     * @return the color function
+     */
+    public static ColorFunction cycle(int[] colors, long durationMillis) {
+        GradientLut lut = GradientLut.of(colors);
+        return elapsedMillis -> lut.colorAtIndex((int) (elapsedMillis % durationMillis * (GradientLut.SIZE - 1) / durationMillis));
+    }
+}
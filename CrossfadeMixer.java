@@ -0,0 +1,197 @@
+package com.example.tetris_concept;
+
+/**
+ * The timing and gain curves of a crossfade between two tracks.
+ * <p>
+ * A crossfade lasts a whole number of sample frames. Its position is set in frames, so the gains
+ * follow the audio clock rather than how often the driver happens to run: a late update jumps straight
+ * to the right gains instead of stretching the fade. {@link #gainOut()} and {@link #gainIn()} give the
+ * gains at the current position for players that only take a volume, and {@link #mix} blends two
+ * PCM buffers with a new gain on every frame.
+ * </p>
+ *
+ * <p>
+ * Curves are read from tables built once per {@link Curve}, so no trigonometry runs per frame. Uses no
+ * Android classes, so it runs on the JVM as well.
+ * </p>
+ *
+ * @author Collin
+ */
+public final class CrossfadeMixer {
+
+    /** Sample rate used to turn milliseconds into frames when none is given. */
+    public static final int DEFAULT_SAMPLE_RATE = 48000;
+
+    private static final int TABLE_SIZE = 1024;
+
+    /**
+     * The shape of a fade. Each curve gives the incoming gain; the outgoing gain is the same curve
+     * played backwards, so the two always meet halfway.
+     */
+    public enum Curve {
+        /** Gains add up to 1: the overlap sounds quieter in the middle. */
+        LINEAR {
+            @Override
+            double shape(double t) {
+                return t;
+            }
+        },
+        /** Powers add up to 1: the overlap keeps a steady loudness; the usual choice for music. */
+        EQUAL_POWER {
+            @Override
+            double shape(double t) {
+                return Math.sin(t * Math.PI / 2);
+            }
+        },
+        /** Smoothstep: starts and ends gently, quickest in the middle. */
+        S_CURVE {
+            @Override
+            double shape(double t) {
+                return t * t * (3 - 2 * t);
+            }
+        };
+
+        private final float[] table = new float[TABLE_SIZE + 1];
+
+        Curve() {
+            for (int i = 0; i <= TABLE_SIZE; i++) {
+                table[i] = (float) shape((double) i / TABLE_SIZE);
+            }
+        }
+
+        /**
+         * @param t the position in the fade between 0 and 1
+         * @return the incoming gain at that position, from 0 at t = 0 to 1 at t = 1
+         */
+        abstract double shape(double t);
+
+        /**
+         * @param progress the position in the fade between 0 and 1; values outside are clamped
+         * @return the gain of the incoming track
+         */
+        public float gainIn(float progress) {
+            if (progress <= 0f) {
+                return table[0];
+            }
+            if (progress >= 1f) {
+                return table[TABLE_SIZE];
+            }
+            float position = progress * TABLE_SIZE;
+            int index = (int) position;
+            float fraction = position - index;
+            return table[index] + (table[index + 1] - table[index]) * fraction;
+        }
+
+        /**
+         * @param progress the position in the fade between 0 and 1; values outside are clamped
+         * @return the gain of the outgoing track
+         */
+        public float gainOut(float progress) {
+            return gainIn(1f - progress);
+        }
+    }
+
+    private final Curve curve;
+    private final long durationFrames;
+    private long position = 0;
+
+    /**
+     * @param curve          the fade shape
+     * @param durationFrames the length of the fade in sample frames; 0 switches at once
+     */
+    public CrossfadeMixer(Curve curve, long durationFrames) {
+        if (durationFrames < 0) {
+            throw new IllegalArgumentException("Fade length must not be negative: " + durationFrames);
+        }
+        this.curve = curve;
+        this.durationFrames = durationFrames;
+    }
+
+    /**
+     * @param millis     a duration in milliseconds
+     * @param sampleRate frames per second
+     * @return the duration in whole frames
+     */
+    public static long millisToFrames(long millis, int sampleRate) {
+        return millis * sampleRate / 1000;
+    }
+
+    /**
+     * Moves the fade to a position, usually the number of frames played since the fade began.
+     *
+     * @param frame the position in frames; clamped to the fade
+     */
+    public void setPosition(long frame) {
+        position = frame < 0 ? 0 : Math.min(frame, durationFrames);
+    }
+
+    /**
+     * Moves the fade forward.
+     *
+     * @param frames the number of frames played since the last call
+     */
+    public void advance(long frames) {
+        setPosition(position + frames);
+    }
+
+    /**
+     * @return the position in frames
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * @return whether the fade has reached its end
+     */
+    public boolean isFinished() {
+        return position >= durationFrames;
+    }
+
+    /**
+     * @return the outgoing track's gain at the current position
+     */
+    public float gainOut() {
+        return curve.gainOut(progressAt(position));
+    }
+
+    /**
+     * @return the incoming track's gain at the current position
+     */
+    public float gainIn() {
+        return curve.gainIn(progressAt(position));
+    }
+
+    /**
+     * Blends two interleaved 16-bit PCM buffers into {@code out}, with new gains on every frame, and
+     * advances the fade by {@code frames}. Either input may be null for silence. {@code out} may be one of
+     * the inputs.
+     *
+     * @param outgoing the fading-out samples, or null
+     * @param incoming the fading-in samples, or null
+     * @param out      receives the blended samples
+     * @param frames   the number of frames to blend
+     * @param channels samples per frame, for example 2 for stereo
+     */
+    public void mix(short[] outgoing, short[] incoming, short[] out, int frames, int channels) {
+        int sample = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            float progress = progressAt(position + frame);
+            float gainOut = curve.gainOut(progress);
+            float gainIn = curve.gainIn(progress);
+            for (int channel = 0; channel < channels; channel++, sample++) {
+                float mixed = (outgoing == null ? 0f : outgoing[sample] * gainOut)
+                        + (incoming == null ? 0f : incoming[sample] * gainIn);
+                out[sample] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(mixed)));
+            }
+        }
+        advance(frames);
+    }
+
+    private float progressAt(long frame) {
+        if (durationFrames == 0 || frame >= durationFrames) {
+            return 1f;
+        }
+        return (float) frame / durationFrames;
+    }
+}
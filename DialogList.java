@@ -2,10 +2,6 @@ package com.example.tetris_concept;
 
 import static com.example.tetris_concept.AnimFunctions.flamePetIdleAnim;
 import static com.example.tetris_concept.AnimFunctions.foxPetIdleAnim;
-import static com.example.tetris_concept.AnimFunctions.playInfiniteFireAnimationV2;
-import static com.example.tetris_concept.AnimFunctions.playInfiniteFoxAnimationV2;
-//import static com.example.tetris_concept.AnimFunctions.playInfiniteSquirrelAnimation;
-import static com.example.tetris_concept.AnimFunctions.playInfiniteSquirrelAnimationV2;
 import static com.example.tetris_concept.AnimFunctions.squirrelPetIdleAnim;
 import static com.example.tetris_concept.AppliedSettings.btnSoundFx;
 import static com.example.tetris_concept.GameState.currentChosenPet;
@@ -42,6 +38,9 @@ import androidx.constraintlayout.widget.ConstraintLayout;
 
 public class DialogList {
 
+    // Reused by loadCurrentPetName so refreshing the inventory allocates nothing (main thread only)
+    private static final PetRecord.Holder PET_RECORD = new PetRecord.Holder();
+
     /**
      * Loads the current pet's name and stats from storage and updates the UI accordingly.
      *
@@ -59,42 +58,23 @@ public class DialogList {
      */
 
     static void loadCurrentPetName(EditText petNameEdit, Storage appStorage, ImageView animatedImageView, TextView hpTxt, TextView foTxt, TextView maTxt, TextView viTxt) {
-
-        switch (appStorage.getCurrentChosenPet()) {
-            case "FIRE":
-                petNameEdit.setText(appStorage.getFirePetName());
-                playInfiniteFireAnimationV2(animatedImageView);
-                //set stats:
-                hpTxt.setText(String.valueOf(appStorage.getFirePetHP()));
-                foTxt.setText(String.valueOf(appStorage.getFirePetFO()));
-                maTxt.setText(String.valueOf(appStorage.getFirePetMA()));
-                viTxt.setText(String.valueOf(appStorage.getFirePetVI()));
-
-
-                break;
-            case "FOX":
-                petNameEdit.setText(appStorage.getFoxPetName());
-                playInfiniteFoxAnimationV2(animatedImageView);
-                //set stats:
-                hpTxt.setText(String.valueOf(appStorage.getFoxPetHP()));
-                foTxt.setText(String.valueOf(appStorage.getFoxPetFO()));
-                maTxt.setText(String.valueOf(appStorage.getFoxPetMA()));
-                viTxt.setText(String.valueOf(appStorage.getFoxPetVI()));
-                break;
-            case "SQUIRREL":
-                petNameEdit.setText(appStorage.getSquirrelPetName());
-                playInfiniteSquirrelAnimationV2(animatedImageView);
-                //set stats:
-                hpTxt.setText(String.valueOf(appStorage.getSquirrelPetHP()));
-                foTxt.setText(String.valueOf(appStorage.getSquirrelPetFO()));
-                maTxt.setText(String.valueOf(appStorage.getSquirrelPetMA()));
-                viTxt.setText(String.valueOf(appStorage.getSquirrelPetVI()));
-                break;
-            default:
-                System.out.println("Invalid color selection.");
-                break;
+        PetRepository petRepository = PetRepository.getInstance(petNameEdit.getContext());
+        int petId = petRepository.idOf(appStorage.getCurrentChosenPet());
+        if (petId < 0) {
+            System.out.println("Invalid pet selection.");
+            return;
         }
 
+        // One read for the whole record
+        petRepository.readInto(petId, PET_RECORD);
+        petNameEdit.setText(PET_RECORD.name);
+        hpTxt.setText(PetRecord.formatStat(PET_RECORD.hp));
+        foTxt.setText(PetRecord.formatStat(PET_RECORD.fo));
+        maTxt.setText(PetRecord.formatStat(PET_RECORD.ma));
+        viTxt.setText(PetRecord.formatStat(PET_RECORD.vi));
+
+        PetAnimationController.forView(animatedImageView).play(PET_RECORD.key, PetAnimationTable.PREVIEW);
+
     }
 
 
@@ -154,7 +134,9 @@ public class DialogList {
     static void showPauseDialog2(Context context) {
         Dialog dialog = new Dialog(context, R.style.CustomDialogTheme);
         dialog.setContentView(R.layout.warning_dialog);
-        Storage appStorage = new Storage(context);
+        long wakeMillis = EnergyRefillScheduler.getInstance(context).getWakeMillis();
+        String wakeDate = wakeMillis == EnergyMeter.NEVER ? new Storage(context).getDateRefillEnergy()
+                : EnergyRefillScheduler.formatDate(wakeMillis);
 
         // Initialize dialog components: _______________________________
         TextView warningHeader = dialog.findViewById(R.id.warningHeader);
@@ -163,7 +145,7 @@ public class DialogList {
 
         // Events On Load: ____________________________
         warningHeader.setText("NO ENERGY!");
-        warningMessage.setText("All Pets Are Sleeping to Regain Energy Unitl:\n" + appStorage.getDateRefillEnergy());
+        warningMessage.setText("All Pets Are Sleeping to Regain Energy Unitl:\n" + wakeDate);
         warningBtn.setText("OKAY");
         warningBtn.setOnClickListener(new View.OnClickListener() {
             @Override
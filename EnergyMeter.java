@@ -0,0 +1,165 @@
+package com.example.tetris_concept;
+
+/**
+ * The game energy as a token bucket: the last known energy, the time it was recorded and how fast
+ * it regenerates.
+ * <p>
+ * The current energy is computed in closed form from those three values whenever it is read, so
+ * nothing ticks in the background and catching up after days away costs the same as after a second.
+ * </p>
+ *
+ * <p>
+ * Once the pets fall asleep with {@link #sleepUntil(long, long)} they stay asleep until the refill
+ * time the game chose, while the energy climbs back toward full. Outside such a sleep they are
+ * asleep only while the energy is 0.
+ * </p>
+ *
+ * <p>
+ * The rate is set when the pets fall asleep: {@link #sleepUntil(long, long)} picks it so that the
+ * energy is full exactly at the refill time the game chose. It stays in effect afterwards, so energy
+ * spent later regenerates at the same speed. Until the pets first sleep, energy does not regenerate.
+ * </p>
+ *
+ * <p>Plain Java, so it can be driven by a {@link VirtualClock} on the JVM.</p>
+ *
+ * @author Alex
+ */
+public final class EnergyMeter {
+
+    /** Energy of fully rested pets. */
+    public static final int FULL_ENERGY = 100;
+
+    /** Returned by the time queries when the event never happens at the current rate. */
+    public static final long NEVER = Long.MAX_VALUE;
+
+    private int energy;
+    private long energyMillis;
+    private long millisPerUnit;
+    private long wakeAtMillis;
+    private RegenBucket bucket;
+
+    /**
+     * Creates a meter from saved values.
+     *
+     * @param energy        the last recorded energy
+     * @param energyMillis  when it was recorded, in epoch milliseconds
+     * @param millisPerUnit milliseconds to regenerate one unit, or 0 for no regeneration
+     * @param wakeAtMillis  when the pets wake from their last sleep, or 0 if they never slept
+     */
+    public EnergyMeter(int energy, long energyMillis, long millisPerUnit, long wakeAtMillis) {
+        this.energy = clamp(energy);
+        this.energyMillis = energyMillis;
+        this.millisPerUnit = Math.max(0, millisPerUnit);
+        this.wakeAtMillis = wakeAtMillis;
+        this.bucket = new RegenBucket(FULL_ENERGY, this.millisPerUnit);
+    }
+
+    /**
+     * @param nowMillis the time to compute the energy for
+     * @return the energy at that time (0 - {@link #FULL_ENERGY})
+     */
+    public int valueAt(long nowMillis) {
+        return bucket.valueAt(energy, energyMillis, nowMillis);
+    }
+
+    /**
+     * @param nowMillis the time to check
+     * @return whether the pets are asleep at that time: before the refill time, or with no energy
+     */
+    public boolean isAsleepAt(long nowMillis) {
+        return nowMillis < wakeAtMillis || valueAt(nowMillis) == 0;
+    }
+
+    /**
+     * Records a new energy, for example after a game spent some. Progress toward the next unit is kept.
+     * While the pets sleep the rate is picked again, so the energy is still full when they wake.
+     *
+     * @param value     the new energy
+     * @param nowMillis the time of the change
+     */
+    public void set(int value, long nowMillis) {
+        energyMillis = bucket.rebase(energy, energyMillis, nowMillis);
+        energy = clamp(value);
+        if (nowMillis < wakeAtMillis) {
+            sleepUntil(wakeAtMillis, nowMillis);  // The game wrote its refill date before the energy it spent
+        }
+    }
+
+    /**
+     * Puts the pets to sleep until the given time, regenerating at the rate that makes the energy full
+     * by then.
+     *
+     * @param fullAtMillis when the pets wake with full energy, in epoch milliseconds
+     * @param nowMillis    the current time
+     */
+    public void sleepUntil(long fullAtMillis, long nowMillis) {
+        int value = valueAt(nowMillis);
+        energy = value;
+        energyMillis = nowMillis;
+        wakeAtMillis = fullAtMillis;
+        if (fullAtMillis <= nowMillis) {
+            energy = FULL_ENERGY;  // The refill time passed before it was seen
+        } else if (value < FULL_ENERGY) {
+            millisPerUnit = Math.max(1, (fullAtMillis - nowMillis) / (FULL_ENERGY - value));
+            bucket = new RegenBucket(FULL_ENERGY, millisPerUnit);
+        }
+    }
+
+    /**
+     * @param nowMillis the current time
+     * @return when the energy next changes, or {@link #NEVER} if it is full or does not regenerate
+     */
+    public long nextChangeMillis(long nowMillis) {
+        return bucket.nextUnitMillis(energy, energyMillis, nowMillis);
+    }
+
+    /**
+     * @param nowMillis the current time
+     * @return when the pets wake: {@code nowMillis} if they are awake, {@link #NEVER} if they never do
+     */
+    public long wakeMillis(long nowMillis) {
+        if (nowMillis < wakeAtMillis) {
+            return wakeAtMillis;
+        }
+        return valueAt(nowMillis) == 0 ? nextChangeMillis(nowMillis) : nowMillis;
+    }
+
+    /**
+     * @return when the energy will be full, or {@link #NEVER} if it does not regenerate
+     */
+    public long fullAtMillis() {
+        return bucket.fullAtMillis(energy, energyMillis);  // Long.MAX_VALUE is NEVER
+    }
+
+    /**
+     * @return the last recorded energy, for saving
+     */
+    public int getRecordedEnergy() {
+        return energy;
+    }
+
+    /**
+     * @return when the recorded energy was recorded, for saving
+     */
+    public long getRecordedMillis() {
+        return energyMillis;
+    }
+
+    /**
+     * @return when the pets wake from their last sleep, or 0 if they never slept, for saving
+     */
+    public long getWakeAtMillis() {
+        return wakeAtMillis;
+    }
+
+    /**
+     * @return milliseconds to regenerate one unit, or 0 for none
+     */
+    public long getMillisPerUnit() {
+        return millisPerUnit;
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(FULL_ENERGY, value));
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.tetris_concept;
+
+import android.content.Context;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Keeps the game energy as an {@link EnergyMeter} and wakes only when it changes.
+ * <p>
+ * The energy is stored as its last value, the time of that value and a regeneration rate, and the
+ * current energy is computed when it is read. Both the energy bar and the checks that decide whether
+ * the pets can play use {@link #getEnergy()} and {@link #isAsleep()}, so they always agree.
+ * </p>
+ *
+ * <p>
+ * Game code still talks to {@link Storage}: it writes the energy it spends, and when the energy runs
+ * out it writes the refill date ("NONE" or {@code yyyy-MM-dd-HH:mm:ss}). The scheduler follows those
+ * writes through {@link StorageObserver} from the moment they happen: a new energy is recorded as a
+ * spend, and a new refill date sets the rate that makes the energy full at that date. In the other
+ * direction, once the pets are awake every read writes the regenerated energy back to {@link Storage}
+ * and clears the refill date, so game code reading {@link Storage} sees the same energy. The pets
+ * sleep until the refill date: the bar shows the energy coming back, but they cannot play before then.
+ * </p>
+ *
+ * <p>
+ * While a screen listens with {@link #start(OnEnergyChangedListener)}, one {@link TimerWheel} task
+ * is armed for the next unit of energy; nothing runs in between.
+ * </p>
+ *
+ * <p>
+ * Only {@link #getInstance(Context)} touches Android: the scheduler itself saves its state in a
+ * {@link KeyValueStore} and reaches {@link Storage} through {@link GameEnergy}, so it also runs on the
+ * JVM against a {@link VirtualClock}.
+ * </p>
+ *
+ * <p><strong>Author:</strong> Alex</p>
+ */
+public class EnergyRefillScheduler {
+
+    /** Value stored by {@link Storage} when no refill is pending. */
+    static final String NO_REFILL = "NONE";
+
+    /** Energy of fully rested pets. */
+    static final int FULL_ENERGY = EnergyMeter.FULL_ENERGY;
+
+    /** Format of the refill date kept by {@link Storage}. */
+    static final String DATE_PATTERN = "yyyy-MM-dd-HH:mm:ss";
+
+    private static final String PREFS_NAME = "energy_refill";
+    private static final String KEY_ENERGY = "energy";
+    private static final String KEY_ENERGY_MILLIS = "energyMillis";
+    private static final String KEY_MILLIS_PER_UNIT = "millisPerUnit";
+    private static final String KEY_REFILL_SOURCE = "refillSource";
+    private static final String KEY_WAKE_MILLIS = "wakeMillis";
+    private static final String KEY_STORED_ENERGY = "storedEnergy";
+
+    /**
+     * The energy values game code shares through {@link Storage}.
+     */
+    interface GameEnergy {
+        /**
+         * @return the energy game code last saw
+         */
+        int getEnergy();
+
+        /**
+         * @param energy the energy for game code to see
+         */
+        void setEnergy(int energy);
+
+        /**
+         * @return the refill date, or {@link EnergyRefillScheduler#NO_REFILL}
+         */
+        String getRefillDate();
+
+        /**
+         * @param refillDate the refill date, or {@link EnergyRefillScheduler#NO_REFILL}
+         */
+        void setRefillDate(String refillDate);
+    }
+
+    /**
+     * Callback invoked on the main thread when the energy changes.
+     */
+    public interface OnEnergyChangedListener {
+        /**
+         * Called after energy was spent or regenerated, and when the pets wake.
+         *
+         * @param energy the current energy (0 - 100)
+         * @param asleep whether the pets are asleep: before the refill date, or with no energy
+         */
+        void onEnergyChanged(int energy, boolean asleep);
+    }
+
+    private static EnergyRefillScheduler instance;
+
+    private final KeyValueStore preferences;
+    private final GameEnergy gameEnergy;
+    private final EnergyMeter meter;
+    private int storedEnergy;  // The energy Storage holds, as last written or seen
+    private TimerWheel.Timeout changeTimeout;
+    private OnEnergyChangedListener listener;
+
+    // Game code writes Storage directly; follow its energy and refill date writes as they happen
+    private final StorageObserver.OnValueChangedListener storageListener = (key, newValue) -> onStorageChanged();
+
+    /**
+     * Creates a scheduler. The app uses {@link #getInstance(Context)}; tests pass in-memory values.
+     *
+     * @param preferences where the scheduler keeps its state
+     * @param gameEnergy  the values shared with game code
+     */
+    EnergyRefillScheduler(KeyValueStore preferences, GameEnergy gameEnergy) {
+        this.preferences = preferences;
+        this.gameEnergy = gameEnergy;
+        long now = AppClock.get().currentTimeMillis();
+        storedEnergy = preferences.getInt(KEY_STORED_ENERGY, gameEnergy.getEnergy());
+        if (preferences.contains(KEY_ENERGY)) {
+            meter = new EnergyMeter(preferences.getInt(KEY_ENERGY, storedEnergy),
+                    preferences.getLong(KEY_ENERGY_MILLIS, now), preferences.getLong(KEY_MILLIS_PER_UNIT, 0),
+                    preferences.getLong(KEY_WAKE_MILLIS, 0));
+        } else {
+            meter = new EnergyMeter(storedEnergy, now, 0, 0);  // First run: start from the stored energy
+        }
+        onStorageChanged();  // Catch writes made while no scheduler was listening
+    }
+
+    /**
+     * Returns the app-wide scheduler. Create it at startup so it sees every energy write. Must be
+     * called on the main thread.
+     *
+     * @param context any context; only the application context is retained
+     * @return the shared {@code EnergyRefillScheduler}
+     */
+    public static EnergyRefillScheduler getInstance(Context context) {
+        if (instance == null) {
+            final Storage appStorage = new Storage(context.getApplicationContext());
+            instance = new EnergyRefillScheduler(new PreferencesStore(context, PREFS_NAME), new GameEnergy() {
+                @Override
+                public int getEnergy() {
+                    return appStorage.getGameEnergy();
+                }
+
+                @Override
+                public void setEnergy(int energy) {
+                    appStorage.setGameEnergy(energy);
+                }
+
+                @Override
+                public String getRefillDate() {
+                    return appStorage.getDateRefillEnergy();
+                }
+
+                @Override
+                public void setRefillDate(String refillDate) {
+                    appStorage.setDateRefillEnergy(refillDate);
+                }
+            });
+            StorageObserver.getInstance(context).subscribe(StorageObserver.ANY_KEY, instance.storageListener);
+        }
+        return instance;
+    }
+
+    /**
+     * Starts notifying a screen of energy changes, arming one callback for the next unit.
+     *
+     * @param listener the listener to notify; replaces the previous one
+     */
+    public void start(OnEnergyChangedListener listener) {
+        this.listener = listener;
+        reschedule();
+    }
+
+    /**
+     * Stops notifying and cancels the armed callback. Call from {@code onPause} or {@code onDestroyView}.
+     */
+    public void stop() {
+        cancelTimeout();
+        listener = null;
+    }
+
+    /**
+     * Returns the current energy and writes it back to {@link Storage} if it regenerated.
+     *
+     * @return the current energy (0 - 100)
+     */
+    public int getEnergy() {
+        long now = AppClock.get().currentTimeMillis();
+        int energy = meter.valueAt(now);
+        syncStorage(energy, now);
+        return energy;
+    }
+
+    /**
+     * @return whether the pets are asleep: until the refill date once they fell asleep, or while the energy is 0
+     */
+    public boolean isAsleep() {
+        getEnergy();
+        return meter.isAsleepAt(AppClock.get().currentTimeMillis());
+    }
+
+    /**
+     * @return when the pets wake as epoch milliseconds, or {@link EnergyMeter#NEVER} if they do not regenerate
+     */
+    public long getWakeMillis() {
+        return meter.wakeMillis(AppClock.get().currentTimeMillis());
+    }
+
+    /**
+     * @return when the energy is full as epoch milliseconds, or {@link EnergyMeter#NEVER} if it does not regenerate
+     */
+    public long getFullAtMillis() {
+        return meter.fullAtMillis();
+    }
+
+    /**
+     * Formats a time the way {@link Storage} keeps the refill date.
+     *
+     * @param millis epoch milliseconds
+     * @return the formatted date
+     */
+    static String formatDate(long millis) {
+        return new SimpleDateFormat(DATE_PATTERN).format(new Date(millis));
+    }
+
+    /**
+     * Records a write to {@link Storage} made by game code: a spend or a new refill date. Called for
+     * every change to {@link Storage}.
+     */
+    void onStorageChanged() {
+        long now = AppClock.get().currentTimeMillis();
+        boolean changed = false;
+
+        int energy = gameEnergy.getEnergy();
+        if (energy != storedEnergy) {
+            storedEnergy = energy;
+            meter.set(energy, now);
+            changed = true;
+        }
+
+        String refillDate = gameEnergy.getRefillDate();
+        if (refillDate != null && !NO_REFILL.equals(refillDate)
+                && !refillDate.equals(preferences.getString(KEY_REFILL_SOURCE, null))) {
+            try {
+                meter.sleepUntil(new SimpleDateFormat(DATE_PATTERN).parse(refillDate).getTime(), now);
+                changed = true;
+            } catch (ParseException e) {
+                System.out.println("Error parsing target date string.");
+                e.printStackTrace();
+            }
+            preferences.putString(KEY_REFILL_SOURCE, refillDate);
+        }
+
+        if (changed) {
+            save();
+            if (listener != null) {
+                notifyListener();
+            }
+        }
+    }
+
+    /**
+     * Notifies the listener of the current energy and arms the callback for the next unit.
+     */
+    private void notifyListener() {
+        int energy = getEnergy();
+        listener.onEnergyChanged(energy, meter.isAsleepAt(AppClock.get().currentTimeMillis()));
+        reschedule();
+    }
+
+    private void reschedule() {
+        cancelTimeout();
+        long now = AppClock.get().currentTimeMillis();
+        long next = meter.nextChangeMillis(now);
+        long wake = meter.wakeMillis(now);
+        if (wake > now && wake < next) {
+            next = wake;  // Full before the refill date: the pets still wake at the date
+        }
+        if (listener == null || next == EnergyMeter.NEVER) {
+            return;
+        }
+        changeTimeout = TimerWheel.getInstance().schedule(null, "energyRefill", next - now, () -> {
+            changeTimeout = null;
+            if (listener != null) {
+                notifyListener();
+            }
+        });
+    }
+
+    /**
+     * Writes the regenerated energy back to {@link Storage} for the game code that reads it there, and
+     * clears the refill date once the pets are awake. While they sleep {@link Storage} keeps what game
+     * code wrote, so it still sees the pets asleep until the refill date.
+     */
+    private void syncStorage(int energy, long now) {
+        if (meter.isAsleepAt(now)) {
+            return;
+        }
+        if (energy != storedEnergy) {
+            storedEnergy = energy;  // Set first, so the change notification is not taken as a spend
+            preferences.putInt(KEY_STORED_ENERGY, energy);
+            gameEnergy.setEnergy(energy);
+        }
+        if (!NO_REFILL.equals(gameEnergy.getRefillDate())) {
+            gameEnergy.setRefillDate(NO_REFILL);
+        }
+    }
+
+    private void save() {
+        preferences.putInt(KEY_ENERGY, meter.getRecordedEnergy());
+        preferences.putLong(KEY_ENERGY_MILLIS, meter.getRecordedMillis());
+        preferences.putLong(KEY_MILLIS_PER_UNIT, meter.getMillisPerUnit());
+        preferences.putLong(KEY_WAKE_MILLIS, meter.getWakeAtMillis());
+        preferences.putInt(KEY_STORED_ENERGY, storedEnergy);
+    }
+
+    private void cancelTimeout() {
+        if (changeTimeout != null) {
+            changeTimeout.cancel();
+            changeTimeout = null;
+        }
+    }
+}
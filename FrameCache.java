@@ -0,0 +1,126 @@
+package com.example.tetris_concept;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.util.LruCache;
+
+/**
+ * Process-wide, size-bounded cache of decoded pet frames.
+ * <p>
+ * Every pet's frames are decoded into one {@link SpriteSheet}, so the cache is keyed by pet and
+ * accounts each entry by the bytes of its atlas bitmap. Fragments come and go, the cache stays:
+ * going back to the home screen or reopening the inventory dialog finds the frames already decoded.
+ * The least recently used atlases are dropped once the budget (an eighth of the heap) is exceeded.
+ * </p>
+ *
+ * <p>
+ * The cache listens for trim-memory callbacks and shrinks when the app is in the background or the
+ * system runs low. Hits and misses are counted for {@link #dump()}.
+ * </p>
+ *
+ * @author Aryan Farhang-pour
+ */
+public final class FrameCache {
+
+    private static FrameCache instance;
+
+    private final LruCache<String, SpriteSheet> sheets;
+
+    private FrameCache(Context context) {
+        int budgetBytes = (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 8);
+        sheets = new LruCache<String, SpriteSheet>(budgetBytes) {
+            @Override
+            protected int sizeOf(String petKey, SpriteSheet sheet) {
+                return sheet.getByteCount();
+            }
+        };
+
+        context.registerComponentCallbacks(new ComponentCallbacks2() {
+            @Override
+            public void onTrimMemory(int level) {
+                trimMemory(level);
+            }
+
+            @Override
+            public void onConfigurationChanged(Configuration newConfig) {
+            }
+
+            @Override
+            public void onLowMemory() {
+                sheets.evictAll();
+            }
+        });
+    }
+
+    /**
+     * Returns the process-wide cache.
+     *
+     * @param context any context; only the application context is retained
+     * @return the shared {@code FrameCache}
+     */
+    public static synchronized FrameCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new FrameCache(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * @param petKey the pet key, e.g. "FIRE"
+     * @return the pet's decoded frames, or {@code null} on a miss
+     */
+    SpriteSheet get(String petKey) {
+        return sheets.get(petKey);
+    }
+
+    /**
+     * Stores a pet's decoded frames, evicting older pets if the budget is exceeded.
+     *
+     * @param petKey the pet key
+     * @param sheet  the decoded frames
+     */
+    void put(String petKey, SpriteSheet sheet) {
+        sheets.put(petKey, sheet);
+    }
+
+    /**
+     * Shrinks the cache according to a {@link ComponentCallbacks2} trim level. Evicted atlases are not
+     * recycled: a view may still be drawing one, and it is freed once no view holds it.
+     *
+     * @param level the trim level
+     */
+    public void trimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            sheets.evictAll();
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            // Also covers TRIM_MEMORY_UI_HIDDEN and TRIM_MEMORY_BACKGROUND
+            sheets.trimToSize(sheets.maxSize() / 2);
+        }
+    }
+
+    /**
+     * @return how often a pet's frames were already decoded
+     */
+    public int getHitCount() {
+        return sheets.hitCount();
+    }
+
+    /**
+     * @return how often a pet's frames had to be decoded
+     */
+    public int getMissCount() {
+        return sheets.missCount();
+    }
+
+    /**
+     * Describes the cache: bytes used, budget, hits, misses and evictions.
+     *
+     * @return a one-line report for logs or a debug screen
+     */
+    public String dump() {
+        return "FrameCache: " + sheets.size() + "/" + sheets.maxSize() + " bytes, "
+                + sheets.hitCount() + " hits, " + sheets.missCount() + " misses, "
+                + sheets.evictionCount() + " evictions";
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.tetris_concept;
+
+import java.util.Locale;
+
+/**
+ * A fixed-bucket histogram of frame durations.
+ * <p>
+ * Durations are counted in 1 ms buckets from 0 to {@link #MAX_TRACKED_MILLIS}; longer frames share one
+ * overflow bucket. All buckets are allocated up front, so recording a frame never allocates and costs a
+ * division and two increments. Percentiles are read from the buckets, so they are exact to the
+ * millisecond.
+ * </p>
+ *
+ * <p>Thread-safe: frames are usually recorded on a metrics thread and read on the main thread.
+ * Uses no Android classes, so it runs on the JVM as well.</p>
+ *
+ * @author Aryan Farhang-pour
+ */
+public final class FrameHistogram {
+
+    /** Longest duration with its own bucket; anything longer goes in the overflow bucket. */
+    public static final int MAX_TRACKED_MILLIS = 250;
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final String name;
+    private final long[] buckets = new long[MAX_TRACKED_MILLIS + 2];  // Last bucket is the overflow
+    private long frameCount = 0;
+    private long overBudgetCount = 0;
+    private long maxNanos = 0;
+
+    /**
+     * @param name the name shown in {@link #toString()}, usually the screen name
+     */
+    public FrameHistogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Counts one frame.
+     *
+     * @param durationNanos the frame's duration
+     * @param budgetNanos   the frame budget, usually one refresh interval; longer frames count as janky
+     */
+    public synchronized void record(long durationNanos, long budgetNanos) {
+        long millis = durationNanos / NANOS_PER_MILLI;
+        buckets[millis > MAX_TRACKED_MILLIS ? MAX_TRACKED_MILLIS + 1 : (int) millis]++;
+        frameCount++;
+        if (durationNanos > budgetNanos) {
+            overBudgetCount++;
+        }
+        if (durationNanos > maxNanos) {
+            maxNanos = durationNanos;
+        }
+    }
+
+    /**
+     * Returns the duration that a share of the frames did not exceed.
+     *
+     * @param percentile between 0 and 100, for example 50, 90 or 99
+     * @return the upper edge of the bucket holding that percentile in milliseconds, 0 when no frames
+     * were recorded, or {@link #MAX_TRACKED_MILLIS} + 1 when it falls in the overflow bucket
+     */
+    public synchronized int percentileMillis(double percentile) {
+        if (frameCount == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100.0 * frameCount);
+        if (rank < 1) {
+            rank = 1;
+        }
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return i + 1;  // Bucket i holds [i, i + 1) ms
+            }
+        }
+        return MAX_TRACKED_MILLIS + 1;
+    }
+
+    /**
+     * @return the number of frames recorded
+     */
+    public synchronized long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * @return the number of frames that took longer than their budget
+     */
+    public synchronized long getOverBudgetCount() {
+        return overBudgetCount;
+    }
+
+    /**
+     * Clears every count.
+     */
+    public synchronized void reset() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = 0;
+        }
+        frameCount = 0;
+        overBudgetCount = 0;
+        maxNanos = 0;
+    }
+
+    /**
+     * @return a one-line summary: frame count, p50/p90/p99, longest frame and frames over budget
+     */
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US, "%s: %d frames, p50 %d ms, p90 %d ms, p99 %d ms, max %.1f ms, %d over budget (%.1f%%)",
+                name, frameCount, percentileMillis(50), percentileMillis(90), percentileMillis(99),
+                maxNanos / (double) NANOS_PER_MILLI, overBudgetCount,
+                frameCount == 0 ? 0.0 : overBudgetCount * 100.0 / frameCount);
+    }
+}
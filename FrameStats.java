@@ -0,0 +1,232 @@
+package com.example.tetris_concept;
+
+import android.app.Activity;
+import android.app.Dialog;
+import android.content.Context;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.view.FrameMetrics;
+import android.view.View;
+import android.view.Window;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects how long each frame takes, per screen, so jank can be measured instead of guessed.
+ * <p>
+ * Frame durations come from {@link Window#addOnFrameMetricsAvailableListener} and are delivered on a
+ * background thread into one {@link FrameHistogram} per screen, so counting a frame never allocates
+ * or touches the main thread. Fragments share the activity window, so {@link HomePage} tracks its
+ * window once and each fragment marks itself as the current screen while it is resumed. Dialogs have
+ * their own window and are tracked on their own.
+ * </p>
+ *
+ * <p>
+ * A frame is over budget when it takes longer than one refresh interval of the window's display.
+ * {@link #dump()} gives p50/p90/p99 and the over-budget count per screen; {@link #writeReport(Context)}
+ * writes the same text to {@value #REPORT_FILE} in the app's files directory, followed by the
+ * {@link SfxEngine} play latencies when sound effects were used. Frame metrics need
+ * Android 7.0; on older versions nothing is recorded.
+ * </p>
+ *
+ * @author Collin
+ */
+public final class FrameStats {
+
+    /** The home screen. */
+    public static final String HOME = "HomeFragment";
+    /** The level map. */
+    public static final String GAME_MAP = "GameMapFragment";
+    /** The pet inventory dialog of the home screen. */
+    public static final String PET_INVENTORY = "PetInventoryDialog";
+    /** The gameplay screen. */
+    public static final String GAMEPLAY = "Gameplay";
+
+    /** Name of the report file in the app's files directory. */
+    public static final String REPORT_FILE = "frame_stats.txt";
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private static FrameStats instance;
+
+    private final Handler metricsHandler;
+    private final Map<String, FrameHistogram> histograms = new ConcurrentHashMap<>();
+    private final List<String> screenOrder = new ArrayList<>();
+    private volatile FrameHistogram currentScreen;
+
+    private FrameStats() {
+        HandlerThread thread = new HandlerThread("FrameStats");
+        thread.start();
+        metricsHandler = new Handler(thread.getLooper());
+    }
+
+    /**
+     * Returns the app-wide instance. Must be called on the main thread.
+     *
+     * @return the shared {@code FrameStats}
+     */
+    public static FrameStats getInstance() {
+        if (instance == null) {
+            instance = new FrameStats();
+        }
+        return instance;
+    }
+
+    /**
+     * Records every frame of the activity's window into the current screen's histogram. Frames drawn
+     * while no screen is current are not counted. Call once per activity, from {@code onCreate}.
+     *
+     * @param activity the activity hosting the tracked fragments
+     */
+    public void trackActivity(Activity activity) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
+            return;
+        }
+        final long budgetNanos = frameBudgetNanos(activity.getWindow());
+        activity.getWindow().addOnFrameMetricsAvailableListener((window, frameMetrics, dropCount) -> {
+            FrameHistogram histogram = currentScreen;
+            if (histogram != null) {
+                record(histogram, frameMetrics, budgetNanos);
+            }
+        }, metricsHandler);
+    }
+
+    /**
+     * Records every frame of a dialog's window under a screen name until the dialog goes away.
+     * Call right after {@link Dialog#show()}.
+     *
+     * @param dialog the shown dialog
+     * @param screen the screen name, for example {@link #PET_INVENTORY}
+     */
+    public void trackDialog(Dialog dialog, String screen) {
+        final Window dialogWindow = dialog.getWindow();
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N || dialogWindow == null) {
+            return;
+        }
+        final FrameHistogram histogram = histogramFor(screen);
+        final long budgetNanos = frameBudgetNanos(dialogWindow);
+        final Window.OnFrameMetricsAvailableListener listener =
+                (window, frameMetrics, dropCount) -> record(histogram, frameMetrics, budgetNanos);
+        dialogWindow.addOnFrameMetricsAvailableListener(listener, metricsHandler);
+
+        // The window drops its listeners with its views, but the listener would keep the dialog reachable
+        dialogWindow.getDecorView().addOnAttachStateChangeListener(new View.OnAttachStateChangeListener() {
+            @Override
+            public void onViewAttachedToWindow(View v) {
+            }
+
+            @Override
+            public void onViewDetachedFromWindow(View v) {
+                v.removeOnAttachStateChangeListener(this);
+                try {
+                    dialogWindow.removeOnFrameMetricsAvailableListener(listener);
+                } catch (IllegalArgumentException e) {
+                    // Already removed along with the window
+                }
+            }
+        });
+    }
+
+    /**
+     * Marks a screen as the one drawing in the tracked activity. Call from the fragment's {@code onResume}.
+     *
+     * @param screen the screen name, for example {@link #HOME}
+     */
+    public void enterScreen(String screen) {
+        currentScreen = histogramFor(screen);
+    }
+
+    /**
+     * Stops counting frames for a screen, if it is still the current one. Call from the fragment's
+     * {@code onPause}.
+     *
+     * @param screen the screen name passed to {@link #enterScreen(String)}
+     */
+    public void exitScreen(String screen) {
+        FrameHistogram histogram = currentScreen;
+        if (histogram != null && histogram == histograms.get(screen)) {
+            currentScreen = null;
+        }
+    }
+
+    /**
+     * @param screen a screen name
+     * @return that screen's histogram, or null if it has not been tracked yet
+     */
+    public FrameHistogram getHistogram(String screen) {
+        return histograms.get(screen);
+    }
+
+    /**
+     * @return one summary line per screen, in the order the screens were first seen
+     */
+    public String dump() {
+        StringBuilder report = new StringBuilder();
+        synchronized (screenOrder) {
+            for (String screen : screenOrder) {
+                report.append(histograms.get(screen)).append('\n');
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * Writes {@link #dump()} and the sound effect stats to {@value #REPORT_FILE} on the metrics thread.
+     * Must be called on the main thread, where the sound effect stats are kept. Returns immediately.
+     *
+     * @param context any context; only used to find the files directory
+     */
+    public void writeReport(Context context) {
+        final File file = new File(context.getApplicationContext().getFilesDir(), REPORT_FILE);
+        SfxEngine sfxEngine = SfxEngine.peekInstance();  // Not created while sound effects are muted
+        final String report = sfxEngine == null ? dump() : dump() + sfxEngine.getStats() + '\n';
+        metricsHandler.post(() -> {
+            try (FileWriter writer = new FileWriter(file)) {
+                writer.write(report);
+            } catch (IOException e) {
+                System.out.println("Error writing the frame stats report.");
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Clears every screen's counts, for example before measuring a change.
+     */
+    public void reset() {
+        for (FrameHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    private FrameHistogram histogramFor(String screen) {
+        FrameHistogram histogram = histograms.get(screen);
+        if (histogram == null) {
+            histogram = new FrameHistogram(screen);
+            histograms.put(screen, histogram);
+            synchronized (screenOrder) {
+                screenOrder.add(screen);
+            }
+        }
+        return histogram;
+    }
+
+    private static void record(FrameHistogram histogram, FrameMetrics frameMetrics, long budgetNanos) {
+        if (frameMetrics.getMetric(FrameMetrics.FIRST_DRAW_FRAME) == 1) {
+            return;  // The first frame of a window includes inflation and layout, not steady drawing
+        }
+        histogram.record(frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION), budgetNanos);
+    }
+
+    private static long frameBudgetNanos(Window window) {
+        float refreshRate = window.getWindowManager().getDefaultDisplay().getRefreshRate();
+        return (long) (NANOS_PER_SECOND / (refreshRate > 0 ? refreshRate : 60f));
+    }
+}
@@ -5,13 +5,14 @@ import static com.example.tetris_concept.AnimFunctions.applyTextGradient;
 import static com.example.tetris_concept.AnimFunctions.setupBackgroundAnimation;
 import static com.example.tetris_concept.AppliedSettings.btnSoundFx;
 import static com.example.tetris_concept.AppliedSettings.hideNavigationBar;
-import static com.example.tetris_concept.Storage.parentTimeIsOn;
+import static com.example.tetris_concept.MusicService.isMusicMute;
 
 import android.animation.ArgbEvaluator;
 import android.animation.ObjectAnimator;
 import android.animation.ValueAnimator;
 import android.app.Dialog;
 import android.content.Context;
+import android.content.Intent;
 import android.graphics.Color;
 import android.graphics.LinearGradient;
 import android.graphics.Shader;
@@ -25,7 +26,6 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.LinearSnapHelper;
 import androidx.recyclerview.widget.RecyclerView;
 
-import android.os.Handler;
 import android.util.DisplayMetrics;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -45,20 +45,36 @@ import java.util.ArrayList;
  * <p>
  * This fragment displays a map with a scrollable horizontal list of game items using a RecyclerView.
  * It includes UI elements such as buttons for navigation, background animations, and loading text effects.
- * Additionally, it handles session management by periodically checking if the user's session has expired
- * and showing a custom pause dialog when necessary.
+ * Additionally, it handles session management by listening for the parental time limit through
+ * {@link ParentalLimit} and showing a custom pause dialog when the session has expired.
+ * </p>
+ *
+ * <p>
+ * Whenever the list snaps to a map, that map's track is sent to {@link MusicService} as the
+ * {@code NEXT_TRACK_ID}, so it is already decoded when the player opens the map. The maps are read
+ * from the list's adapter through {@link MapItemSource}. Each map the list shows gets its music
+ * intervals from its track's {@link BeatIndex}, so they are filled before the map is opened.
  * </p>
  *
  * <p>Author: Alex</p>
  */
 public class GameMapFragment extends Fragment {
-    private Handler handler = new Handler();
-    private static final int CHECK_INTERVAL = 1000;
     private Button backBtn;
     private TextView loadingStellarPetsText1, loadingStellarPetsText2;
 
     GameMapRecyclerAdapter adapter;
 
+    /**
+     * Gives the map shown at a position of the map list. Implemented by the list's adapter.
+     */
+    public interface MapItemSource {
+        /**
+         * @param position the adapter position
+         * @return the map at that position, or null if there is none
+         */
+        GameMapItem getMapItem(int position);
+    }
+
     /**
      * Default constructor for GameMapFragment.
      * Required for fragment instantiation.
@@ -117,6 +133,32 @@ public class GameMapFragment extends Fragment {
         LinearSnapHelper snapHelper = new LinearSnapHelper();
         snapHelper.attachToRecyclerView(recyclerView);
 
+        // Fill the music intervals of every map the list shows; BeatIndex reads each track's index once
+        recyclerView.addOnChildAttachStateChangeListener(new RecyclerView.OnChildAttachStateChangeListener() {
+            @Override
+            public void onChildViewAttachedToWindow(View child) {
+                GameMapItem map = getMapItem(recyclerView, child);
+                if (map != null) {
+                    BeatIndex.loadIntervals(child.getContext(), map);
+                }
+            }
+
+            @Override
+            public void onChildViewDetachedFromWindow(View child) {
+            }
+        });
+
+        // Prepare the music of the map the list settles on, first the one shown when the screen opens
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+                if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                    prepareSnappedMapMusic(recyclerView, snapHelper);
+                }
+            }
+        });
+        recyclerView.post(() -> prepareSnappedMapMusic(recyclerView, snapHelper));
+
         // Set up the back button click listener
         backBtn.setOnClickListener(new View.OnClickListener() {
             @Override
@@ -148,59 +190,62 @@ public class GameMapFragment extends Fragment {
         animateTextColor(loadingStellarPetsText1, "#F78CC2", "#D900FF"); // Soft pink to soft magenta
         animateTextColor(loadingStellarPetsText2, "#A500FF", "#00E8FF");  // Deep purple to soft cyan
 
-        startCheckingTime();
+        // Leave the map as soon as the parental time limit is reached (also checked on every resume)
+        ParentalLimit.getInstance(view.getContext()).addListener(getViewLifecycleOwner(), () -> {
+            showPauseDialog(getContext());
+            getParentFragmentManager().popBackStack();
+        });
 
 
         return view;
     }
 
-    /**
-     * Starts a repeated task to check the current state of the fragment and display a pause dialog if needed.
-     * <p>
-     * This method posts a delayed task that periodically checks if the fragment is added, resumed,
-     * and the parent time condition is met. If these conditions are satisfied, it shows a pause dialog
-     * and pops the fragment from the back stack. The check is repeated at a specified interval as long as
-     * the fragment remains visible and active.
-     * </p>
-     *
-     * @see #CHECK_INTERVAL the time interval between checks
-     */
-    public void startCheckingTime() {
-        handler.postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                // Ensure the fragment is in the resumed state and is still attached to its activity
-                if (isAdded() && isResumed() && parentTimeIsOn) {
-                    showPauseDialog(getContext());
-                    getActivity().getSupportFragmentManager().popBackStack();
-                }
-                // Re-run the check after each interval if the fragment is still visible and active
-                handler.postDelayed(this, CHECK_INTERVAL);
-            }
-        }, CHECK_INTERVAL);
-    }
-
     @Override
     public void onResume() {
         super.onResume();
-        // Start the handler when the fragment is resumed (when the user comes back)
-        startCheckingTime();
         adapter.notifyDataSetChanged();
-
+        FrameStats.getInstance().enterScreen(FrameStats.GAME_MAP);
     }
 
+    /**
+     * Stops counting this screen's frames while another screen is drawing.
+     */
     @Override
     public void onPause() {
         super.onPause();
-        // Stop the handler when the fragment is paused or no longer visible
-        handler.removeCallbacksAndMessages(null);
+        FrameStats.getInstance().exitScreen(FrameStats.GAME_MAP);
     }
 
-    @Override
-    public void onDestroyView() {
-        super.onDestroyView();
-        // Clean up to prevent memory leaks
-        handler.removeCallbacksAndMessages(null);
+    /**
+     * Sends the track of the snapped map to {@link MusicService}, to be prepared as the next track. Does nothing while music is muted; the engine ignores a track it already holds.
+     */
+    private void prepareSnappedMapMusic(RecyclerView recyclerView, LinearSnapHelper snapHelper) {
+        GameMapItem map = getMapItem(recyclerView, snapHelper.findSnapView(recyclerView.getLayoutManager()));
+        Context context = getContext();
+        if (map == null || context == null || isMusicMute) {
+            return;
+        }
+        int trackId = MusicEngine.trackIdOf(context, map);
+        if (trackId == 0) {
+            return;
+        }
+        Intent musicServiceIntent = new Intent(context, MusicService.class);
+        musicServiceIntent.putExtra("NEXT_TRACK_ID", trackId);
+        context.startService(musicServiceIntent);
+    }
+
+    /**
+     * @return the map shown by a child of the list, or null if the adapter does not give its maps
+     */
+    private static GameMapItem getMapItem(RecyclerView recyclerView, View child) {
+        if (child == null || !(recyclerView.getAdapter() instanceof MapItemSource)) {
+            return null;
+        }
+        int position = recyclerView.getChildAdapterPosition(child);
+        if (position == RecyclerView.NO_POSITION) {
+            return null;
+        }
+        return ((MapItemSource) recyclerView.getAdapter()).getMapItem(position);
     }
 
     /**
@@ -52,8 +52,9 @@ public class GameMapItem {
      * <p>
      * This constructor initializes a new instance of the {@code GameMapItem} class
      * with the provided map name, music information, food and vibe points, XP points,
-     * and the pet chosen for the map. If the {@code musicIntervalsMap} is provided,
-     * it is copied; otherwise, an empty map is used.
+     * and the pet chosen for the map. The music intervals start empty; they are set with
+     * {@link #setMusicIntervalsMap(Map)} or filled from the track's beat index by
+     * {@link BeatIndex#loadIntervals}.
      * </p>
      *
      * @param mapName The name of the map.
@@ -75,7 +76,7 @@ public class GameMapItem {
         this.mapName = mapName;
         this.musicName = musicName;
         this.musicImageAddress = musicImageAddress;
-        this.musicIntervalsMap = musicIntervalsMap != null ? new HashMap<>(musicIntervalsMap) : new HashMap<>();
+        this.musicIntervalsMap = new HashMap<>();
         this.savedXPPoints = savedXPPoints;
         this.foodPoint1 = foodPoint1;
         this.foodPoint2 = foodPoint2;
@@ -0,0 +1,119 @@
+package com.example.tetris_concept;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A color gradient precomputed into a 256-entry ARGB table.
+ * <p>
+ * Blending two colors per channel on every frame costs four multiplies per channel plus the
+ * {@code Color} accessors. A LUT does that work once, when the gradient is first used; after that a
+ * frame's color is one array read. Tables are cached by their color stops, so every animation with the
+ * same colors shares one table.
+ * </p>
+ *
+ * <p>Uses only bit operations on ARGB ints, so it runs on the JVM as well as on Android.</p>
+ *
+ * @author Aryan Farhang-pour
+ */
+public final class GradientLut {
+
+    /** Number of entries in each table. */
+    public static final int SIZE = 256;
+
+    private static final Map<StopsKey, GradientLut> CACHE = new HashMap<>();
+
+    private final int[] table = new int[SIZE];
+
+    private GradientLut(int[] stops) {
+        int segments = stops.length - 1;
+        for (int i = 0; i < SIZE; i++) {
+            if (segments == 0) {
+                table[i] = stops[0];
+                continue;
+            }
+            // Position along the whole stop list, split into a segment and a fraction inside it
+            float position = (float) i / (SIZE - 1) * segments;
+            int segment = Math.min((int) position, segments - 1);
+            table[i] = blend(stops[segment], stops[segment + 1], position - segment);
+        }
+    }
+
+    /**
+     * Returns the table for a list of color stops spread evenly from 0 to 1, building it on first use.
+     *
+     * @param stops two or more ARGB colors; a single color gives a flat table
+     * @return the shared table for these stops
+     */
+    public static GradientLut of(int... stops) {
+        if (stops.length == 0) {
+            throw new IllegalArgumentException("A gradient needs at least one color");
+        }
+        StopsKey key = new StopsKey(stops);
+        synchronized (CACHE) {
+            GradientLut lut = CACHE.get(key);
+            if (lut == null) {
+                lut = new GradientLut(key.stops);
+                CACHE.put(key, lut);
+            }
+            return lut;
+        }
+    }
+
+    /**
+     * @param ratio a position between 0 and 1; values outside are clamped
+     * @return the color at that position
+     */
+    public int colorAt(float ratio) {
+        int index = (int) (ratio * (SIZE - 1) + 0.5f);
+        return table[index < 0 ? 0 : (index >= SIZE ? SIZE - 1 : index)];
+    }
+
+    /**
+     * @param index a table index from 0 to {@link #SIZE} - 1
+     * @return the color at that index
+     */
+    public int colorAtIndex(int index) {
+        return table[index];
+    }
+
+    /**
+     * Blends every channel of two ARGB colors linearly. Used to build the tables.
+     *
+     * @param color1 the color at ratio 0
+     * @param color2 the color at ratio 1
+     * @param ratio  the blend ratio between 0 and 1
+     * @return the blended color
+     */
+    static int blend(int color1, int color2, float ratio) {
+        int weight = (int) (ratio * 256 + 0.5f);  // 8.8 fixed point
+        int inverse = 256 - weight;
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            int channel = (((color1 >>> shift) & 0xFF) * inverse + ((color2 >>> shift) & 0xFF) * weight) >> 8;
+            result |= channel << shift;
+        }
+        return result;
+    }
+
+    private static final class StopsKey {
+        final int[] stops;
+        final int hash;
+
+        StopsKey(int[] stops) {
+            this.stops = stops.clone();
+            this.hash = Arrays.hashCode(this.stops);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof StopsKey && Arrays.equals(stops, ((StopsKey) other).stops);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
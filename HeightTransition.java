@@ -0,0 +1,163 @@
+package com.example.tetris_concept;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.graphics.Rect;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.animation.AccelerateDecelerateInterpolator;
+
+import java.util.WeakHashMap;
+
+/**
+ * Height reveal and collapse transitions that do not lay out on every frame.
+ * <p>
+ * Changing {@code LayoutParams.height} on each frame measures and lays out the whole hierarchy each
+ * frame. Instead, a transition animates the view's clip bounds, which only changes the clip of its
+ * render node, and touches the layout params exactly once:
+ * </p>
+ * <ul>
+ *     <li>When the view grows, the final height is applied first and the clip opens from the old
+ *     height to the new one.</li>
+ *     <li>When the view shrinks, the clip closes from the old height to the new one and the final
+ *     height is applied at the end.</li>
+ * </ul>
+ *
+ * <p>
+ * A view is anchored at its top by default, so the clip opens and closes at its bottom edge. A view
+ * anchored at its bottom, such as a curtain rising from the bottom of the screen, passes
+ * {@link Gravity#BOTTOM} and is revealed from the bottom up instead.
+ * </p>
+ *
+ * <p>
+ * Starting a new transition on a view ends the previous one, and a transition ends as soon as its
+ * view is detached, leaving the view at the transition's final height. Must be used on the main thread.
+ * </p>
+ *
+ * @author Aryan Farhang-pour
+ */
+public final class HeightTransition {
+
+    private static final WeakHashMap<View, ValueAnimator> RUNNING = new WeakHashMap<>();
+
+    private HeightTransition() {
+    }
+
+    /**
+     * Animates a view anchored at its top to a new layout height.
+     *
+     * @param view         the view to resize
+     * @param layoutHeight the final {@code LayoutParams.height}: a size in pixels,
+     *                     {@code WRAP_CONTENT} or {@code MATCH_PARENT}
+     * @param duration     the duration of the transition in milliseconds
+     */
+    public static void animateHeight(View view, int layoutHeight, long duration) {
+        animateHeight(view, layoutHeight, duration, Gravity.TOP);
+    }
+
+    /**
+     * Animates a view to a new layout height.
+     *
+     * @param view         the view to resize
+     * @param layoutHeight the final {@code LayoutParams.height}: a size in pixels,
+     *                     {@code WRAP_CONTENT} or {@code MATCH_PARENT}
+     * @param duration     the duration of the transition in milliseconds
+     * @param anchor       the edge that stays in place: {@link Gravity#TOP} or {@link Gravity#BOTTOM}
+     */
+    public static void animateHeight(final View view, final int layoutHeight, long duration, int anchor) {
+        if (anchor != Gravity.TOP && anchor != Gravity.BOTTOM) {
+            throw new IllegalArgumentException("Anchor must be Gravity.TOP or Gravity.BOTTOM: " + anchor);
+        }
+        final boolean fromBottom = anchor == Gravity.BOTTOM;
+        ValueAnimator previous = RUNNING.remove(view);
+        if (previous != null) {
+            previous.end();  // Applies its final height before this one starts
+        }
+
+        final int fromHeight = view.getHeight();
+        final int toHeight = resolveHeight(view, layoutHeight);
+        final boolean growing = toHeight >= fromHeight;
+        if (growing) {
+            applyLayoutHeight(view, layoutHeight);  // The only layout pass of the transition
+        }
+
+        final Rect clip = new Rect();
+        final ValueAnimator animator = ValueAnimator.ofInt(fromHeight, toHeight);
+        animator.setDuration(duration);
+        animator.setInterpolator(new AccelerateDecelerateInterpolator());
+        animator.addUpdateListener(animation -> {
+            int height = (int) animation.getAnimatedValue();
+            // The view's own height is the old one until the grown layout has been applied
+            int viewHeight = view.getHeight();
+            if (fromBottom) {
+                clip.set(0, viewHeight - height, view.getWidth(), viewHeight);
+            } else {
+                clip.set(0, 0, view.getWidth(), height);
+            }
+            view.setClipBounds(clip);  // Copies the rect, so it can be reused
+        });
+
+        final View.OnAttachStateChangeListener detachListener = new View.OnAttachStateChangeListener() {
+            @Override
+            public void onViewAttachedToWindow(View v) {
+            }
+
+            @Override
+            public void onViewDetachedFromWindow(View v) {
+                animator.end();
+            }
+        };
+
+        animator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                view.removeOnAttachStateChangeListener(detachListener);
+                if (RUNNING.get(view) == animator) {
+                    RUNNING.remove(view);
+                }
+                view.setClipBounds(null);
+                if (!growing) {
+                    applyLayoutHeight(view, layoutHeight);  // The only layout pass of the transition
+                }
+            }
+        });
+
+        view.addOnAttachStateChangeListener(detachListener);
+        RUNNING.put(view, animator);
+        animator.start();
+    }
+
+    /**
+     * @param view the view to check
+     * @return whether a height transition is running on the view
+     */
+    public static boolean isRunning(View view) {
+        return RUNNING.containsKey(view);
+    }
+
+    /**
+     * Works out the pixel height a layout height will give, without laying out the hierarchy.
+     */
+    private static int resolveHeight(View view, int layoutHeight) {
+        if (layoutHeight >= 0) {
+            return layoutHeight;
+        }
+        if (layoutHeight == ViewGroup.LayoutParams.MATCH_PARENT && view.getParent() instanceof View) {
+            return ((View) view.getParent()).getHeight();
+        }
+        // WRAP_CONTENT: measure the view alone at its current width
+        view.measure(View.MeasureSpec.makeMeasureSpec(view.getWidth(), View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        return view.getMeasuredHeight();
+    }
+
+    private static void applyLayoutHeight(View view, int layoutHeight) {
+        ViewGroup.LayoutParams layoutParams = view.getLayoutParams();
+        if (layoutParams.height != layoutHeight) {
+            layoutParams.height = layoutHeight;
+            view.setLayoutParams(layoutParams);
+        }
+    }
+}
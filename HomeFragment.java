@@ -3,14 +3,9 @@ package com.example.tetris_concept;
 import android.app.Dialog;
 import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
-import android.graphics.Color;
-import android.graphics.LinearGradient;
 import android.graphics.Shader;
 import android.os.Build;
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Looper;
 import android.text.Editable;
 import android.text.TextWatcher;
 import android.view.LayoutInflater;
@@ -34,31 +29,16 @@ import androidx.core.view.WindowInsetsCompat;
 import androidx.fragment.app.FragmentTransaction;
 
 import static com.example.tetris_concept.AnimFunctions.flamePetIdleAnim;
-import static com.example.tetris_concept.AnimFunctions.flamePetRunAnim;
-import static com.example.tetris_concept.AnimFunctions.flameSleepAnim;
 import static com.example.tetris_concept.AnimFunctions.foxPetIdleAnim;
-import static com.example.tetris_concept.AnimFunctions.foxSleepAnim;
-import static com.example.tetris_concept.AnimFunctions.playInfiniteFireAnimation;
-//import static com.example.tetris_concept.AnimFunctions.playInfiniteFireAnimationV4;
-import static com.example.tetris_concept.AnimFunctions.playInfiniteFoxAnimation;
-//import static com.example.tetris_concept.AnimFunctions.playInfiniteSquirrelAnimation;
-import static com.example.tetris_concept.AnimFunctions.playInfiniteSquirrelAnimation;
 import static com.example.tetris_concept.AnimFunctions.setupBackgroundAnimation;
 import static com.example.tetris_concept.AnimFunctions.squirrelPetIdleAnim;
-import static com.example.tetris_concept.AnimFunctions.squirrelSleepAnim;
 import static com.example.tetris_concept.AppliedSettings.btnSoundFx;
 import static com.example.tetris_concept.AppliedSettings.hideNavigationBar;
 import static com.example.tetris_concept.DialogList.loadCurrentPetName;
 import static com.example.tetris_concept.DialogList.showPauseDialog1;
 import static com.example.tetris_concept.DialogList.showPauseDialog2;
 import static com.example.tetris_concept.GameState.currentChosenPet;
-import static com.example.tetris_concept.Storage.parentTimeIsOn;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Timer;
-import java.util.TimerTask;
 
 /**
  * HomeFragment is a Fragment representing the home screen of the application.
@@ -78,6 +58,9 @@ public class HomeFragment extends Fragment {
 
     private boolean playingHomeMusic = true;  // Keeps track of the music state
 
+    private EnergyRefillScheduler energyRefillScheduler;
+    private boolean showingAsleep;  // Whether the pet on screen plays its sleep animation
+
     /**
      * Inflates the fragment's view, sets up event listeners for buttons, and handles UI elements.
      * This method also handles window insets for system UI, hides the navigation bar, and applies animations.
@@ -114,10 +97,10 @@ public class HomeFragment extends Fragment {
         // On load: ____________________________________________________________________________
         hideNavigationBar(view);         // Hide navigation bar and set full-screen mode
         setupBackgroundAnimation(backgroundImage); // Set up background animation for the background image
-        animatedImageView.setImageResource(R.drawable.fire_run_frame_animation);
         applyTextGradient(view);
-        homeEnergyProg.setProgress(appStorage.getGameEnergy());
-        startDateCheck(view.getContext(), view);
+        energyRefillScheduler = EnergyRefillScheduler.getInstance(view.getContext());
+        homeEnergyProg.setProgress(energyRefillScheduler.getEnergy());
+        showingAsleep = energyRefillScheduler.isAsleep();
         loadCurrentChosenPet(appStorage.getCurrentChosenPet(), animatedImageView);
         currentChosenPet = appStorage.getCurrentChosenPet();
 
@@ -141,7 +124,7 @@ public class HomeFragment extends Fragment {
             @Override
             public void onClick(View v) {
                 btnSoundFx(getActivity());
-                if (!parentTimeIsOn) {
+                if (!ParentalLimit.getInstance(v.getContext()).isLimitReached()) {
                     FragmentTransaction transaction = getParentFragmentManager().beginTransaction();
                     transaction.replace(R.id.fragment_container, new GameMapFragment());
                     transaction.addToBackStack(null);  // Add to back stack for back navigation
@@ -182,7 +165,7 @@ public class HomeFragment extends Fragment {
             @Override
             public void onClick(View v) {
                 btnSoundFx(view.getContext());
-                if (appStorage.getDateRefillEnergy().equals("NONE")) {
+                if (!energyRefillScheduler.isAsleep()) {
                     showPetInventoryDialog(view.getContext(), animatedImageView);
                 }else{
                     showPauseDialog2(view.getContext());
@@ -206,22 +189,19 @@ public class HomeFragment extends Fragment {
 
     /**
      * Applies a gradient effect to the text views in the home fragment.
-     * This method creates linear gradients and applies them to the text views.
+     * This method applies cached linear gradients from {@link ShaderCache} to the text views.
      *
      * @param view The root view of the fragment, which contains the text views.
      */
     private void applyTextGradient(View view) {
+        // The shaders are shared, so recreating the home screen builds nothing
         TextView stellarText = view.findViewById(R.id.stellar_text);
-        Shader stellarTextShader = new LinearGradient(0, 0, 0, stellarText.getTextSize(),
-                new int[]{Color.parseColor("#e200ff"), Color.parseColor("#F78CC2")},
-                null, Shader.TileMode.CLAMP);
-        stellarText.getPaint().setShader(stellarTextShader);
+        stellarText.getPaint().setShader(ShaderCache.verticalGradient(ShaderCache.STELLAR_TITLE_COLORS,
+                stellarText.getTextSize(), Shader.TileMode.CLAMP));
 
         TextView petsText = view.findViewById(R.id.pets_text);
-        Shader petsTextShader = new LinearGradient(0, 0, 0, petsText.getTextSize(),
-                new int[]{Color.parseColor("#e200ff"), Color.parseColor("#00f6ff")},
-                null, Shader.TileMode.CLAMP);
-        petsText.getPaint().setShader(petsTextShader);
+        petsText.getPaint().setShader(ShaderCache.verticalGradient(ShaderCache.PETS_TITLE_COLORS,
+                petsText.getTextSize(), Shader.TileMode.CLAMP));
     }
 
     /**
@@ -266,43 +246,11 @@ public class HomeFragment extends Fragment {
      * @throws IllegalArgumentException If the pet type is invalid or not recognized.
      */
     static void loadCurrentChosenPet(String currentPet, View view) {
-        Storage appStorage = new Storage(view.getContext());
-
-        switch (currentPet) {
-            case "FIRE":
-                if (appStorage.getDateRefillEnergy().equals("NONE")) {
-                    playInfiniteFireAnimation(view.findViewById(R.id.animatedImageHomeFragView));
-                } else {
-                    flameSleepAnim(view.findViewById(R.id.animatedImageHomeFragView));
-                }
-
-
-                break;
-            case "FOX":
-                if (appStorage.getDateRefillEnergy().equals("NONE")) {
-                    ImageView mainImageView2 = view.findViewById(R.id.animatedImageHomeFragView);
-                    AnimFunctions animationHelper2 = new AnimFunctions();
-                    animationHelper2.playInfiniteFoxAnimationV3(mainImageView2);
-                } else {
-                    foxSleepAnim(view.findViewById(R.id.animatedImageHomeFragView));
-                }
-
-                break;
-            case "SQUIRREL":
-
-                if (appStorage.getDateRefillEnergy().equals("NONE")) {
-                    ImageView mainImageView3 = view.findViewById(R.id.animatedImageHomeFragView);
-                    AnimFunctions animationHelper3 = new AnimFunctions();
-                    animationHelper3.playInfiniteSquirrelAnimationV3(mainImageView3);
-                } else {
-                    squirrelSleepAnim(view.findViewById(R.id.animatedImageHomeFragView));
-                }
+        ImageView petImageView = view.findViewById(R.id.animatedImageHomeFragView);
 
-                break;
-            default:
-                System.out.println("Invalid pet selection.");
-                break;
-        }
+        // Playing the sleep table also replaces the loop of the previous animation
+        boolean sleeping = EnergyRefillScheduler.getInstance(view.getContext()).isAsleep();
+        PetAnimationController.forView(petImageView).play(currentPet, sleeping ? PetAnimationTable.SLEEP : PetAnimationTable.HOME);
     }
 
     /**
@@ -327,72 +275,37 @@ public class HomeFragment extends Fragment {
     @Override
     public void onResume() {
         super.onResume();
+        FrameStats.getInstance().enterScreen(FrameStats.HOME);
 
-        // Access SharedPreferences through the parent activity
-        SharedPreferences sharedPreferences = requireActivity().getSharedPreferences("home_page", Context.MODE_PRIVATE);
-
-        // Retrieve the progress value and set it on the ProgressBar
-        int progress = sharedPreferences.getInt("gameEnergy", 100);
-        if (homeEnergyProg != null) {
-            homeEnergyProg.setProgress(progress);
-        }
+        // Follow spends and regeneration while the screen is visible; wakes once per unit of energy
+        energyRefillScheduler.start(this::showEnergy);
+        // Energy regenerated while away; show where it is now
+        showEnergy(energyRefillScheduler.getEnergy(), energyRefillScheduler.isAsleep());
     }
 
     /**
-     * Starts a periodic check to monitor whether the target date for energy refill has passed.
-     * The method uses a handler to repeatedly check the target date stored in `appStorage` and compares it
-     * with the current date to determine if the game energy should be reset.
-     * If the current date has passed the target date, the energy is reset to full, and the current pet animation is reloaded.
+     * Shows the energy on the bar and switches the pet between its sleep and home animations when
+     * the pets fall asleep or wake up.
      *
-     * @param context The context in which the method is being executed, typically used to access application resources.
-     * @param view The view associated with the current screen, used to trigger UI updates such as reloading the pet animation.
+     * @param energy the current energy (0 - 100)
+     * @param asleep whether the pets are asleep
      */
-    public void startDateCheck(Context context, View view) {
-        Handler handler = new Handler(Looper.getMainLooper());
-        Handler handler2 = new Handler(Looper.getMainLooper());
-
-        Storage appStorage = new Storage(context);
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd-HH:mm:ss");
-
-        Runnable checkDateRunnable = new Runnable() {
-            @Override
-            public void run() {
-                // Check if target date has been set
-                if (!appStorage.getDateRefillEnergy().equals("NONE")) {
-                    try {
-                        Date targetDate = dateFormat.parse(appStorage.getDateRefillEnergy());
-                        Date currentDate = new Date();
-
-                        // Check if the current date has passed the target date
-                        if (currentDate.after(targetDate)) {
-                            appStorage.resetGameEnergyToFull();
-                            appStorage.setDateRefillEnergy("NONE");
-                            System.out.println("Target date has passed, energy reset.");
-                            homeEnergyProg.setProgress(appStorage.getGameEnergy());
-
-                            handler2.postDelayed(() -> { // waits so the text is written in json file!
-                                loadCurrentChosenPet(appStorage.getCurrentChosenPet(), view);
-                            }, 1000); // 1000 milliseconds = 1 second
-
-                        } else {
-                            System.out.println("Current time is still before the target time.");
-                        }
-
-                    } catch (ParseException e) {
-                        System.out.println("Error parsing target date string.");
-                        e.printStackTrace();
-                    }
-                } else {
-                    System.out.println("Target date not yet set. Waiting...");
-                }
-
-                // Post the runnable again to run it every second (1000 milliseconds)
-                handler.postDelayed(this, 5000);
-            }
-        };
+    private void showEnergy(int energy, boolean asleep) {
+        if (homeEnergyProg != null) {
+            homeEnergyProg.setProgress(energy);
+        }
+        View view = getView();
+        if (view != null && asleep != showingAsleep) {
+            showingAsleep = asleep;
+            loadCurrentChosenPet(currentChosenPet, view);
+        }
+    }
 
-        // Start the periodic task
-        handler.post(checkDateRunnable);
+    @Override
+    public void onPause() {
+        super.onPause();
+        FrameStats.getInstance().exitScreen(FrameStats.HOME);
+        energyRefillScheduler.stop();
     }
 
     /**
@@ -463,9 +376,10 @@ public class HomeFragment extends Fragment {
         foxPetIdleAnim(animatedFoxIdleImg);
         squirrelPetIdleAnim(animatedSquirrelIdleImg);
         loadCurrentPetName(petNameEdit, appStorage, animatedImageView, hpTxt, foTxt, maTxt, viTxt);
-        foxNameText.setText(appStorage.getFoxPetName());
-        fireNameText.setText(appStorage.getFirePetName());
-        squirrelNameText.setText(appStorage.getSquirrelPetName());
+        PetRepository petRepository = PetRepository.getInstance(dialog.getContext());
+        fireNameText.setText(petRepository.getName(petRepository.idOf("FIRE")));
+        foxNameText.setText(petRepository.getName(petRepository.idOf("FOX")));
+        squirrelNameText.setText(petRepository.getName(petRepository.idOf("SQUIRREL")));
 
 //      On click Listeners  ___________________________________________________________________________
 
@@ -477,9 +391,8 @@ public class HomeFragment extends Fragment {
                 appStorage.setCurrentChosenPet("FIRE");
                 loadCurrentPetName(petNameEdit, appStorage, animatedImageView, hpTxt, foTxt, maTxt, viTxt);
 
-                AnimFunctions animationHelper = new AnimFunctions();
                 ImageView mainImageView = view.findViewById(R.id.animatedImageHomeFragView);
-                animationHelper.playInfiniteFireAnimationV4(mainImageView);
+                PetAnimationController.forView(mainImageView).play("FIRE", PetAnimationTable.HOME);
 
             }
         });
@@ -492,9 +405,8 @@ public class HomeFragment extends Fragment {
                 appStorage.setCurrentChosenPet("FOX");
                 loadCurrentPetName(petNameEdit, appStorage, animatedImageView, hpTxt, foTxt, maTxt, viTxt);
 
-                AnimFunctions animationHelper = new AnimFunctions();
                 ImageView mainImageView = view.findViewById(R.id.animatedImageHomeFragView);
-                animationHelper.playInfiniteFoxAnimationV3(mainImageView);
+                PetAnimationController.forView(mainImageView).play("FOX", PetAnimationTable.HOME);
             }
         });
 
@@ -506,9 +418,8 @@ public class HomeFragment extends Fragment {
                 appStorage.setCurrentChosenPet("SQUIRREL");
                 loadCurrentPetName(petNameEdit, appStorage, animatedImageView, hpTxt, foTxt, maTxt, viTxt);
 
-                AnimFunctions animationHelper = new AnimFunctions();
                 ImageView mainImageView = view.findViewById(R.id.animatedImageHomeFragView);
-                animationHelper.playInfiniteSquirrelAnimationV3(mainImageView);
+                PetAnimationController.forView(mainImageView).play("SQUIRREL", PetAnimationTable.HOME);
 
             }
         });
@@ -533,22 +444,25 @@ public class HomeFragment extends Fragment {
                 if (inputText.isEmpty()) {
                     inputText = "NO NAME";
                 }
-                // Display or use the text value
+                int petId = petRepository.idOf(currentChosenPet);
+                if (petId < 0) {
+                    System.out.println("Invalid something selection.");
+                    return;
+                }
+                petRepository.setName(petId, inputText);
+
+                // Display the text value under the matching pet
                 switch (currentChosenPet) {
                     case "FIRE":
-                        appStorage.setFirePetName(inputText);
-                        fireNameText.setText(appStorage.getFirePetName());
+                        fireNameText.setText(inputText);
                         break;
                     case "FOX":
-                        appStorage.setFoxPetName(inputText);
-                        foxNameText.setText(appStorage.getFoxPetName());
+                        foxNameText.setText(inputText);
                         break;
                     case "SQUIRREL":
-                        appStorage.setSquirrelPetName(inputText);
-                        squirrelNameText.setText(appStorage.getSquirrelPetName());
+                        squirrelNameText.setText(inputText);
                         break;
                     default:
-                        System.out.println("Invalid something selection.");
                         break;
                 }
 
@@ -560,6 +474,7 @@ public class HomeFragment extends Fragment {
 
         // Show the dialog
         dialog.show();
+        FrameStats.getInstance().trackDialog(dialog, FrameStats.PET_INVENTORY);
     }
 
 
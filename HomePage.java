@@ -38,8 +38,12 @@ public class HomePage extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        // Decode the pet frames in the background while the layout inflates
+        AnimationPrefetcher.prefetch(this);
         EdgeToEdge.enable(this);  // Enables edge-to-edge display for a full-screen experience
         setContentView(R.layout.activity_home_page);
+        // Count frame durations for whichever fragment is on screen
+        FrameStats.getInstance().trackActivity(this);
 
         // Apply window insets to handle system UI (e.g., status bar and navigation bar)
         ViewCompat.setOnApplyWindowInsetsListener(findViewById(R.id.mainTest), (v, insets) -> {
@@ -48,46 +52,61 @@ public class HomePage extends AppCompatActivity {
             return insets;
         });
 
-        // ______________________________________ Init ____________________________________________
-        Storage appStorage = new Storage(this);
-
         // ______________________________________ On load ____________________________________________
 
         // On activity load: Load the HomeFragment into the fragment container
         FragmentTransaction transaction = getSupportFragmentManager().beginTransaction();
         transaction.replace(R.id.fragment_container, new HomeFragment());
         transaction.commit();
-        // Start checking time limits in the background (e.g., parental controls)
-        appStorage.startCheckingTime();
+        // Follow energy writes from the start, so spends and refill dates are recorded when they happen
+        EnergyRefillScheduler.getInstance(this);
+        // Restore the parental time limit; it fires once at its deadline instead of being polled
+        ParentalLimit.getInstance(this).restore();
         // Load settings from AppliedSettings class
         loadSettings(this);
     }
 
     /**
      * Called when the activity goes into the background.
-     * This method pauses the background music by stopping the MusicService.
-     * The music service is stopped to ensure that music is no longer playing when the user navigates away from the activity.
+     * This method pauses the background music without stopping the MusicService.
+     * The decoded track is kept, so the music continues where it stopped when the user comes back.
      * The method is automatically invoked by the Android lifecycle when the activity is paused.
      */
     @Override
     protected void onPause() {
         super.onPause();
-        Intent intent = new Intent(this, MusicService.class);
-        stopService(intent);  // Stop the music service when the app goes into the background
+        MusicService.pauseMusic();  // Pause the music when the app goes into the background
+        FrameStats.getInstance().writeReport(this);  // Keep the latest frame timings on disk
+        MainThreadWatchdog.getInstance().stop();
+        MainThreadWatchdog.getInstance().writeReport(this);  // Keep the latest stall samples on disk
 
     }
 
     /**
      * Called when the activity comes back to the foreground.
-     * This method resumes the background music by restarting the MusicService.
-     * The music service is started again to resume playback of the music when the user returns to the activity.
+     * This method resumes the background music through the MusicService.
+     * The paused track continues at once when the user returns to the activity; it is not decoded again.
      * The method is automatically invoked by the Android lifecycle when the activity is resumed.
      */
     @Override
     protected void onResume() {
         super.onResume();
         Intent musicServiceIntent = new Intent(this, MusicService.class);
-        startService(musicServiceIntent);  // Restart the music service when the app is resumed
+        startService(musicServiceIntent);  // Resume the paused track, starting the service if needed
+        ParentalLimit.getInstance(this).restore();  // Catch a limit that passed while the app was away
+        MainThreadWatchdog.getInstance().start();  // Watch for main thread stalls while in the foreground
+    }
+
+    /**
+     * Called when the activity is destroyed.
+     * When the user leaves the app for good, the MusicService is stopped so the paused players are released.
+     */
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (isFinishing()) {
+            stopService(new Intent(this, MusicService.class));
+        }
     }
 
 
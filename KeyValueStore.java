@@ -0,0 +1,59 @@
+package com.example.tetris_concept;
+
+/**
+ * A small key-value store for saved state, so logic that saves state does not need a {@link android.content.Context}.
+ * <p>
+ * In the app it is backed by {@code SharedPreferences} through {@link PreferencesStore}; on the JVM a
+ * map is enough. Together with a {@link VirtualClock} this lets time-driven logic such as
+ * {@link EnergyRefillScheduler} and {@link ParentalLimit} run in tests and simulations.
+ * </p>
+ *
+ * @author Eric
+ */
+public interface KeyValueStore {
+
+    /**
+     * @param key the key
+     * @return whether a value is stored under the key
+     */
+    boolean contains(String key);
+
+    /**
+     * @param key          the key
+     * @param defaultValue the value to return when the key is unset
+     * @return the stored value, or {@code defaultValue}
+     */
+    int getInt(String key, int defaultValue);
+
+    /**
+     * @param key          the key
+     * @param defaultValue the value to return when the key is unset
+     * @return the stored value, or {@code defaultValue}
+     */
+    long getLong(String key, long defaultValue);
+
+    /**
+     * @param key          the key
+     * @param defaultValue the value to return when the key is unset
+     * @return the stored value, or {@code defaultValue}
+     */
+    String getString(String key, String defaultValue);
+
+    /**
+     * @param key   the key
+     * @param value the value to store
+     */
+    void putInt(String key, int value);
+
+    /**
+     * @param key   the key
+     * @param value the value to store
+     */
+    void putLong(String key, long value);
+
+    /**
+     * @param key   the key
+     * @param value the value to store
+     */
+    void putString(String key, String value);
+}
@@ -0,0 +1,226 @@
+package com.example.tetris_concept;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Detects main thread stalls and records where the main thread was stuck.
+ * <p>
+ * A watchdog thread posts a ping to the main looper every {@value #PING_INTERVAL_MILLIS} ms. If the
+ * main thread has not run the ping after {@value #STALL_THRESHOLD_MILLIS} ms it is stalled: the
+ * watchdog then samples the main thread's stack every {@value #SAMPLE_INTERVAL_MILLIS} ms until the
+ * ping finally runs. Samples go into a ring buffer of {@value #MAX_SAMPLES} entries, so the most recent
+ * stalls are always kept without the memory growing.
+ * </p>
+ *
+ * <p>
+ * {@link HomePage} runs the watchdog only while it is resumed, so nothing pings the main thread while
+ * the app is in the background. {@link #dump()} and {@link #writeReport(Context)} export the samples,
+ * grouped by stall with how long each stall lasted, with the full stack of each sample. Nothing is
+ * printed while the app runs. Uses the real uptime clock rather than {@link AppClock}, since stalls
+ * are real time.
+ * </p>
+ *
+ * @author Collin
+ */
+public final class MainThreadWatchdog {
+
+    /** Time between two pings of the main thread. */
+    public static final long PING_INTERVAL_MILLIS = 100;
+    /** How long a ping may wait before the main thread counts as stalled. */
+    public static final long STALL_THRESHOLD_MILLIS = 250;
+    /** Time between two stack samples during a stall. */
+    public static final long SAMPLE_INTERVAL_MILLIS = 50;
+    /** Number of stack samples kept. */
+    public static final int MAX_SAMPLES = 128;
+
+    /** Name of the report file in the app's files directory. */
+    public static final String REPORT_FILE = "main_thread_stalls.txt";
+
+    private static MainThreadWatchdog instance;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Handler watchdogHandler;
+    private final Thread mainThread = Looper.getMainLooper().getThread();
+
+    private final Sample[] samples = new Sample[MAX_SAMPLES];
+    // Length of each stall by stallId % MAX_SAMPLES, 0 while it lasts; every kept sample's stall fits
+    private final long[] stallLengths = new long[MAX_SAMPLES];
+    private int nextSample = 0;
+    private int sampleCount = 0;
+
+    private volatile boolean acked = true;
+    private long pingSentAt;
+    private int stallId = 0;
+    private boolean stalled = false;
+    private boolean running = false;
+
+    /**
+     * One stack of the main thread taken during a stall.
+     */
+    private static final class Sample {
+        final int stallId;
+        final long uptimeMillis;
+        final long stalledMillis;
+        final StackTraceElement[] stack;
+
+        Sample(int stallId, long uptimeMillis, long stalledMillis, StackTraceElement[] stack) {
+            this.stallId = stallId;
+            this.uptimeMillis = uptimeMillis;
+            this.stalledMillis = stalledMillis;
+            this.stack = stack;
+        }
+    }
+
+    private final Runnable ack = () -> acked = true;
+
+    private final Runnable check = new Runnable() {
+        @Override
+        public void run() {
+            long now = SystemClock.uptimeMillis();
+            if (acked) {
+                if (stalled) {
+                    stalled = false;
+                    synchronized (samples) {
+                        stallLengths[stallId % MAX_SAMPLES] = now - pingSentAt;
+                    }
+                }
+                acked = false;
+                pingSentAt = now;
+                mainHandler.post(ack);
+                watchdogHandler.postDelayed(this, PING_INTERVAL_MILLIS);
+                return;
+            }
+
+            long stalledMillis = now - pingSentAt;
+            if (stalledMillis >= STALL_THRESHOLD_MILLIS) {
+                if (!stalled) {
+                    stalled = true;
+                    stallId++;
+                    synchronized (samples) {
+                        stallLengths[stallId % MAX_SAMPLES] = 0;
+                    }
+                }
+                addSample(new Sample(stallId, now, stalledMillis, mainThread.getStackTrace()));
+            }
+            watchdogHandler.postDelayed(this, SAMPLE_INTERVAL_MILLIS);
+        }
+    };
+
+    private MainThreadWatchdog() {
+        HandlerThread thread = new HandlerThread("MainThreadWatchdog");
+        thread.start();
+        watchdogHandler = new Handler(thread.getLooper());
+    }
+
+    /**
+     * Returns the app-wide watchdog. Must be called on the main thread.
+     *
+     * @return the shared {@code MainThreadWatchdog}
+     */
+    public static MainThreadWatchdog getInstance() {
+        if (instance == null) {
+            instance = new MainThreadWatchdog();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts pinging the main thread. Does nothing if already running. Must be called on the main thread.
+     */
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        watchdogHandler.post(() -> {
+            acked = true;  // A ping left from the last run may never have been answered
+            stalled = false;
+            watchdogHandler.removeCallbacks(check);
+            check.run();
+        });
+    }
+
+    /**
+     * Stops pinging the main thread. The samples are kept. Must be called on the main thread.
+     */
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        mainHandler.removeCallbacks(ack);
+        watchdogHandler.post(() -> watchdogHandler.removeCallbacks(check));
+    }
+
+    /**
+     * @return the samples from oldest to newest, grouped by stall with the length of each stall, each
+     *         sample with the main thread's stack
+     */
+    public String dump() {
+        StringBuilder report = new StringBuilder();
+        synchronized (samples) {
+            int first = (nextSample - sampleCount + MAX_SAMPLES) % MAX_SAMPLES;
+            int lastStall = -1;
+            for (int i = 0; i < sampleCount; i++) {
+                Sample sample = samples[(first + i) % MAX_SAMPLES];
+                if (sample.stallId != lastStall) {
+                    lastStall = sample.stallId;
+                    long length = stallLengths[sample.stallId % MAX_SAMPLES];
+                    report.append("Stall #").append(sample.stallId)
+                            .append(length > 0 ? ", lasted " + length + " ms" : ", end not seen").append('\n');
+                }
+                report.append(String.format(Locale.US, "  at uptime %d ms, stalled for %d ms:%n",
+                        sample.uptimeMillis, sample.stalledMillis));
+                for (StackTraceElement element : sample.stack) {
+                    report.append("    ").append(element).append('\n');
+                }
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * Writes {@link #dump()} to {@value #REPORT_FILE} on the watchdog thread. Returns immediately.
+     *
+     * @param context any context; only used to find the files directory
+     */
+    public void writeReport(Context context) {
+        final File file = new File(context.getApplicationContext().getFilesDir(), REPORT_FILE);
+        watchdogHandler.post(() -> {
+            try (FileWriter writer = new FileWriter(file)) {
+                writer.write(dump());
+            } catch (IOException e) {
+                System.out.println("Error writing the main thread stall report.");
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * @return the number of samples kept, at most {@link #MAX_SAMPLES}
+     */
+    public int getSampleCount() {
+        synchronized (samples) {
+            return sampleCount;
+        }
+    }
+
+    private void addSample(Sample sample) {
+        synchronized (samples) {
+            samples[nextSample] = sample;
+            nextSample = (nextSample + 1) % MAX_SAMPLES;
+            if (sampleCount < MAX_SAMPLES) {
+                sampleCount++;
+            }
+        }
+    }
+}
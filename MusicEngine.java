@@ -0,0 +1,471 @@
+package com.example.tetris_concept;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.media.AudioAttributes;
+import android.media.MediaPlayer;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import java.io.IOException;
+
+/**
+ * Plays the background music with two players: the current track and a prepared next track.
+ * <p>
+ * Creating a {@link MediaPlayer} for a track decodes its start before it can play, which stalls the
+ * switch. The engine keeps a second player prepared for the track most likely to play next, usually
+ * the music of the map the map list has settled on ({@link GameMapFragment} sends it to
+ * {@link MusicService}, see {@link #trackIdOf(Context, GameMapItem)}). Switching
+ * to that track starts the prepared player at once, and the previous player is paused and rewound to
+ * become the next player, so going back to the previous screen's music is instant too.
+ * </p>
+ *
+ * <p>
+ * Switching while music plays crossfades the two tracks: the outgoing track fades out while the
+ * incoming one fades in, following a {@link CrossfadeMixer.Curve} over {@link #setCrossfade} time.
+ * The fade runs on its own thread and takes its position from the elapsed time in sample frames, so a
+ * late update catches up instead of stretching the fade. {@link #fadeOutAndStop(long)} uses the same
+ * driver with no incoming track.
+ * </p>
+ *
+ * <p>
+ * {@link #pause()} and {@link #resume()} keep the decoded players, so returning to the app continues
+ * the music where it stopped. Players are prepared asynchronously; a track asked to play before it is
+ * prepared starts as soon as it is. Must be used on the main thread.
+ * </p>
+ *
+ * @author Collin
+ */
+public final class MusicEngine {
+
+    /** Time between two gain updates of a running fade. */
+    private static final long FADE_TICK_MILLIS = 10;
+
+    private static MusicEngine instance;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private Handler fadeHandler;
+
+    private Track current;
+    private Track next;
+    private Fade fade;
+    private volatile float volume = 1f;
+    private boolean paused = false;
+
+    private CrossfadeMixer.Curve crossfadeCurve = CrossfadeMixer.Curve.EQUAL_POWER;
+    private long crossfadeMillis = 1500;
+
+    /**
+     * One looping player and its preparation state. The gain is set by fades, the volume by the engine;
+     * the player plays at their product.
+     */
+    private final class Track implements MediaPlayer.OnPreparedListener, MediaPlayer.OnErrorListener {
+        final int trackId;
+        final MediaPlayer player = new MediaPlayer();
+        volatile boolean prepared = false;
+        boolean startWhenPrepared = false;
+        private boolean released = false;
+        private float gain = 1f;
+
+        Track(Context context, int trackId) throws IOException {
+            this.trackId = trackId;
+            player.setAudioAttributes(new AudioAttributes.Builder()
+                    .setUsage(AudioAttributes.USAGE_GAME)
+                    .setContentType(AudioAttributes.CONTENT_TYPE_MUSIC)
+                    .build());
+            try (AssetFileDescriptor file = context.getResources().openRawResourceFd(trackId)) {
+                player.setDataSource(file.getFileDescriptor(), file.getStartOffset(), file.getLength());
+            }
+            player.setLooping(true);  // Set the music to loop
+            player.setOnPreparedListener(this);
+            player.setOnErrorListener(this);
+            player.prepareAsync();
+        }
+
+        void start() {
+            if (prepared) {
+                applyVolume();
+                player.start();
+            } else {
+                startWhenPrepared = true;
+            }
+        }
+
+        void pause() {
+            startWhenPrepared = false;
+            if (prepared && !released && player.isPlaying()) {
+                player.pause();
+            }
+        }
+
+        boolean isPlaying() {
+            return prepared && !released && player.isPlaying();
+        }
+
+        /**
+         * Pauses and rewinds the track at full gain so it can start again from the beginning without a
+         * new decode. Does nothing once the track is released.
+         */
+        void rewind() {
+            if (released) {
+                return;
+            }
+            pause();
+            setGain(1f);
+            if (prepared) {
+                player.seekTo(0);
+            }
+        }
+
+        synchronized void setGain(float gain) {
+            this.gain = gain;
+            applyVolume();
+        }
+
+        /**
+         * Sets the gain from the fade thread, unless the fade was cancelled in the meantime.
+         */
+        synchronized void setGain(Fade source, float gain) {
+            if (!source.cancelled) {
+                setGain(gain);
+            }
+        }
+
+        synchronized void applyVolume() {
+            if (prepared && !released) {
+                float trackVolume = gain * volume;
+                player.setVolume(trackVolume, trackVolume);
+            }
+        }
+
+        synchronized void release() {
+            if (released) {
+                return;
+            }
+            startWhenPrepared = false;
+            released = true;
+            player.release();
+        }
+
+        @Override
+        public void onPrepared(MediaPlayer mp) {
+            prepared = true;
+            if (startWhenPrepared && this == current && !paused) {
+                start();
+            }
+        }
+
+        @Override
+        public boolean onError(MediaPlayer mp, int what, int extra) {
+            System.out.println("Error playing music track " + trackId + ": " + what + ", " + extra + ".");
+            if (this == current) {
+                current = null;
+            } else if (this == next) {
+                next = null;
+            }
+            release();
+            return true;
+        }
+    }
+
+    /**
+     * A running fade. Its gains are updated on the fade thread; it finishes on the main thread.
+     */
+    private final class Fade implements Runnable {
+        final Track outgoing;
+        final Track incoming;
+        final Runnable onFinished;
+        final CrossfadeMixer mixer;
+        final long startNanos = SystemClock.elapsedRealtimeNanos();
+        volatile boolean cancelled = false;
+
+        /**
+         * @param outgoing   the track fading out
+         * @param incoming   the track fading in, or null to fade to silence
+         * @param onFinished run on the main thread when the fade reaches its end
+         * @param millis     the fade length in milliseconds
+         */
+        Fade(Track outgoing, Track incoming, Runnable onFinished, long millis) {
+            this.outgoing = outgoing;
+            this.incoming = incoming;
+            this.onFinished = onFinished;
+            this.mixer = new CrossfadeMixer(crossfadeCurve,
+                    CrossfadeMixer.millisToFrames(millis, CrossfadeMixer.DEFAULT_SAMPLE_RATE));
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            long elapsedNanos = SystemClock.elapsedRealtimeNanos() - startNanos;
+            mixer.setPosition(elapsedNanos * CrossfadeMixer.DEFAULT_SAMPLE_RATE / 1_000_000_000L);
+            outgoing.setGain(this, mixer.gainOut());
+            if (incoming != null) {
+                incoming.setGain(this, mixer.gainIn());
+            }
+            if (mixer.isFinished()) {
+                mainHandler.post(() -> {
+                    if (fade == this) {
+                        fade = null;
+                        onFinished.run();
+                    }
+                });
+            } else {
+                fadeHandler.postDelayed(this, FADE_TICK_MILLIS);
+            }
+        }
+    }
+
+    private MusicEngine() {
+    }
+
+    /**
+     * Returns the app-wide engine. Must be called on the main thread.
+     *
+     * @return the shared {@code MusicEngine}
+     */
+    public static MusicEngine getInstance() {
+        if (instance == null) {
+            instance = new MusicEngine();
+        }
+        return instance;
+    }
+
+    /**
+     * Sets how later track switches and fade-outs blend.
+     *
+     * @param curve  the fade shape
+     * @param millis the fade length in milliseconds; 0 switches without a fade
+     */
+    public void setCrossfade(CrossfadeMixer.Curve curve, long millis) {
+        crossfadeCurve = curve;
+        crossfadeMillis = millis;
+    }
+
+    /**
+     * Plays a track, switching from the current one. Playing the current track resumes it.
+     * If the current track is playing, the two are crossfaded.
+     *
+     * @param context any context; used to open the track if it is not prepared yet
+     * @param trackId the raw resource of the track
+     */
+    public void play(Context context, int trackId) {
+        paused = false;
+        if (current != null && current.trackId == trackId) {
+            current.start();
+            return;
+        }
+        finishFade();
+
+        final Track previous = current;
+        if (next != null && next.trackId == trackId) {
+            current = next;
+            next = null;
+        } else {
+            current = open(context, trackId);
+        }
+        if (previous == null) {
+            if (current != null) {
+                current.start();
+            }
+            return;
+        }
+
+        // Keep the previous track decoded: going back to it is the next most likely switch
+        if (next != null) {
+            next.release();
+        }
+        next = previous;
+        if (current != null && previous.isPlaying() && crossfadeMillis > 0) {
+            current.setGain(0f);
+            current.start();
+            startFade(new Fade(previous, current, () -> retire(previous), crossfadeMillis));
+        } else {
+            previous.rewind();
+            if (current != null) {
+                current.start();
+            }
+        }
+    }
+
+    /**
+     * Prepares a track in the background so a later {@link #play(Context, int)} of it starts at once.
+     * Replaces the previously prepared track. If that track is still fading out, it is released when
+     * its fade ends, so the crossfade is not cut short.
+     *
+     * @param context any context; used to open the track
+     * @param trackId the raw resource of the track
+     */
+    public void preload(Context context, int trackId) {
+        if ((current != null && current.trackId == trackId) || (next != null && next.trackId == trackId)) {
+            return;
+        }
+        // A track still fading out is released by its fade's end instead, so the crossfade is not cut short
+        if (next != null && (fade == null || fade.outgoing != next)) {
+            next.release();
+        }
+        next = open(context, trackId);
+    }
+
+    /**
+     * Finds the track of a map, for {@link #preload(Context, int)}. The map's music name is the name of a
+     * raw resource.
+     *
+     * @param context any context; used to find the track
+     * @param map     the map
+     * @return the track's raw resource id, or 0 if there is no track of that name
+     */
+    public static int trackIdOf(Context context, GameMapItem map) {
+        String musicName = map.getMusicName();
+        int trackId = musicName == null ? 0
+                : context.getResources().getIdentifier(musicName, "raw", context.getPackageName());
+        if (trackId == 0) {
+            System.out.println("No music track named " + musicName + ".");
+        }
+        return trackId;
+    }
+
+    /**
+     * Pauses the music, keeping both players decoded. A running crossfade is completed first.
+     */
+    public void pause() {
+        paused = true;
+        finishFade();
+        if (current != null) {
+            current.pause();
+        }
+    }
+
+    /**
+     * Resumes the music where {@link #pause()} left it.
+     */
+    public void resume() {
+        paused = false;
+        if (current != null) {
+            current.start();
+        }
+    }
+
+    /**
+     * Sets the volume of the music. Fades are applied on top of it.
+     *
+     * @param volume between 0 and 1
+     */
+    public void setVolume(float volume) {
+        this.volume = volume;
+        if (current != null) {
+            current.applyVolume();
+        }
+        Fade running = fade;
+        if (running != null && running.outgoing != current) {
+            running.outgoing.applyVolume();  // Still audible until its fade ends
+        }
+    }
+
+    /**
+     * Fades the current track out along the crossfade curve, then stops the music and releases both players.
+     *
+     * @param millis the fade length in milliseconds
+     */
+    public void fadeOutAndStop(long millis) {
+        if (current == null) {
+            return;
+        }
+        finishFade();
+        startFade(new Fade(current, null, this::stop, millis));
+    }
+
+    /**
+     * @return whether the current track is playing
+     */
+    public boolean isPlaying() {
+        return current != null && current.isPlaying();
+    }
+
+    /**
+     * @return whether a track is loaded, playing or paused
+     */
+    public boolean hasTrack() {
+        return current != null;
+    }
+
+    /**
+     * Stops the music and releases both players. The next {@link #play(Context, int)} decodes again.
+     */
+    public void stop() {
+        Fade cancelled = cancelFade();
+        if (cancelled != null) {
+            retire(cancelled.outgoing);  // Releases a track that preload() left to its fade
+        }
+        if (current != null) {
+            current.release();
+            current = null;
+        }
+        if (next != null) {
+            next.release();
+            next = null;
+        }
+        volume = 1f;
+    }
+
+    /**
+     * Ends a track that has faded out: it is rewound if it is still the current or next track, and
+     * released if {@link #preload(Context, int)} replaced it while it was fading.
+     */
+    private void retire(Track track) {
+        if (track == current || track == next) {
+            track.rewind();
+        } else {
+            track.release();
+        }
+    }
+
+    private void startFade(Fade newFade) {
+        if (fadeHandler == null) {
+            HandlerThread thread = new HandlerThread("MusicCrossfade");
+            thread.start();
+            fadeHandler = new Handler(thread.getLooper());
+        }
+        fade = newFade;
+        fadeHandler.post(newFade);
+    }
+
+    /**
+     * Stops the running fade where it is, without its end action.
+     */
+    private Fade cancelFade() {
+        Fade cancelled = fade;
+        if (cancelled != null) {
+            cancelled.cancelled = true;
+            fadeHandler.removeCallbacks(cancelled);
+            fade = null;
+        }
+        return cancelled;
+    }
+
+    /**
+     * Jumps the running fade to its end: full gain for the incoming track and the end action.
+     */
+    private void finishFade() {
+        Fade finished = cancelFade();
+        if (finished != null) {
+            if (finished.incoming != null) {
+                finished.incoming.setGain(1f);
+            }
+            finished.onFinished.run();
+        }
+    }
+
+    private Track open(Context context, int trackId) {
+        try {
+            return new Track(context.getApplicationContext(), trackId);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Error opening music track " + trackId + ".");
+            e.printStackTrace();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.tetris_concept;
+
+import android.content.Context;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enforces the parental time limit set in {@link SettingsFragment} with a single scheduled event.
+ * <p>
+ * The limit is stored as an epoch deadline, so it survives process death. {@link #restore()} checks it
+ * once (at startup and whenever the app comes back) and arms one {@link TimerWheel} task for the exact
+ * deadline. When the deadline passes, {@link #isLimitReached()} turns true and every registered screen
+ * is told through {@link OnLimitReachedListener}. Nothing polls in between.
+ * </p>
+ *
+ * <p>
+ * The human-readable limit is still written with {@link Storage#setTimeLimit(String)} for display, and
+ * {@link Storage#parentTimeIsOn} still mirrors whether the limit is reached for game code that reads it.
+ * Only {@link #getInstance(Context)} touches Android: the deadline is kept in a {@link KeyValueStore}
+ * and {@link Storage} is reached through {@link LimitText}, so the limit also runs on the JVM against a
+ * {@link VirtualClock}.
+ * </p>
+ *
+ * <p><strong>Author:</strong> Alex</p>
+ */
+public class ParentalLimit {
+
+    /** Value shown by {@link Storage#getTimeLimit()} when no limit is set. */
+    static final String NO_LIMIT = "NONE";
+
+    /** Value of {@link #getDeadlineMillis()} when no limit is set. */
+    static final long NO_DEADLINE = 0L;
+
+    private static final String PREFS_NAME = "parental_limit";
+    private static final String KEY_DEADLINE_MILLIS = "deadlineMillis";
+    private static final String DATE_PATTERN = "yyyy-MM-dd-HH:mm:ss";
+
+    /**
+     * The limit as the settings screen and game code see it in {@link Storage}.
+     */
+    interface LimitText {
+        /**
+         * @return the limit as {@code yyyy-MM-dd-HH:mm:ss}, or {@link ParentalLimit#NO_LIMIT}
+         */
+        String getTimeLimit();
+
+        /**
+         * @param timeLimit the limit as {@code yyyy-MM-dd-HH:mm:ss}, or {@link ParentalLimit#NO_LIMIT}
+         */
+        void setTimeLimit(String timeLimit);
+
+        /**
+         * @param reached whether the limit is reached, for game code to see
+         */
+        void setLimitReached(boolean reached);
+    }
+
+    /**
+     * Callback invoked on the main thread when the time limit is reached.
+     */
+    public interface OnLimitReachedListener {
+        /**
+         * Called while the registering screen is resumed and the limit has been reached.
+         */
+        void onLimitReached();
+    }
+
+    private static ParentalLimit instance;
+
+    private final KeyValueStore preferences;
+    private final LimitText limitText;
+    private final Map<LifecycleOwner, OnLimitReachedListener> listeners = new HashMap<>();
+    private TimerWheel.Timeout expiryTimeout;
+    private boolean limitReached;
+
+    // Delivers a limit reached while a screen was away as soon as it is resumed again
+    private final LifecycleEventObserver lifecycleObserver = new LifecycleEventObserver() {
+        @Override
+        public void onStateChanged(LifecycleOwner source, Lifecycle.Event event) {
+            if (event == Lifecycle.Event.ON_RESUME) {
+                OnLimitReachedListener listener = listeners.get(source);
+                if (listener != null && limitReached) {
+                    listener.onLimitReached();
+                }
+            } else if (event == Lifecycle.Event.ON_DESTROY) {
+                listeners.remove(source);
+                source.getLifecycle().removeObserver(this);
+            }
+        }
+    };
+
+    /**
+     * Creates a limit. The app uses {@link #getInstance(Context)}; tests pass in-memory values.
+     *
+     * @param preferences where the deadline is kept
+     * @param limitText   where the human-readable limit is shown
+     */
+    ParentalLimit(KeyValueStore preferences, LimitText limitText) {
+        this.preferences = preferences;
+        this.limitText = limitText;
+    }
+
+    /**
+     * Returns the app-wide parental limit. Must be called on the main thread.
+     *
+     * @param context any context; only the application context is retained
+     * @return the shared {@code ParentalLimit}
+     */
+    public static ParentalLimit getInstance(Context context) {
+        if (instance == null) {
+            final Storage appStorage = new Storage(context.getApplicationContext());
+            instance = new ParentalLimit(new PreferencesStore(context, PREFS_NAME), new LimitText() {
+                @Override
+                public String getTimeLimit() {
+                    return appStorage.getTimeLimit();
+                }
+
+                @Override
+                public void setTimeLimit(String timeLimit) {
+                    appStorage.setTimeLimit(timeLimit);
+                }
+
+                @Override
+                public void setLimitReached(boolean reached) {
+                    Storage.parentTimeIsOn = reached;
+                }
+            });
+        }
+        return instance;
+    }
+
+    /**
+     * Registers a screen to be told when the limit is reached. The listener is only called while the
+     * owner is resumed, and is removed when the owner is destroyed.
+     *
+     * @param owner    the screen's lifecycle owner
+     * @param listener the callback to run when the limit is reached
+     */
+    public void addListener(LifecycleOwner owner, OnLimitReachedListener listener) {
+        if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            return;
+        }
+        if (listeners.put(owner, listener) == null) {
+            owner.getLifecycle().addObserver(lifecycleObserver);
+        }
+    }
+
+    /**
+     * Sets a new time limit and arms its expiry.
+     *
+     * @param deadlineMillis the end of the allowed play time as epoch milliseconds
+     */
+    public void setLimit(long deadlineMillis) {
+        preferences.putLong(KEY_DEADLINE_MILLIS, deadlineMillis);
+        limitText.setTimeLimit(new SimpleDateFormat(DATE_PATTERN).format(new Date(deadlineMillis)));
+        setLimitReached(false);
+        restore();
+    }
+
+    /**
+     * Removes the time limit.
+     */
+    public void clearLimit() {
+        preferences.putLong(KEY_DEADLINE_MILLIS, NO_DEADLINE);
+        limitText.setTimeLimit(NO_LIMIT);
+        setLimitReached(false);
+        cancelExpiry();
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return the deadline as epoch milliseconds, or {@link #NO_DEADLINE} if no limit is set
+     */
+    public long getDeadlineMillis() {
+        if (!preferences.contains(KEY_DEADLINE_MILLIS)) {
+            // Limit saved before deadlines were stored as millis: convert it once
+            long deadlineMillis = parseLegacyLimit(limitText.getTimeLimit());
+            preferences.putLong(KEY_DEADLINE_MILLIS, deadlineMillis);
+            return deadlineMillis;
+        }
+        return preferences.getLong(KEY_DEADLINE_MILLIS, NO_DEADLINE);
+    }
+
+    /**
+     * @return whether the time limit has been reached
+     */
+    public boolean isLimitReached() {
+        return limitReached;
+    }
+
+    /**
+     * Checks the limit once and arms a single task for its exact deadline. Call at startup and on resume.
+     */
+    public void restore() {
+        cancelExpiry();
+        long deadlineMillis = getDeadlineMillis();
+        if (deadlineMillis == NO_DEADLINE) {
+            setLimitReached(false);
+            return;
+        }
+
+        long remaining = deadlineMillis - AppClock.get().currentTimeMillis();
+        if (remaining <= 0) {
+            onDeadlineReached();
+        } else {
+            setLimitReached(false);
+            expiryTimeout = TimerWheel.getInstance().schedule(null, "parentalLimit", remaining, this::onDeadlineReached);
+        }
+    }
+
+    private void onDeadlineReached() {
+        expiryTimeout = null;
+        boolean wasOn = limitReached;
+        setLimitReached(true);
+        if (wasOn) {
+            return;  // Screens already heard about it; the next resume will tell them again
+        }
+        for (Map.Entry<LifecycleOwner, OnLimitReachedListener> entry : new HashMap<>(listeners).entrySet()) {
+            if (entry.getKey().getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.RESUMED)) {
+                entry.getValue().onLimitReached();
+            }
+        }
+    }
+
+    private void setLimitReached(boolean reached) {
+        limitReached = reached;
+        limitText.setLimitReached(reached);
+    }
+
+    private void cancelExpiry() {
+        if (expiryTimeout != null) {
+            expiryTimeout.cancel();
+            expiryTimeout = null;
+        }
+    }
+
+    private static long parseLegacyLimit(String timeLimit) {
+        if (timeLimit == null || timeLimit.isEmpty() || NO_LIMIT.equals(timeLimit)) {
+            return NO_DEADLINE;
+        }
+        try {
+            return new SimpleDateFormat(DATE_PATTERN).parse(timeLimit).getTime();
+        } catch (ParseException e) {
+            System.out.println("Error parsing time limit string.");
+            e.printStackTrace();
+            return NO_DEADLINE;
+        }
+    }
+}
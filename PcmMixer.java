@@ -0,0 +1,276 @@
+package com.example.tetris_concept;
+
+/**
+ * Mixes any number of 16-bit stereo PCM sources into one output buffer.
+ * <p>
+ * Each source is a {@link Channel} with its own gain and pan. Gains are Q15 fixed point
+ * ({@link #UNITY_GAIN} is 1.0), so mixing a sample is an integer multiply and a shift. The sources are
+ * summed into a 32-bit accumulator, and then a limiter scales the block down if its peak would clip
+ * and recovers gradually afterwards. The result is saturated to 16 bits.
+ * </p>
+ *
+ * <p>
+ * All buffers are allocated in the constructor, so {@link #mix(short[], int)} never allocates. Its
+ * inner loops are plain counted loops over arrays, with no calls or branches in the body, which the
+ * JIT can unroll and vectorize. Adding or removing a channel copies the channel list, so the audio
+ * thread can mix while other threads change the channels, gains or pans. Uses no Android classes, so
+ * it runs on the JVM as well; {@link AudioTrackOutput} plays it on a device.
+ * </p>
+ *
+ * @author Collin
+ */
+public final class PcmMixer {
+
+    /** Gain 1.0 in Q15. */
+    public static final int UNITY_GAIN = 1 << 15;
+    /** Samples per frame: the mixer works in interleaved stereo. */
+    public static final int CHANNELS = 2;
+
+    /** The limiter recovers 1/8 of its remaining gain reduction per block. */
+    private static final int LIMITER_RELEASE_SHIFT = 3;
+    /** Highest gain of one side of a channel, 2.0 in Q15. */
+    private static final int MAX_SIDE_GAIN = 2 * UNITY_GAIN;
+
+    /**
+     * Produces 16-bit interleaved stereo samples.
+     */
+    public interface Source {
+        /**
+         * Fills a buffer with the next frames.
+         *
+         * @param buffer receives {@code frames * 2} interleaved samples
+         * @param frames the number of frames wanted
+         * @return the number of frames written; fewer than asked means the source has ended
+         */
+        int read(short[] buffer, int frames);
+    }
+
+    /**
+     * One source in the mix with its gain and pan. Changes apply from the next mixed block.
+     */
+    public static final class Channel {
+        private final Source source;
+        private volatile int gainLeft = UNITY_GAIN;
+        private volatile int gainRight = UNITY_GAIN;
+        private volatile boolean ended = false;
+        private float gain = 1f;
+        private float pan = 0f;
+
+        private Channel(Source source) {
+            this.source = source;
+        }
+
+        /**
+         * @param gain the linear gain, 1 for unchanged; at most 2
+         */
+        public synchronized void setGain(float gain) {
+            this.gain = Math.max(0f, Math.min(2f, gain));
+            updateGains();
+        }
+
+        /**
+         * Sets the stereo position with a constant-power pan law.
+         *
+         * @param pan from -1 for fully left to 1 for fully right; 0 is centered at unchanged loudness
+         */
+        public synchronized void setPan(float pan) {
+            this.pan = Math.max(-1f, Math.min(1f, pan));
+            updateGains();
+        }
+
+        /**
+         * @return whether the source has run out of samples
+         */
+        public boolean isEnded() {
+            return ended;
+        }
+
+        private void updateGains() {
+            // Centered keeps unity gain on both sides; a full pan moves it all to one side
+            double angle = (pan + 1) * Math.PI / 4;
+            double root2 = Math.sqrt(2);
+            // At most 2.0 per side, so a sample times its gain still fits in an int
+            gainLeft = (int) Math.min(MAX_SIDE_GAIN, Math.round(gain * Math.cos(angle) * root2 * UNITY_GAIN));
+            gainRight = (int) Math.min(MAX_SIDE_GAIN, Math.round(gain * Math.sin(angle) * root2 * UNITY_GAIN));
+            if (pan == 0f) {
+                gainRight = gainLeft;  // Exact, so the single-gain loop is used
+            }
+        }
+    }
+
+    /**
+     * Plays a short array of samples once or in a loop, for example a decoded effect or stem.
+     */
+    public static final class SampleSource implements Source {
+        private final short[] samples;
+        private final boolean loop;
+        private int position = 0;
+
+        /**
+         * @param samples interleaved stereo samples; kept, not copied
+         * @param loop    whether to start again at the end
+         */
+        public SampleSource(short[] samples, boolean loop) {
+            this.samples = samples;
+            this.loop = loop;
+        }
+
+        @Override
+        public int read(short[] buffer, int frames) {
+            int wanted = frames * CHANNELS;
+            int written = 0;
+            while (written < wanted) {
+                int count = Math.min(wanted - written, samples.length - position);
+                if (count <= 0) {
+                    if (!loop || samples.length == 0) {
+                        break;
+                    }
+                    position = 0;
+                    continue;
+                }
+                System.arraycopy(samples, position, buffer, written, count);
+                position += count;
+                written += count;
+            }
+            return written / CHANNELS;
+        }
+    }
+
+    private final int maxFrames;
+    private final int[] accumulator;
+    private final short[] scratch;
+    private volatile Channel[] channels = new Channel[0];
+    private volatile int masterGain = UNITY_GAIN;
+    private int limiterGain = UNITY_GAIN;
+    private long mixedSamples = 0;
+
+    /**
+     * @param maxFrames the most frames one {@link #mix} call will be asked for
+     */
+    public PcmMixer(int maxFrames) {
+        this.maxFrames = maxFrames;
+        this.accumulator = new int[maxFrames * CHANNELS];
+        this.scratch = new short[maxFrames * CHANNELS];
+    }
+
+    /**
+     * Adds a source to the mix, centered at unity gain.
+     *
+     * @param source the source
+     * @return its channel, for gain, pan and {@link #remove}
+     */
+    public synchronized Channel add(Source source) {
+        Channel channel = new Channel(source);
+        Channel[] updated = new Channel[channels.length + 1];
+        System.arraycopy(channels, 0, updated, 0, channels.length);
+        updated[channels.length] = channel;
+        channels = updated;
+        return channel;
+    }
+
+    /**
+     * Removes a channel from the mix. Does nothing if it is not in the mix.
+     *
+     * @param channel the channel returned by {@link #add}
+     */
+    public synchronized void remove(Channel channel) {
+        Channel[] current = channels;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == channel) {
+                Channel[] updated = new Channel[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                channels = updated;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param gain the linear gain of the whole mix, before the limiter; at most 2
+     */
+    public void setMasterGain(float gain) {
+        masterGain = Math.round(Math.max(0f, Math.min(2f, gain)) * UNITY_GAIN);
+    }
+
+    /**
+     * Mixes the next block of every channel. Ended channels stay silent until removed.
+     *
+     * @param out    receives {@code frames * 2} interleaved samples
+     * @param frames the number of frames to mix, at most the {@code maxFrames} of the constructor
+     */
+    public void mix(short[] out, int frames) {
+        if (frames > maxFrames) {
+            throw new IllegalArgumentException("Asked for " + frames + " frames, at most " + maxFrames);
+        }
+        int samples = frames * CHANNELS;
+        int[] acc = accumulator;
+        short[] in = scratch;
+        for (int i = 0; i < samples; i++) {
+            acc[i] = 0;
+        }
+
+        Channel[] mixChannels = channels;
+        for (Channel channel : mixChannels) {
+            if (channel.ended) {
+                continue;
+            }
+            int read = channel.source.read(in, frames);
+            if (read < frames) {
+                channel.ended = true;
+                for (int i = read * CHANNELS; i < samples; i++) {
+                    in[i] = 0;
+                }
+            }
+            int gainLeft = channel.gainLeft;
+            int gainRight = channel.gainRight;
+            if (gainLeft == gainRight) {
+                for (int i = 0; i < samples; i++) {
+                    acc[i] += (in[i] * gainLeft) >> 15;
+                }
+            } else {
+                for (int i = 0; i < samples; i += 2) {
+                    acc[i] += (in[i] * gainLeft) >> 15;
+                    acc[i + 1] += (in[i + 1] * gainRight) >> 15;
+                }
+            }
+        }
+
+        // Limiter: find the peak, drop the gain at once if it would clip, recover over a few blocks
+        int peak = 0;
+        for (int i = 0; i < samples; i++) {
+            peak = Math.max(peak, Math.abs(acc[i]));
+        }
+        long scaledPeak = (long) peak * masterGain >> 15;
+        int gain = limiterGain + ((UNITY_GAIN - limiterGain) >> LIMITER_RELEASE_SHIFT);
+        if (UNITY_GAIN - gain < (1 << LIMITER_RELEASE_SHIFT)) {
+            gain = UNITY_GAIN;  // The last steps of the release would round to nothing
+        }
+        if (scaledPeak > Short.MAX_VALUE) {
+            gain = Math.min(gain, (int) ((long) Short.MAX_VALUE * UNITY_GAIN / scaledPeak));
+        }
+        limiterGain = gain;
+
+        // The limiter keeps |acc| * outputGain below 2^30, so this stays in int arithmetic
+        int outputGain = (int) ((long) masterGain * gain >> 15);
+        for (int i = 0; i < samples; i++) {
+            int sample = (acc[i] * outputGain) >> 15;
+            out[i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, sample));
+        }
+        mixedSamples += samples;
+    }
+
+    /**
+     * @return the number of output samples mixed so far, both channels counted
+     */
+    public long getMixedSampleCount() {
+        return mixedSamples;
+    }
+
+    /**
+     * @return the limiter's current gain in Q15; {@link #UNITY_GAIN} when it is not reducing
+     */
+    public int getLimiterGain() {
+        return limiterGain;
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.tetris_concept;
+
+import android.graphics.drawable.Drawable;
+import android.view.View;
+import android.view.ViewTreeObserver;
+import android.widget.ImageView;
+
+import androidx.lifecycle.ViewTreeLifecycleOwner;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Plays a {@link PetAnimationTable} on one pet {@link ImageView}.
+ * <p>
+ * This is the single engine behind every pet loop: it shows a state, applies its transform and moves
+ * to the state's successor when its duration is up. Each view gets its own controller, so the
+ * home-screen pet and the inventory preview animate independently. The loop is bound to the view: it
+ * stops when the view is detached and picks up again when it is re-attached, and it pauses while the
+ * view is hidden instead of switching animations nobody can see. Steps are scheduled on the
+ * {@link TimerWheel}, so no runnable outlives the screen that owns the view.
+ * </p>
+ *
+ * <p>
+ * Frames come from the pet's {@link SpriteSheet} through one {@link SpriteSheetDrawable} per view, so
+ * a state change only moves an index inside the drawable.
+ * </p>
+ *
+ * <p>
+ * Controllers are kept in a {@link WeakHashMap} keyed by their view, and a controller only holds its
+ * view through a {@link WeakReference}, so the map never keeps a view (or its Activity) alive.
+ * </p>
+ *
+ * @author Aryan Farhang-pour
+ */
+public class PetAnimationController {
+
+    private static final Map<ImageView, PetAnimationController> CONTROLLERS = new WeakHashMap<>();
+
+    private final WeakReference<ImageView> viewRef;  // A strong reference would pin the map key forever
+    private PetAnimationTable table;
+    private int stateIndex;
+    private boolean running = false;  // Started and not stopped, even while paused
+    private TimerWheel.Timeout stepTimeout;
+    private boolean waitingForShow = false;
+
+    private final Runnable stepRunnable = new Runnable() {
+        @Override
+        public void run() {
+            stepTimeout = null;
+            step();
+        }
+    };
+
+    // Resumes a loop paused while hidden as soon as the view is drawn visible again
+    private final ViewTreeObserver.OnPreDrawListener showListener = new ViewTreeObserver.OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+            ImageView view = viewRef.get();
+            if (view != null && view.isShown()) {
+                stopWaitingForShow();
+                step();
+            }
+            return true;
+        }
+    };
+
+    private PetAnimationController(ImageView view) {
+        this.viewRef = new WeakReference<>(view);
+        view.addOnAttachStateChangeListener(new View.OnAttachStateChangeListener() {
+            @Override
+            public void onViewAttachedToWindow(View v) {
+                if (running) {
+                    step();
+                }
+            }
+
+            @Override
+            public void onViewDetachedFromWindow(View v) {
+                pause();
+            }
+        });
+    }
+
+    /**
+     * Returns the controller of a view, creating it on first use.
+     *
+     * @param view the pet view
+     * @return the view's controller
+     */
+    public static PetAnimationController forView(ImageView view) {
+        PetAnimationController controller = CONTROLLERS.get(view);
+        if (controller == null) {
+            controller = new PetAnimationController(view);
+            CONTROLLERS.put(view, controller);
+        }
+        return controller;
+    }
+
+    /**
+     * Starts (or restarts) a table on this view from its first state. Any loop already running on it is
+     * replaced; loops on other views are not touched.
+     *
+     * @param table the pet's table, usually from {@link PetAnimationTable#find(String, String)}
+     */
+    public void play(PetAnimationTable table) {
+        ImageView view = viewRef.get();
+        if (view == null) {
+            return;
+        }
+        pause();
+        this.table = table;
+        this.stateIndex = 0;
+        this.running = true;
+        applyTransform(view, table.pose);
+        step();
+    }
+
+    /**
+     * Looks up the table of a pet on a screen and plays it on this view.
+     *
+     * @param petKey  the pet key, e.g. "FIRE"
+     * @param variant {@link PetAnimationTable#HOME} or {@link PetAnimationTable#PREVIEW}
+     */
+    public void play(String petKey, String variant) {
+        PetAnimationTable table = PetAnimationTable.find(petKey, variant);
+        if (table == null) {
+            System.out.println("No animation table for pet " + petKey + " on " + variant + ".");
+            return;
+        }
+        play(table);
+    }
+
+    /**
+     * Stops the loop on this view. The current frame animation is left as it is.
+     */
+    public void stop() {
+        running = false;
+        pause();
+    }
+
+    /**
+     * @return {@code true} if a loop was started and not stopped, even while paused
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Shows the current state and schedules the next one, or pauses if the view cannot be seen.
+     */
+    private void step() {
+        if (!running || (stepTimeout != null && stepTimeout.isActive())) {
+            return;
+        }
+        ImageView view = viewRef.get();
+        if (view == null) {
+            stop();  // The view is gone with its screen
+            return;
+        }
+        if (!view.isAttachedToWindow()) {
+            return;  // Picked up again in onViewAttachedToWindow
+        }
+        if (!view.isShown()) {
+            waitForShow();
+            return;
+        }
+
+        PetAnimationTable.State state = table.getState(stateIndex);
+        show(view, table.petKey, state);
+        if (table.isStill()) {
+            return;  // Nothing to switch to; the frames keep running on their own
+        }
+        stateIndex = state.next;
+        stepTimeout = TimerWheel.getInstance().schedule(ViewTreeLifecycleOwner.get(view), "petAnimation",
+                state.durationMillis, stepRunnable);
+    }
+
+    /**
+     * Shows a state from the pet's {@link SpriteSheet}. If the view already shows a drawable of the same
+     * sheet only its sequence index changes; nothing is inflated.
+     */
+    private static void show(ImageView view, String petKey, PetAnimationTable.State state) {
+        SpriteSheet sheet = SpriteSheet.forPet(view.getContext(), petKey);
+        Drawable current = view.getDrawable();
+        if (current instanceof SpriteSheetDrawable && ((SpriteSheetDrawable) current).getSheet() == sheet) {
+            ((SpriteSheetDrawable) current).setSequence(state.frameRes);
+        } else {
+            SpriteSheetDrawable drawable = new SpriteSheetDrawable(sheet, state.frameRes);
+            view.setImageDrawable(drawable);
+            drawable.start();
+        }
+        applyTransform(view, state.transform);
+    }
+
+    private static void applyTransform(View view, PetAnimationTable.Transform transform) {
+        if (!Float.isNaN(transform.scaleX)) {
+            view.setScaleX(transform.scaleX);
+        }
+        if (!Float.isNaN(transform.scaleY)) {
+            view.setScaleY(transform.scaleY);
+        }
+        if (!Float.isNaN(transform.translationX)) {
+            view.setTranslationX(transform.translationX);
+        }
+        if (!Float.isNaN(transform.translationY)) {
+            view.setTranslationY(transform.translationY);
+        }
+    }
+
+    private void pause() {
+        if (stepTimeout != null) {
+            stepTimeout.cancel();
+            stepTimeout = null;
+        }
+        stopWaitingForShow();
+    }
+
+    private void waitForShow() {
+        ImageView view = viewRef.get();
+        if (!waitingForShow && view != null) {
+            waitingForShow = true;
+            view.getViewTreeObserver().addOnPreDrawListener(showListener);
+        }
+    }
+
+    private void stopWaitingForShow() {
+        if (waitingForShow) {
+            waitingForShow = false;
+            ImageView view = viewRef.get();
+            if (view != null) {
+                view.getViewTreeObserver().removeOnPreDrawListener(showListener);
+            }
+        }
+    }
+}
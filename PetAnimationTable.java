@@ -0,0 +1,287 @@
+package com.example.tetris_concept;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The looping animation of one pet on one screen, described as data.
+ * <p>
+ * A table is a list of states. Each state names the frame animation to show, the transform to apply
+ * to the view, how long the state lasts and which state comes next. {@link PetAnimationController}
+ * plays any table, so a new pet or a new screen only needs a new table, not a new method.
+ * </p>
+ *
+ * <p>
+ * Tables hold no Android types (drawables are plain resource ids), so they can be checked on the JVM.
+ * The built-in tables are looked up with {@link #find(String, String)}; more can be added with
+ * {@link #register(PetAnimationTable)}.
+ * </p>
+ *
+ * @author Aryan Farhang-pour
+ */
+public final class PetAnimationTable {
+
+    /** Variant shown on the home screen. */
+    public static final String HOME = "HOME";
+
+    /** Variant shown in the inventory dialog preview. */
+    public static final String PREVIEW = "PREVIEW";
+
+    /** Single-state variant of a pet sleeping while its energy refills. */
+    public static final String SLEEP = "SLEEP";
+
+    /** Single-state variant of a pet idling, used for the inventory thumbnails. */
+    public static final String IDLE = "IDLE";
+
+    /** Single-state variant of a pet running. */
+    public static final String RUN = "RUN";
+
+    /**
+     * Variant of the one-off single-state tables built by {@link AnimFunctions}. They are never
+     * registered, so they may only show frames that a registered table of the pet already uses.
+     */
+    public static final String POSE = "POSE";
+
+    /** How long a state is shown unless its table says otherwise, in milliseconds. */
+    public static final long DEFAULT_STATE_MILLIS = 2000;
+
+    /** Transform value meaning "leave this property as it is". */
+    public static final float KEEP = Float.NaN;
+
+    /**
+     * Scale and translation applied to the pet view. {@link #KEEP} leaves a property unchanged.
+     */
+    public static final class Transform {
+
+        /** A transform that changes nothing. */
+        public static final Transform NONE = new Transform(KEEP, KEEP, KEEP, KEEP);
+
+        public final float scaleX;
+        public final float scaleY;
+        public final float translationX;
+        public final float translationY;
+
+        public Transform(float scaleX, float scaleY, float translationX, float translationY) {
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+            this.translationX = translationX;
+            this.translationY = translationY;
+        }
+
+        /**
+         * Creates a transform that only sets the scale.
+         *
+         * @param scaleX the horizontal scale; negative values mirror the pet
+         * @param scaleY the vertical scale
+         * @return the transform
+         */
+        public static Transform scale(float scaleX, float scaleY) {
+            return new Transform(scaleX, scaleY, KEEP, KEEP);
+        }
+    }
+
+    /**
+     * One step of the loop.
+     */
+    public static final class State {
+        public final String name;
+        public final int frameRes;
+        public final Transform transform;
+        public final long durationMillis;
+        public final int next;
+
+        /**
+         * @param name           a short name for logs
+         * @param frameRes       the frame animation drawable to show
+         * @param transform      applied after the frames are set
+         * @param durationMillis how long the state is shown
+         * @param next           the index of the state that follows
+         */
+        public State(String name, int frameRes, Transform transform, long durationMillis, int next) {
+            this.name = name;
+            this.frameRes = frameRes;
+            this.transform = transform;
+            this.durationMillis = durationMillis;
+            this.next = next;
+        }
+    }
+
+    private static final List<PetAnimationTable> TABLES = new ArrayList<>();
+
+    public final String petKey;
+    public final String variant;
+    public final Transform pose;
+    private final State[] states;
+
+    /**
+     * Creates a table and checks that every transition points at a state of this table.
+     *
+     * @param petKey  the pet key, e.g. "FIRE"
+     * @param variant {@link #HOME}, {@link #PREVIEW} or any other screen name
+     * @param pose    applied once when the table starts playing
+     * @param states  the states; playing starts with the first one
+     */
+    public PetAnimationTable(String petKey, String variant, Transform pose, State... states) {
+        if (states.length == 0) {
+            throw new IllegalArgumentException("A pet animation table needs at least one state");
+        }
+        for (State state : states) {
+            if (state.next < 0 || state.next >= states.length) {
+                throw new IllegalArgumentException("State " + state.name + " of " + petKey + " goes to unknown state " + state.next);
+            }
+            if (state.durationMillis <= 0) {
+                throw new IllegalArgumentException("State " + state.name + " of " + petKey + " must last longer than 0 ms");
+            }
+        }
+        this.petKey = petKey;
+        this.variant = variant;
+        this.pose = pose;
+        this.states = states.clone();
+    }
+
+    /**
+     * @return the number of states
+     */
+    public int getStateCount() {
+        return states.length;
+    }
+
+    /**
+     * @param index the state index
+     * @return the state
+     */
+    public State getState(int index) {
+        return states[index];
+    }
+
+    /**
+     * Adds a table, replacing any table for the same pet and variant.
+     *
+     * @param table the table to add
+     */
+    public static synchronized void register(PetAnimationTable table) {
+        for (int i = 0; i < TABLES.size(); i++) {
+            PetAnimationTable existing = TABLES.get(i);
+            if (existing.petKey.equals(table.petKey) && existing.variant.equals(table.variant)) {
+                TABLES.set(i, table);
+                return;
+            }
+        }
+        TABLES.add(table);
+    }
+
+    /**
+     * Looks up the table of a pet on a screen.
+     *
+     * @param petKey  the pet key, e.g. "FIRE"
+     * @param variant {@link #HOME}, {@link #PREVIEW} or another registered variant
+     * @return the table, or {@code null} if there is none
+     */
+    public static synchronized PetAnimationTable find(String petKey, String variant) {
+        for (PetAnimationTable table : TABLES) {
+            if (table.petKey.equals(petKey) && table.variant.equals(variant)) {
+                return table;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lists every frame animation used by any table of a pet, each once. This is what goes into the
+     * pet's {@link SpriteSheet}.
+     *
+     * @param petKey the pet key, e.g. "FIRE"
+     * @return the frame animation resource ids
+     */
+    public static synchronized int[] getFrameResources(String petKey) {
+        List<Integer> frameResources = new ArrayList<>();
+        for (PetAnimationTable table : TABLES) {
+            if (table.petKey.equals(petKey)) {
+                for (State state : table.states) {
+                    if (!frameResources.contains(state.frameRes)) {
+                        frameResources.add(state.frameRes);
+                    }
+                }
+            }
+        }
+        int[] result = new int[frameResources.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = frameResources.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * @return {@code true} if the table is a single state that never changes
+     */
+    public boolean isStill() {
+        return states.length == 1;
+    }
+
+    private static State state(String name, int frameRes, Transform transform, int next) {
+        return new State(name, frameRes, transform, DEFAULT_STATE_MILLIS, next);
+    }
+
+    // Built-in pets ______________________________________________________________________________
+
+    static {
+        Transform foxScale = Transform.scale(-0.8f, 0.8f);
+        Transform squirrelScale = Transform.scale(-1.7f, 1.7f);
+        Transform squirrelPreview = new Transform(-2.5f, 2.5f, -30f, -30f);
+
+        register(new PetAnimationTable("FIRE", HOME, new Transform(-1.0f, 1.0f, 0f, 30f),
+                state("run", R.drawable.fire_run_frame_animation, Transform.NONE, 1),
+                state("idle", R.drawable.fire_idle_frame_animation, Transform.NONE, 2),
+                state("shot", R.drawable.fire_shot_frame_animation, Transform.NONE, 3),
+                state("hurt", R.drawable.fire_hurt_frame_animation, Transform.NONE, 0)));
+        register(new PetAnimationTable("FIRE", PREVIEW, new Transform(-1.4f, 1.4f, 0f, -50f),
+                state("run", R.drawable.fire_run_frame_animation, Transform.NONE, 1),
+                state("idle", R.drawable.fire_idle_frame_animation, Transform.NONE, 2),
+                state("shot", R.drawable.fire_shot_frame_animation, Transform.NONE, 3),
+                state("hurt", R.drawable.fire_hurt_frame_animation, Transform.NONE, 0)));
+
+        register(new PetAnimationTable("FOX", HOME, new Transform(-0.8f, 0.8f, 0f, 30f),
+                state("run", R.drawable.fox_run_frame_animation, Transform.NONE, 1),
+                state("idle", R.drawable.fox_idle_frame_animation, foxScale, 2),
+                state("shot", R.drawable.fox_shot_frame_animation, Transform.NONE, 3),
+                state("hurt", R.drawable.fox_hurt_frame_animation, Transform.NONE, 0)));
+        register(new PetAnimationTable("FOX", PREVIEW, new Transform(-1.16f, 1.16f, 0f, -30f),
+                state("run", R.drawable.fox_run_frame_animation, Transform.NONE, 1),
+                state("idle", R.drawable.fox_idle_frame_animation, Transform.NONE, 2),
+                state("shot", R.drawable.fox_shot_frame_animation, Transform.NONE, 3),
+                state("hurt", R.drawable.fox_hurt_frame_animation, Transform.NONE, 0)));
+
+        register(new PetAnimationTable("SQUIRREL", HOME, new Transform(-1.7f, 1.7f, 0f, 0f),
+                state("sleep", R.drawable.squirrel_sleep_frame_animation, squirrelScale, 1),
+                state("idle", R.drawable.squirrel_idle_frame_animation, squirrelScale, 2),
+                state("shot", R.drawable.squirrel_shot_frame_animation, squirrelScale, 3),
+                state("hurt", R.drawable.squirrel_hurt_frame_animation, squirrelScale, 0)));
+        register(new PetAnimationTable("SQUIRREL", PREVIEW, new Transform(-2.5f, 2.5f, 30f, -30f),
+                state("sleep", R.drawable.squirrel_sleep_frame_animation, squirrelPreview, 1),
+                state("idle", R.drawable.squirrel_idle_frame_animation, squirrelPreview, 2),
+                state("shot", R.drawable.squirrel_shot_frame_animation, new Transform(-1.7f, 1.7f, -30f, KEEP), 3),
+                state("hurt", R.drawable.squirrel_hurt_frame_animation, new Transform(-2.5f, 2.5f, -30f, 30f), 0)));
+
+        // A single state pointing at itself is shown once and left running
+        register(new PetAnimationTable("FIRE", SLEEP, Transform.NONE,
+                state("sleep", R.drawable.fire_sleep_frame_animation, new Transform(KEEP, KEEP, 50f, KEEP), 0)));
+        register(new PetAnimationTable("FOX", SLEEP, Transform.NONE,
+                state("sleep", R.drawable.fox_sleep_frame_animation, new Transform(-0.8f, 0.8f, 30f, 30f), 0)));
+        register(new PetAnimationTable("SQUIRREL", SLEEP, Transform.NONE,
+                state("sleep", R.drawable.squirrel_sleep_frame_animation, squirrelScale, 0)));
+
+        register(new PetAnimationTable("FIRE", IDLE, Transform.NONE,
+                state("idle", R.drawable.fire_idle_frame_animation, Transform.NONE, 0)));
+        register(new PetAnimationTable("FOX", IDLE, Transform.NONE,
+                state("idle", R.drawable.fox_idle_frame_animation, foxScale, 0)));
+        register(new PetAnimationTable("SQUIRREL", IDLE, Transform.NONE,
+                state("idle", R.drawable.squirrel_idle_frame_animation, squirrelScale, 0)));
+
+        register(new PetAnimationTable("FIRE", RUN, Transform.NONE,
+                state("run", R.drawable.fire_run_frame_animation, Transform.NONE, 0)));
+        register(new PetAnimationTable("FOX", RUN, Transform.NONE,
+                state("run", R.drawable.fox_run_frame_animation, Transform.NONE, 0)));
+        register(new PetAnimationTable("SQUIRREL", RUN, Transform.NONE,
+                state("run", R.drawable.squirrel_run_frame_animation, Transform.NONE, 0)));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.tetris_concept;
+
+/**
+ * An immutable snapshot of one pet's record: its name and its HP, FO, MA and VI stats.
+ * <p>
+ * Records are produced by {@link PetRepository#getRecord(int)}. Screens that refresh often
+ * should prefer {@link PetRepository#readInto(int, Holder)} with a reused {@link Holder}.
+ * </p>
+ *
+ * @author Eric
+ */
+public final class PetRecord {
+
+    /** The small integer id of the pet inside {@link PetRepository}. */
+    public final int id;
+
+    /** The pet's key, e.g. "FIRE", "FOX" or "SQUIRREL". */
+    public final String key;
+
+    /** The name the player gave to the pet. */
+    public final String name;
+
+    /** Health points. */
+    public final double hp;
+
+    /** Food points. */
+    public final double fo;
+
+    /** Magic points. */
+    public final double ma;
+
+    /** Vibe points. */
+    public final double vi;
+
+    PetRecord(int id, String key, String name, double hp, double fo, double ma, double vi) {
+        this.id = id;
+        this.key = key;
+        this.name = name;
+        this.hp = hp;
+        this.fo = fo;
+        this.ma = ma;
+        this.vi = vi;
+    }
+
+    /**
+     * Formats a stat for display without losing any of its value: whole numbers without a fraction,
+     * and values kept as {@code float} by {@link Storage} the way {@link Float#toString(float)} shows them.
+     *
+     * @param value the stat value
+     * @return the text to show
+     */
+    public static String formatStat(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return String.valueOf((long) value);
+        }
+        float asFloat = (float) value;
+        if (asFloat == value) {
+            return String.valueOf(asFloat);  // 12.1f widened to double would otherwise show 12.100000381469727
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * A mutable record that {@link PetRepository} fills in place, so repeated reads allocate nothing.
+     */
+    public static final class Holder {
+        /** The small integer id of the pet inside {@link PetRepository}. */
+        public int id;
+        /** The pet's key, e.g. "FIRE". */
+        public String key;
+        /** The name the player gave to the pet. */
+        public String name;
+        /** Health points. */
+        public double hp;
+        /** Food points. */
+        public double fo;
+        /** Magic points. */
+        public double ma;
+        /** Vibe points. */
+        public double vi;
+    }
+}
@@ -0,0 +1,561 @@
+package com.example.tetris_concept;
+
+import android.content.Context;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Arrays;
+
+/**
+ * Typed storage for every pet's name and stats.
+ * <p>
+ * All records live in one packed {@code double[]} (four stats per pet) indexed by a small integer
+ * pet id, with the names in a parallel array. The table is loaded once per process and every read
+ * is served from memory; a write saves only the record it changed.
+ * </p>
+ *
+ * <p>
+ * Pets are identified by their key ("FIRE", "FOX", "SQUIRREL"). A new pet only needs a call to
+ * {@link #registerPet(String, String, double, double, double, double)}; no new accessors are required.
+ * </p>
+ *
+ * <p>
+ * Each stat is stored as its last value plus the time it was written, and regenerates lazily up to
+ * the cap and at the rate of the {@link RegenBucket} set for that stat: reads compute the current
+ * value in closed form, so nothing ticks in the background. Every stat regenerates by default;
+ * {@link #setRegen(int, RegenBucket)} changes the cap and rate.
+ * </p>
+ *
+ * <p>
+ * The three original pets used to be kept only in {@link Storage}. Their values are imported into the
+ * table once, the first time this version runs, and from then on the table is the source of truth:
+ * game code reads and writes them here. Names are still copied back to {@link Storage} for the
+ * screens that read them there, and writes that older game code still makes to {@link Storage} are
+ * followed through {@link StorageObserver} as they happen, the way {@link EnergyRefillScheduler}
+ * follows the energy.
+ * </p>
+ *
+ * <p>
+ * Only {@link #getInstance(Context)} touches Android: the repository saves its table in a
+ * {@link KeyValueStore} and reaches {@link Storage} through {@link StoredPets}, so it also runs on
+ * the JVM.
+ * </p>
+ *
+ * @author Eric
+ */
+public class PetRepository {
+
+    /** Index of the HP stat inside a record. */
+    static final int STAT_HP = 0;
+    /** Index of the FO stat inside a record. */
+    static final int STAT_FO = 1;
+    /** Index of the MA stat inside a record. */
+    static final int STAT_MA = 2;
+    /** Index of the VI stat inside a record. */
+    static final int STAT_VI = 3;
+    /** Number of stats stored per pet. */
+    static final int STAT_COUNT = 4;
+
+    /** Keys of the original pets, imported from {@link Storage}; they always have ids 0 to 2. */
+    static final String[] STORAGE_PETS = {"FIRE", "FOX", "SQUIRREL"};
+
+    /** Cap every stat regenerates to by default. */
+    static final int STAT_CAP = 100;
+
+    /** Version of the saved table; older versions are migrated when the repository is created. */
+    static final int VERSION = 2;
+
+    private static final String PREFS_NAME = "pet_repository";
+    private static final String KEY_VERSION = "petRecordsVersion";
+    private static final String KEY_RECORDS = "petRecords";  // Version 1: every added pet as one JSON value
+    private static final String KEY_PET_COUNT = "petCount";
+
+    /**
+     * The per-pet values game code keeps in {@link Storage} for the original pets.
+     */
+    interface StoredPets {
+        /**
+         * @param petKey one of {@link PetRepository#STORAGE_PETS}
+         * @return the name game code last saw
+         */
+        String getName(String petKey);
+
+        /**
+         * @param petKey one of {@link PetRepository#STORAGE_PETS}
+         * @param name   the name for game code to see
+         */
+        void setName(String petKey, String name);
+
+        /**
+         * @param petKey one of {@link PetRepository#STORAGE_PETS}
+         * @param stat   one of {@link PetRepository#STAT_HP}, {@link PetRepository#STAT_FO},
+         *               {@link PetRepository#STAT_MA} or {@link PetRepository#STAT_VI}
+         * @return the stat game code last saw
+         */
+        double getStat(String petKey, int stat);
+    }
+
+    private static PetRepository instance;
+
+    private final KeyValueStore preferences;
+    private final StoredPets storedPets;
+
+    private String[] keys = new String[4];
+    private String[] names = new String[4];
+    private double[] stats = new double[4 * STAT_COUNT];
+    private long[] stamps = new long[4 * STAT_COUNT];
+    private int petCount = 0;
+
+    // Indexed by stat; the same cap and rate for every pet
+    private final RegenBucket[] regen = {
+            RegenBucket.perHour(STAT_CAP, 10),  // HP
+            RegenBucket.perHour(STAT_CAP, 5),   // FO
+            RegenBucket.perHour(STAT_CAP, 5),   // MA
+            RegenBucket.perHour(STAT_CAP, 10)   // VI
+    };
+
+    // What Storage holds for the original pets, as last written or seen
+    private final String[] storedNames = new String[STORAGE_PETS.length];
+    private final double[] storedStats = new double[STORAGE_PETS.length * STAT_COUNT];
+
+    // Older game code writes Storage directly; follow its pet writes as they happen
+    private final StorageObserver.OnValueChangedListener storageListener = (key, newValue) -> {
+        if (!StorageObserver.KEY_GAME_ENERGY.equals(key)) {  // Written every game; never a pet value
+            onStorageChanged();
+        }
+    };
+
+    /**
+     * Creates a repository. The app uses {@link #getInstance(Context)}; tests pass in-memory values.
+     *
+     * @param preferences where the repository keeps its table
+     * @param storedPets  the values shared with game code
+     */
+    PetRepository(KeyValueStore preferences, StoredPets storedPets) {
+        this.preferences = preferences;
+        this.storedPets = storedPets;
+        if (preferences.getInt(KEY_VERSION, 1) < VERSION) {
+            migrate();
+        } else {
+            load();
+            onStorageChanged();  // Catch writes made while no repository was listening
+        }
+    }
+
+    /**
+     * Returns the process-wide repository, loading it on first use.
+     *
+     * @param context any context; only the application context is retained
+     * @return the shared {@code PetRepository}
+     */
+    public static synchronized PetRepository getInstance(Context context) {
+        if (instance == null) {
+            final Storage appStorage = new Storage(context.getApplicationContext());
+            instance = new PetRepository(new PreferencesStore(context, PREFS_NAME), new StoredPets() {
+                @Override
+                public String getName(String petKey) {
+                    switch (petKey) {
+                        case "FIRE":
+                            return appStorage.getFirePetName();
+                        case "FOX":
+                            return appStorage.getFoxPetName();
+                        default:
+                            return appStorage.getSquirrelPetName();
+                    }
+                }
+
+                @Override
+                public void setName(String petKey, String name) {
+                    switch (petKey) {
+                        case "FIRE":
+                            appStorage.setFirePetName(name);
+                            break;
+                        case "FOX":
+                            appStorage.setFoxPetName(name);
+                            break;
+                        default:
+                            appStorage.setSquirrelPetName(name);
+                            break;
+                    }
+                }
+
+                @Override
+                public double getStat(String petKey, int stat) {
+                    switch (petKey) {
+                        case "FIRE":
+                            return stat == STAT_HP ? appStorage.getFirePetHP() : stat == STAT_FO ? appStorage.getFirePetFO()
+                                    : stat == STAT_MA ? appStorage.getFirePetMA() : appStorage.getFirePetVI();
+                        case "FOX":
+                            return stat == STAT_HP ? appStorage.getFoxPetHP() : stat == STAT_FO ? appStorage.getFoxPetFO()
+                                    : stat == STAT_MA ? appStorage.getFoxPetMA() : appStorage.getFoxPetVI();
+                        default:
+                            return stat == STAT_HP ? appStorage.getSquirrelPetHP() : stat == STAT_FO ? appStorage.getSquirrelPetFO()
+                                    : stat == STAT_MA ? appStorage.getSquirrelPetMA() : appStorage.getSquirrelPetVI();
+                    }
+                }
+            });
+            StorageObserver.getInstance(context).subscribe(StorageObserver.ANY_KEY, instance.storageListener);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the number of pets in the repository. Valid ids are {@code 0} to {@code getPetCount() - 1}.
+     *
+     * @return the pet count
+     */
+    public synchronized int getPetCount() {
+        return petCount;
+    }
+
+    /**
+     * Looks up the id of a pet by its key.
+     *
+     * @param petKey the pet key, e.g. "FIRE"
+     * @return the pet id, or {@code -1} if no pet has that key
+     */
+    public synchronized int idOf(String petKey) {
+        for (int id = 0; id < petCount; id++) {
+            if (keys[id].equals(petKey)) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the key of a pet.
+     *
+     * @param id the pet id
+     * @return the pet key
+     */
+    public synchronized String keyOf(int id) {
+        checkId(id);
+        return keys[id];
+    }
+
+    /**
+     * Adds a pet to the repository if it is not there yet.
+     *
+     * @param petKey the unique pet key
+     * @param name   the initial name
+     * @param hp     initial health points
+     * @param fo     initial food points
+     * @param ma     initial magic points
+     * @param vi     initial vibe points
+     * @return the id of the pet, existing or new
+     */
+    public synchronized int registerPet(String petKey, String name, double hp, double fo, double ma, double vi) {
+        int existing = idOf(petKey);
+        if (existing >= 0) {
+            return existing;
+        }
+        int id = append(petKey, name, hp, fo, ma, vi);
+        savePet(id);
+        preferences.putInt(KEY_PET_COUNT, petCount);
+        return id;
+    }
+
+    /**
+     * Copies a whole record into a reusable holder. Allocates nothing.
+     *
+     * @param id     the pet id
+     * @param holder the holder to fill
+     */
+    public synchronized void readInto(int id, PetRecord.Holder holder) {
+        checkId(id);
+        long now = AppClock.get().currentTimeMillis();
+        holder.id = id;
+        holder.key = keys[id];
+        holder.name = names[id];
+        holder.hp = statAt(id, STAT_HP, now);
+        holder.fo = statAt(id, STAT_FO, now);
+        holder.ma = statAt(id, STAT_MA, now);
+        holder.vi = statAt(id, STAT_VI, now);
+    }
+
+    /**
+     * Returns a whole record as an immutable value.
+     *
+     * @param id the pet id
+     * @return the pet's record
+     */
+    public synchronized PetRecord getRecord(int id) {
+        checkId(id);
+        long now = AppClock.get().currentTimeMillis();
+        return new PetRecord(id, keys[id], names[id], statAt(id, STAT_HP, now), statAt(id, STAT_FO, now),
+                statAt(id, STAT_MA, now), statAt(id, STAT_VI, now));
+    }
+
+    /**
+     * Returns the name of a pet.
+     *
+     * @param id the pet id
+     * @return the pet name
+     */
+    public synchronized String getName(int id) {
+        checkId(id);
+        return names[id];
+    }
+
+    /**
+     * Renames a pet and saves its record. The original pets' names are copied to {@link Storage} too.
+     *
+     * @param id   the pet id
+     * @param name the new name
+     */
+    public synchronized void setName(int id, String name) {
+        checkId(id);
+        if (name.equals(names[id])) {
+            return;
+        }
+        names[id] = name;
+        if (id < STORAGE_PETS.length) {
+            storedNames[id] = name;  // Set first, so the change notification is not taken as a game write
+            storedPets.setName(keys[id], name);
+        }
+        savePet(id);
+    }
+
+    /**
+     * Returns one stat of a pet, regenerated up to now.
+     *
+     * @param id   the pet id
+     * @param stat one of {@link #STAT_HP}, {@link #STAT_FO}, {@link #STAT_MA} or {@link #STAT_VI}
+     * @return the stat value
+     */
+    public synchronized double getStat(int id, int stat) {
+        checkId(id);
+        return statAt(id, stat, AppClock.get().currentTimeMillis());
+    }
+
+    /**
+     * Updates one stat of a pet and saves its record. The stat regenerates from the new value.
+     *
+     * @param id    the pet id
+     * @param stat  one of {@link #STAT_HP}, {@link #STAT_FO}, {@link #STAT_MA} or {@link #STAT_VI}
+     * @param value the new value
+     */
+    public synchronized void setStat(int id, int stat, double value) {
+        checkId(id);
+        int index = id * STAT_COUNT + stat;
+        stats[index] = value;
+        stamps[index] = AppClock.get().currentTimeMillis();
+        savePet(id);
+    }
+
+    /**
+     * Adds to (or, with a negative amount, spends from) a stat, starting from its regenerated value.
+     * The progress toward the next regenerated unit is kept.
+     *
+     * @param id     the pet id
+     * @param stat   one of {@link #STAT_HP}, {@link #STAT_FO}, {@link #STAT_MA} or {@link #STAT_VI}
+     * @param amount the amount to add
+     * @return the new value
+     */
+    public synchronized double addToStat(int id, int stat, double amount) {
+        checkId(id);
+        int index = id * STAT_COUNT + stat;
+        long now = AppClock.get().currentTimeMillis();
+        RegenBucket bucket = regen[stat];
+        double current = bucket.valueAt(stats[index], stamps[index], now);
+        stamps[index] = bucket.rebase(stats[index], stamps[index], now);
+        stats[index] = current + amount;
+        savePet(id);
+        return stats[index];
+    }
+
+    /**
+     * Sets how a stat regenerates for every pet. Values already stored are not changed.
+     *
+     * @param stat   one of {@link #STAT_HP}, {@link #STAT_FO}, {@link #STAT_MA} or {@link #STAT_VI}
+     * @param bucket the cap and rate, or {@link RegenBucket#STATIC} for no regeneration
+     */
+    public synchronized void setRegen(int stat, RegenBucket bucket) {
+        regen[stat] = bucket;
+    }
+
+    /**
+     * Records writes that game code made to the original pets in {@link Storage}. Called for every
+     * change to {@link Storage}; a value that differs from the one last seen there is a game write.
+     */
+    synchronized void onStorageChanged() {
+        long now = AppClock.get().currentTimeMillis();
+        for (int id = 0; id < STORAGE_PETS.length; id++) {
+            boolean changed = false;
+            String name = storedPets.getName(keys[id]);
+            if (name != null && !name.equals(storedNames[id])) {
+                storedNames[id] = name;
+                names[id] = name;
+                changed = true;
+            }
+            for (int stat = 0; stat < STAT_COUNT; stat++) {
+                int index = id * STAT_COUNT + stat;
+                double value = storedPets.getStat(keys[id], stat);
+                if (value != storedStats[index]) {
+                    storedStats[index] = value;
+                    stats[index] = value;
+                    stamps[index] = now;
+                    changed = true;
+                }
+            }
+            if (changed) {
+                savePet(id);
+            }
+        }
+    }
+
+    // Computes a stat's current value from its last value, timestamp and regeneration rate
+    private double statAt(int id, int stat, long now) {
+        int index = id * STAT_COUNT + stat;
+        return regen[stat].valueAt(stats[index], stamps[index], now);
+    }
+
+    // Loading and saving ____________________________________________________________________
+
+    private int append(String petKey, String name, double hp, double fo, double ma, double vi) {
+        if (petCount == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            names = Arrays.copyOf(names, capacity);
+            stats = Arrays.copyOf(stats, capacity * STAT_COUNT);
+            stamps = Arrays.copyOf(stamps, capacity * STAT_COUNT);
+        }
+        int id = petCount++;
+        int base = id * STAT_COUNT;
+        keys[id] = petKey;
+        names[id] = name;
+        stats[base + STAT_HP] = hp;
+        stats[base + STAT_FO] = fo;
+        stats[base + STAT_MA] = ma;
+        stats[base + STAT_VI] = vi;
+        Arrays.fill(stamps, base, base + STAT_COUNT, AppClock.get().currentTimeMillis());
+        return id;
+    }
+
+    /**
+     * Builds the table from an older version: the original pets from {@link Storage} and the added
+     * pets from the version 1 JSON value. Runs once; the table is saved in the current version.
+     */
+    private void migrate() {
+        for (int id = 0; id < STORAGE_PETS.length; id++) {
+            String petKey = STORAGE_PETS[id];
+            String name = storedPets.getName(petKey);
+            append(petKey, name, storedPets.getStat(petKey, STAT_HP), storedPets.getStat(petKey, STAT_FO),
+                    storedPets.getStat(petKey, STAT_MA), storedPets.getStat(petKey, STAT_VI));
+            storedNames[id] = name;
+            System.arraycopy(stats, id * STAT_COUNT, storedStats, id * STAT_COUNT, STAT_COUNT);
+        }
+        String saved = preferences.getString(KEY_RECORDS, null);
+        if (saved != null) {
+            try {
+                JSONArray records = new JSONArray(saved);
+                for (int i = 0; i < records.length(); i++) {
+                    JSONObject record = records.getJSONObject(i);
+                    String petKey = record.getString("key");
+                    if (idOf(petKey) >= 0) {
+                        continue;  // An original pet; Storage has its current values
+                    }
+                    JSONArray values = record.getJSONArray("stats");
+                    append(petKey, record.getString("name"), values.getDouble(STAT_HP),
+                            values.getDouble(STAT_FO), values.getDouble(STAT_MA), values.getDouble(STAT_VI));
+                }
+            } catch (JSONException e) {
+                System.out.println("Error reading pet records.");
+                e.printStackTrace();
+            }
+        }
+        for (int id = 0; id < petCount; id++) {
+            savePet(id);
+        }
+        preferences.putInt(KEY_PET_COUNT, petCount);
+        preferences.putInt(KEY_VERSION, VERSION);
+    }
+
+    private void load() {
+        int count = preferences.getInt(KEY_PET_COUNT, 0);
+        for (int id = 0; id < count; id++) {
+            String prefix = "pet" + id + ".";
+            String petKey = preferences.getString(prefix + "key", null);
+            if (petKey == null) {
+                System.out.println("Error reading pet records.");
+                break;
+            }
+            double[] values = parseStats(preferences.getString(prefix + "stats", null));
+            append(petKey, preferences.getString(prefix + "name", null),
+                    values[STAT_HP], values[STAT_FO], values[STAT_MA], values[STAT_VI]);
+            String times = preferences.getString(prefix + "stamps", null);
+            if (times != null) {
+                String[] parts = times.split(",");
+                for (int stat = 0; stat < STAT_COUNT && stat < parts.length; stat++) {
+                    try {
+                        stamps[id * STAT_COUNT + stat] = Long.parseLong(parts[stat]);
+                    } catch (NumberFormatException e) {
+                        System.out.println("Error reading pet stat times.");
+                        e.printStackTrace();
+                    }
+                }
+            }
+            if (id < STORAGE_PETS.length) {
+                storedNames[id] = preferences.getString(prefix + "storedName", null);
+                System.arraycopy(parseStats(preferences.getString(prefix + "storedStats", null)), 0,
+                        storedStats, id * STAT_COUNT, STAT_COUNT);
+            }
+        }
+    }
+
+    private void savePet(int id) {
+        String prefix = "pet" + id + ".";
+        preferences.putString(prefix + "key", keys[id]);
+        preferences.putString(prefix + "name", names[id]);
+        preferences.putString(prefix + "stats", joinStats(stats, id * STAT_COUNT));
+        StringBuilder times = new StringBuilder();
+        for (int stat = 0; stat < STAT_COUNT; stat++) {
+            if (stat > 0) {
+                times.append(',');
+            }
+            times.append(stamps[id * STAT_COUNT + stat]);
+        }
+        preferences.putString(prefix + "stamps", times.toString());
+        if (id < STORAGE_PETS.length) {
+            preferences.putString(prefix + "storedName", storedNames[id]);
+            preferences.putString(prefix + "storedStats", joinStats(storedStats, id * STAT_COUNT));
+        }
+    }
+
+    private static String joinStats(double[] values, int base) {
+        StringBuilder text = new StringBuilder();
+        for (int stat = 0; stat < STAT_COUNT; stat++) {
+            if (stat > 0) {
+                text.append(',');
+            }
+            text.append(values[base + stat]);
+        }
+        return text.toString();
+    }
+
+    private static double[] parseStats(String text) {
+        double[] values = new double[STAT_COUNT];
+        if (text == null) {
+            return values;
+        }
+        String[] parts = text.split(",");
+        for (int stat = 0; stat < STAT_COUNT && stat < parts.length; stat++) {
+            try {
+                values[stat] = Double.parseDouble(parts[stat]);
+            } catch (NumberFormatException e) {
+                System.out.println("Error reading pet stats.");
+                e.printStackTrace();
+            }
+        }
+        return values;
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= petCount) {
+            throw new IllegalArgumentException("Unknown pet id: " + id);
+        }
+    }
+}
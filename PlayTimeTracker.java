@@ -0,0 +1,188 @@
+package com.example.tetris_concept;
+
+import android.content.Context;
+
+/**
+ * Adds up the time spent playing games, shown as "total time played" by {@link SettingsFragment}.
+ * <p>
+ * The game screen calls {@link #startPlaying()} when a game starts and {@link #stopPlaying()} when it
+ * ends or is left. A game is timed on the monotonic {@link AppClock} clock, so changing the device time
+ * during a game does not change how long it lasted. The total is kept in milliseconds in a
+ * {@link KeyValueStore}; a game cut short by the process dying is not counted.
+ * </p>
+ *
+ * <p>
+ * The total is still written to {@link Storage} in minutes for the screens that read it there. On
+ * first use the minutes already in {@link Storage} are imported, and a value that game code writes
+ * there directly is taken over the next time the total is read, the way {@link EnergyRefillScheduler}
+ * follows the energy.
+ * </p>
+ *
+ * <p>
+ * Only {@link #getInstance(Context)} touches Android: the total is kept in a {@link KeyValueStore} and
+ * {@link Storage} is reached through {@link PlayedTime}, so play time also adds up on the JVM against a
+ * {@link VirtualClock}.
+ * </p>
+ *
+ * <p><strong>Author:</strong> Alex</p>
+ */
+public class PlayTimeTracker {
+
+    /** Milliseconds in one of the minutes {@link Storage} counts in. */
+    static final long MINUTE_MILLIS = 60L * 1000L;
+
+    private static final String PREFS_NAME = "play_time";
+    private static final String KEY_PLAYED_MILLIS = "playedMillis";
+    private static final String KEY_STORED_MINUTES = "storedMinutes";
+
+    /**
+     * The total play time game code shares through {@link Storage}, in minutes.
+     */
+    interface PlayedTime {
+        /**
+         * @return the total play time in minutes game code last saw
+         */
+        float getTotalPlayedTime();
+
+        /**
+         * @param minutes the total play time in minutes for game code to see
+         */
+        void setTotalPlayedTime(float minutes);
+    }
+
+    private static PlayTimeTracker instance;
+
+    private final KeyValueStore preferences;
+    private final PlayedTime playedTime;
+    private long playedMillis;
+    private float storedMinutes;  // The minutes Storage holds, as last written or seen
+    private long gameStartUptime = -1;
+
+    /**
+     * Creates a tracker. The app uses {@link #getInstance(Context)}; tests pass in-memory values.
+     *
+     * @param preferences where the total is kept
+     * @param playedTime  the total shared with game code
+     */
+    PlayTimeTracker(KeyValueStore preferences, PlayedTime playedTime) {
+        this.preferences = preferences;
+        this.playedTime = playedTime;
+        if (preferences.contains(KEY_PLAYED_MILLIS)) {
+            playedMillis = preferences.getLong(KEY_PLAYED_MILLIS, 0);
+            storedMinutes = Float.intBitsToFloat(preferences.getInt(KEY_STORED_MINUTES, 0));
+        } else {
+            // First run: start from the minutes game code kept so far
+            storedMinutes = playedTime.getTotalPlayedTime();
+            playedMillis = Math.round(storedMinutes * (double) MINUTE_MILLIS);
+            save();
+        }
+    }
+
+    /**
+     * Returns the app-wide tracker.
+     *
+     * @param context any context; only the application context is retained
+     * @return the shared {@code PlayTimeTracker}
+     */
+    public static synchronized PlayTimeTracker getInstance(Context context) {
+        if (instance == null) {
+            final Storage appStorage = new Storage(context.getApplicationContext());
+            instance = new PlayTimeTracker(new PreferencesStore(context, PREFS_NAME), new PlayedTime() {
+                @Override
+                public float getTotalPlayedTime() {
+                    return appStorage.getTotalPlayedTime();
+                }
+
+                @Override
+                public void setTotalPlayedTime(float minutes) {
+                    appStorage.setTotalPlayedTime(minutes);
+                }
+            });
+        }
+        return instance;
+    }
+
+    /**
+     * Starts timing a game. Does nothing if a game is already being timed.
+     */
+    public synchronized void startPlaying() {
+        if (gameStartUptime < 0) {
+            gameStartUptime = AppClock.get().uptimeMillis();
+        }
+    }
+
+    /**
+     * Stops timing the current game and adds it to the total. Does nothing if no game is being timed.
+     */
+    public synchronized void stopPlaying() {
+        if (gameStartUptime < 0) {
+            return;
+        }
+        followStorage();
+        playedMillis += AppClock.get().uptimeMillis() - gameStartUptime;
+        gameStartUptime = -1;
+        save();
+    }
+
+    /**
+     * @return whether a game is being timed
+     */
+    public synchronized boolean isPlaying() {
+        return gameStartUptime >= 0;
+    }
+
+    /**
+     * Returns the total play time, including the game being timed.
+     *
+     * @return the total in milliseconds
+     */
+    public synchronized long getTotalPlayedMillis() {
+        followStorage();
+        long total = playedMillis;
+        if (gameStartUptime >= 0) {
+            total += AppClock.get().uptimeMillis() - gameStartUptime;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the total play time in the unit {@link Storage} and the settings screen use.
+     *
+     * @return the total in minutes
+     */
+    public float getTotalPlayedMinutes() {
+        return (float) ((double) getTotalPlayedMillis() / MINUTE_MILLIS);
+    }
+
+    /**
+     * Sets the total back to 0. A game being timed goes on counting from now.
+     */
+    public synchronized void reset() {
+        playedMillis = 0;
+        if (gameStartUptime >= 0) {
+            gameStartUptime = AppClock.get().uptimeMillis();
+        }
+        save();
+    }
+
+    /**
+     * Takes over a total that game code wrote to {@link Storage} directly since it was last seen.
+     */
+    private void followStorage() {
+        float minutes = playedTime.getTotalPlayedTime();
+        if (minutes != storedMinutes) {
+            storedMinutes = minutes;
+            playedMillis = Math.round(minutes * (double) MINUTE_MILLIS);
+        }
+    }
+
+    private void save() {
+        preferences.putLong(KEY_PLAYED_MILLIS, playedMillis);
+        float minutes = (float) ((double) playedMillis / MINUTE_MILLIS);
+        if (minutes != storedMinutes) {
+            storedMinutes = minutes;  // Set first, so the write is not taken for one made by game code
+            playedTime.setTotalPlayedTime(minutes);
+        }
+        preferences.putInt(KEY_STORED_MINUTES, Float.floatToIntBits(storedMinutes));
+    }
+}
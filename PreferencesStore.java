@@ -0,0 +1,58 @@
+package com.example.tetris_concept;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+/**
+ * A {@link KeyValueStore} backed by a {@link SharedPreferences} file. Writes are saved in the
+ * background with {@link SharedPreferences.Editor#apply()}; reads see them at once.
+ *
+ * @author Eric
+ */
+public final class PreferencesStore implements KeyValueStore {
+
+    private final SharedPreferences preferences;
+
+    /**
+     * @param context any context; only the application context is used
+     * @param name    the name of the preferences file
+     */
+    public PreferencesStore(Context context, String name) {
+        preferences = context.getApplicationContext().getSharedPreferences(name, Context.MODE_PRIVATE);
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return preferences.contains(key);
+    }
+
+    @Override
+    public int getInt(String key, int defaultValue) {
+        return preferences.getInt(key, defaultValue);
+    }
+
+    @Override
+    public long getLong(String key, long defaultValue) {
+        return preferences.getLong(key, defaultValue);
+    }
+
+    @Override
+    public String getString(String key, String defaultValue) {
+        return preferences.getString(key, defaultValue);
+    }
+
+    @Override
+    public void putInt(String key, int value) {
+        preferences.edit().putInt(key, value).apply();
+    }
+
+    @Override
+    public void putLong(String key, long value) {
+        preferences.edit().putLong(key, value).apply();
+    }
+
+    @Override
+    public void putString(String key, String value) {
+        preferences.edit().putString(key, value).apply();
+    }
+}
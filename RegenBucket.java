@@ -0,0 +1,160 @@
+package com.example.tetris_concept;
+
+/**
+ * A regenerating resource modelled as a token bucket: a capacity and a refill rate.
+ * <p>
+ * Nothing ticks in the background. A resource is stored as its last known value plus the time that
+ * value was recorded, and the current value is computed in closed form whenever it is read, so
+ * catching up after days offline costs the same as catching up after a second.
+ * </p>
+ *
+ * <p>
+ * The rate is kept as whole milliseconds per unit, and only whole units are granted. When a value is
+ * written back, {@link #rebase(int, long, long)} keeps the progress toward the next unit so that
+ * frequent reads do not lose time.
+ * </p>
+ *
+ * @author Eric
+ */
+public final class RegenBucket {
+
+    /** A bucket that never regenerates and has no cap. */
+    static final RegenBucket STATIC = new RegenBucket(Integer.MAX_VALUE, 0);
+
+    /** The maximum value the resource regenerates to. */
+    public final int capacity;
+
+    /** Milliseconds needed to regenerate one unit, or 0 if the resource does not regenerate. */
+    public final long millisPerUnit;
+
+    /**
+     * Creates a bucket.
+     *
+     * @param capacity      the maximum value the resource regenerates to
+     * @param millisPerUnit milliseconds needed to regenerate one unit, or 0 for no regeneration
+     */
+    public RegenBucket(int capacity, long millisPerUnit) {
+        if (millisPerUnit < 0) {
+            throw new IllegalArgumentException("millisPerUnit must not be negative");
+        }
+        this.capacity = capacity;
+        this.millisPerUnit = millisPerUnit;
+    }
+
+    /**
+     * Creates a bucket that regenerates a number of units every hour.
+     *
+     * @param capacity     the maximum value
+     * @param unitsPerHour units regenerated per hour, or 0 for no regeneration
+     * @return the bucket
+     */
+    public static RegenBucket perHour(int capacity, int unitsPerHour) {
+        return new RegenBucket(capacity, unitsPerHour > 0 ? 3_600_000L / unitsPerHour : 0);
+    }
+
+    /**
+     * Computes the value of the resource at a given time.
+     *
+     * @param lastValue  the last recorded value
+     * @param lastMillis when {@code lastValue} was recorded, in epoch milliseconds
+     * @param nowMillis  the time to compute the value for
+     * @return the current value, never above {@link #capacity} unless {@code lastValue} already was
+     */
+    public int valueAt(int lastValue, long lastMillis, long nowMillis) {
+        if (millisPerUnit == 0 || lastValue >= capacity || nowMillis <= lastMillis) {
+            return lastValue;
+        }
+        long gained = (nowMillis - lastMillis) / millisPerUnit;
+        return (int) Math.min((long) capacity, lastValue + gained);
+    }
+
+    /**
+     * Computes the value of a resource kept with a fraction, such as a pet stat. Only whole units are
+     * added to it.
+     *
+     * @param lastValue  the last recorded value
+     * @param lastMillis when {@code lastValue} was recorded, in epoch milliseconds
+     * @param nowMillis  the time to compute the value for
+     * @return the current value, never above {@link #capacity} unless {@code lastValue} already was
+     */
+    public double valueAt(double lastValue, long lastMillis, long nowMillis) {
+        if (millisPerUnit == 0 || lastValue >= capacity || nowMillis <= lastMillis) {
+            return lastValue;
+        }
+        long gained = (nowMillis - lastMillis) / millisPerUnit;
+        return Math.min((double) capacity, lastValue + gained);
+    }
+
+    /**
+     * Returns the timestamp to store together with {@link #valueAt(int, long, long)} so that the
+     * progress toward the next unit is kept.
+     *
+     * @param lastValue  the last recorded value
+     * @param lastMillis when {@code lastValue} was recorded, in epoch milliseconds
+     * @param nowMillis  the time the new value is computed for
+     * @return the timestamp for the new value
+     */
+    public long rebase(int lastValue, long lastMillis, long nowMillis) {
+        if (millisPerUnit == 0 || nowMillis <= lastMillis) {
+            return nowMillis;
+        }
+        int value = valueAt(lastValue, lastMillis, nowMillis);
+        if (value >= capacity) {
+            return nowMillis;  // Full: a later spend starts regenerating from now
+        }
+        return lastMillis + (value - lastValue) * millisPerUnit;
+    }
+
+    /**
+     * Returns the timestamp to store together with {@link #valueAt(double, long, long)} so that the
+     * progress toward the next unit is kept.
+     *
+     * @param lastValue  the last recorded value
+     * @param lastMillis when {@code lastValue} was recorded, in epoch milliseconds
+     * @param nowMillis  the time the new value is computed for
+     * @return the timestamp for the new value
+     */
+    public long rebase(double lastValue, long lastMillis, long nowMillis) {
+        if (millisPerUnit == 0 || nowMillis <= lastMillis || lastValue >= capacity) {
+            return nowMillis;
+        }
+        long gained = (nowMillis - lastMillis) / millisPerUnit;
+        if (lastValue + gained >= capacity) {
+            return nowMillis;  // Full: a later spend starts regenerating from now
+        }
+        return lastMillis + gained * millisPerUnit;
+    }
+
+    /**
+     * Returns when the resource next gains a unit.
+     *
+     * @param lastValue  the last recorded value
+     * @param lastMillis when {@code lastValue} was recorded, in epoch milliseconds
+     * @param nowMillis  the current time
+     * @return the epoch time of the next unit, or {@link Long#MAX_VALUE} if the resource is full or does not regenerate
+     */
+    public long nextUnitMillis(int lastValue, long lastMillis, long nowMillis) {
+        int value = valueAt(lastValue, lastMillis, nowMillis);
+        if (millisPerUnit == 0 || value >= capacity) {
+            return Long.MAX_VALUE;
+        }
+        return lastMillis + (value - lastValue + 1) * millisPerUnit;
+    }
+
+    /**
+     * Returns when the resource will be full.
+     *
+     * @param lastValue  the last recorded value
+     * @param lastMillis when {@code lastValue} was recorded, in epoch milliseconds
+     * @return the epoch time the value reaches {@link #capacity}, or {@link Long#MAX_VALUE} if it never does
+     */
+    public long fullAtMillis(int lastValue, long lastMillis) {
+        if (lastValue >= capacity) {
+            return lastMillis;
+        }
+        if (millisPerUnit == 0) {
+            return Long.MAX_VALUE;
+        }
+        return lastMillis + (capacity - lastValue) * millisPerUnit;
+    }
+}
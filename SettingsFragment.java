@@ -8,7 +8,6 @@ import static com.example.tetris_concept.AppliedSettings.isSoundFXMute;
 import static com.example.tetris_concept.MusicService.isMusicMute;
 import static com.example.tetris_concept.MusicService.resumeMusic;
 import static com.example.tetris_concept.MusicService.stopMusic;
-import static com.example.tetris_concept.Storage.parentTimeIsOn;
 
 import android.content.Intent;
 import android.os.Bundle;
@@ -28,9 +27,7 @@ import android.widget.TextView;
 import android.widget.TimePicker;
 import android.widget.Toast;
 
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
-import java.util.Date;
 
 /**
  * The {@code SettingsFragment} class provides the functionality for the settings page in the application.
@@ -58,8 +55,8 @@ import java.util.Date;
  * @author Alex
  */
 public class SettingsFragment extends Fragment {
-    // Variable to store the formatted date and time
-    String formattedDateTime = "";
+    // Variable to store the selected time limit as epoch milliseconds (0 until a time is picked)
+    long selectedLimitMillis = ParentalLimit.NO_DEADLINE;
 
     // Constant for the parental control password
     private final String PARENT_PASS = "CS2212";
@@ -108,10 +105,11 @@ public class SettingsFragment extends Fragment {
 
 //      On load________________________________________________________
         totalGamesPlayedNum.setText(appStorage.getTotalPlayedGame() + " G");
-        totalTimePlayedNum.setText(String.format("%.1f", appStorage.getTotalPlayedTime()) + " min");
+        float playedMinutes = PlayTimeTracker.getInstance(view.getContext()).getTotalPlayedMinutes();
+        totalTimePlayedNum.setText(String.format("%.1f", playedMinutes) + " min");
         float avg = 0;
         if (appStorage.getTotalPlayedGame() > 0) {
-            avg = appStorage.getTotalPlayedTime() / appStorage.getTotalPlayedGame();  // Avoid division by zero
+            avg = playedMinutes / appStorage.getTotalPlayedGame();  // Avoid division by zero
         }
         avgTimePlayedNum.setText(String.format("%.1f", avg) + " min/G");
 
@@ -165,10 +163,11 @@ public class SettingsFragment extends Fragment {
             public void onClick(View v) {
                 btnSoundFx(view.getContext());
                 appStorage.setTotalPlayedGame(0);
-                appStorage.setTotalPlayedTime(0);
+                PlayTimeTracker playTimeTracker = PlayTimeTracker.getInstance(view.getContext());
+                playTimeTracker.reset();
 
                 totalGamesPlayedNum.setText(appStorage.getTotalPlayedGame() + " G");
-                totalTimePlayedNum.setText(String.format("%.1f", appStorage.getTotalPlayedTime()) + " min");
+                totalTimePlayedNum.setText(String.format("%.1f", playTimeTracker.getTotalPlayedMinutes()) + " min");
 
                 avgTimePlayedNum.setText(0 + " min/G");
             }
@@ -206,8 +205,8 @@ public class SettingsFragment extends Fragment {
             @Override
             public void onClick(View v) {
                 // Set the time limit to NONE and update the display
-                appStorage.setTimeLimit("NONE");
-                setTimeoutDate.setText("NONE");
+                ParentalLimit.getInstance(view.getContext()).clearLimit();
+                setTimeoutDate.setText(ParentalLimit.NO_LIMIT);
             }
         });
 
@@ -216,10 +215,11 @@ public class SettingsFragment extends Fragment {
             @Override
             public void onClick(View v) {
                 // Set the time limit based on the selected time and update the display
-//                Toast.makeText(getContext(), formattedDateTime, Toast.LENGTH_SHORT).show();
-                parentTimeIsOn = false;
-                appStorage.setTimeLimit(formattedDateTime);
-                setTimeoutDate.setText(formattedDateTime);
+                if (selectedLimitMillis == ParentalLimit.NO_DEADLINE) {
+                    return;  // No time picked yet
+                }
+                ParentalLimit.getInstance(view.getContext()).setLimit(selectedLimitMillis);
+                setTimeoutDate.setText(appStorage.getTimeLimit());
             }
         });
 
@@ -227,17 +227,17 @@ public class SettingsFragment extends Fragment {
         timePicker.setOnTimeChangedListener((timePicker1, hourOfDay, minute) -> {
             // Get the current date and set the selected hour and minute
             Calendar calendar = Calendar.getInstance();
-            calendar.setTime(new Date());
+            calendar.setTimeInMillis(AppClock.get().currentTimeMillis());
             calendar.set(Calendar.HOUR_OF_DAY, hourOfDay);
             calendar.set(Calendar.MINUTE, minute);
             calendar.set(Calendar.SECOND, 0);
+            calendar.set(Calendar.MILLISECOND, 0);
 
-            // Format the date and time
-            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd-HH:mm:ss");
-            formattedDateTime = dateFormat.format(calendar.getTime());
+            // Keep the deadline as epoch milliseconds
+            selectedLimitMillis = calendar.getTimeInMillis();
 
             // Display the formatted date and time in a Toast message
-//            Toast.makeText(view.getContext(), "Selected Date and Time: " + formattedDateTime, Toast.LENGTH_SHORT).show();
+//            Toast.makeText(view.getContext(), "Selected Date and Time: " + calendar.getTime(), Toast.LENGTH_SHORT).show();
         });
 
         return view;  // Return the inflated view with updated UI elements
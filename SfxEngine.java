@@ -0,0 +1,131 @@
+package com.example.tetris_concept;
+
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.SoundPool;
+
+import java.util.Locale;
+
+/**
+ * Plays the app's short sound effects from memory with a fixed number of voices.
+ * <p>
+ * Creating a {@code MediaPlayer} per tap decodes the file again each time and leaves a native player
+ * behind until it is garbage collected. Instead, every effect is decoded once into a {@link SoundPool}
+ * when the engine is created. Playing an effect is then a single call that starts an already decoded
+ * sample. At most {@value #MAX_VOICES} effects sound at once; when all voices are busy the pool stops
+ * the lowest priority voice, so fast tapping reuses voices instead of growing native memory.
+ * </p>
+ *
+ * <p>
+ * Effects are identified by their index in {@link #EFFECTS}. An effect played before it has finished
+ * loading is dropped, and counted as such, rather than waiting. {@link #getStats()} reports how many
+ * effects were played and dropped and how long the play calls took; {@link FrameStats} adds it to its
+ * report once the engine exists.
+ * </p>
+ *
+ * @author Bilal
+ */
+public final class SfxEngine {
+
+    /** The button press effect. */
+    public static final int BUTTON = 0;
+
+    /** Raw resource of each effect, by effect id. */
+    private static final int[] EFFECTS = {R.raw.btn_fx_two};
+    /** Priority of each effect, by effect id; higher priorities keep their voice longer. */
+    private static final int[] PRIORITIES = {1};
+
+    /** Number of effects that can sound at the same time. */
+    public static final int MAX_VOICES = 4;
+
+    private static SfxEngine instance;
+
+    private final SoundPool soundPool;
+    private final int[] soundIds = new int[EFFECTS.length];
+    private final boolean[] loaded = new boolean[EFFECTS.length];
+
+    private long playCount = 0;
+    private long droppedCount = 0;
+    private long totalPlayNanos = 0;
+    private long maxPlayNanos = 0;
+
+    private SfxEngine(Context context) {
+        AudioAttributes attributes = new AudioAttributes.Builder()
+                .setUsage(AudioAttributes.USAGE_GAME)
+                .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                .build();
+        soundPool = new SoundPool.Builder()
+                .setMaxStreams(MAX_VOICES)
+                .setAudioAttributes(attributes)
+                .build();
+        soundPool.setOnLoadCompleteListener((pool, sampleId, status) -> {
+            for (int effect = 0; effect < soundIds.length; effect++) {
+                if (soundIds[effect] == sampleId) {
+                    loaded[effect] = status == 0;
+                    if (status != 0) {
+                        System.out.println("Error loading sound effect " + effect + ", status " + status + ".");
+                    }
+                }
+            }
+        });
+        for (int effect = 0; effect < EFFECTS.length; effect++) {
+            soundIds[effect] = soundPool.load(context, EFFECTS[effect], PRIORITIES[effect]);
+        }
+    }
+
+    /**
+     * Returns the app-wide engine, loading every effect the first time. Must be called on the main thread.
+     *
+     * @param context any context; only the application context is kept
+     * @return the shared {@code SfxEngine}
+     */
+    public static SfxEngine getInstance(Context context) {
+        if (instance == null) {
+            instance = new SfxEngine(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the engine if something already created it, without loading any effect.
+     *
+     * @return the shared {@code SfxEngine}, or null while sound effects have not been used
+     */
+    static SfxEngine peekInstance() {
+        return instance;
+    }
+
+    /**
+     * Plays an effect once. Must be called on the main thread.
+     *
+     * @param effect the effect id, for example {@link #BUTTON}
+     */
+    public void play(int effect) {
+        if (!loaded[effect]) {
+            droppedCount++;
+            return;
+        }
+        long start = System.nanoTime();
+        int streamId = soundPool.play(soundIds[effect], 1f, 1f, PRIORITIES[effect], 0, 1f);
+        long elapsed = System.nanoTime() - start;
+        if (streamId == 0) {
+            droppedCount++;  // No voice could be taken for this priority
+            return;
+        }
+        playCount++;
+        totalPlayNanos += elapsed;
+        if (elapsed > maxPlayNanos) {
+            maxPlayNanos = elapsed;
+        }
+    }
+
+    /**
+     * @return the number of effects played, the number dropped, and the mean and longest play call times
+     */
+    public String getStats() {
+        return String.format(Locale.US, "Sound effects: %d played, %d dropped, play call mean %.2f ms, max %.2f ms",
+                playCount, droppedCount,
+                playCount == 0 ? 0.0 : totalPlayNanos / (double) playCount / 1_000_000.0,
+                maxPlayNanos / 1_000_000.0);
+    }
+}
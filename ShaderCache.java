@@ -0,0 +1,100 @@
+package com.example.tetris_concept;
+
+import android.graphics.LinearGradient;
+import android.graphics.Shader;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shares the vertical gradient shaders used for gradient text.
+ * <p>
+ * A shader depends only on its colors, the text size and the tile mode, so one instance serves every
+ * view that asks for the same three. Recreating a screen finds its shaders already built. Lookups
+ * go through a reused probe key, so a hit allocates nothing; the title colors are kept as parsed
+ * constants below instead of being parsed from hex strings every time.
+ * </p>
+ *
+ * <p>Must be used on the main thread.</p>
+ *
+ * @author Aryan Farhang-pour
+ */
+public final class ShaderCache {
+
+    /** #e200ff, the purple at the top of the title gradients. */
+    public static final int TITLE_PURPLE = 0xFFE200FF;
+    /** #F78CC2, the pink at the bottom of "Stellar". */
+    public static final int TITLE_PINK = 0xFFF78CC2;
+    /** #00f6ff, the cyan at the bottom of "Pets". */
+    public static final int TITLE_CYAN = 0xFF00F6FF;
+
+    /** Gradient of the "Stellar" title. */
+    public static final int[] STELLAR_TITLE_COLORS = {TITLE_PURPLE, TITLE_PINK};
+    /** Gradient of the "Pets" title. */
+    public static final int[] PETS_TITLE_COLORS = {TITLE_PURPLE, TITLE_CYAN};
+
+    private static final Map<Key, Shader> SHADERS = new HashMap<>();
+    private static final Key PROBE = new Key();
+
+    private ShaderCache() {
+    }
+
+    /**
+     * Returns a vertical linear gradient from the top of the text to its text size, building it once.
+     *
+     * @param colors   the gradient colors from top to bottom; not kept, so the caller may reuse the array
+     * @param height   the gradient height, usually {@code TextView.getTextSize()}
+     * @param tileMode how the gradient repeats past its end
+     * @return the shared shader
+     */
+    public static Shader verticalGradient(int[] colors, float height, Shader.TileMode tileMode) {
+        PROBE.set(colors, height, tileMode);
+        Shader shader = SHADERS.get(PROBE);
+        if (shader == null) {
+            int[] ownColors = colors.clone();
+            shader = new LinearGradient(0, 0, 0, height, ownColors, null, tileMode);
+            Key key = new Key();
+            key.set(ownColors, height, tileMode);
+            SHADERS.put(key, shader);
+        }
+        return shader;
+    }
+
+    /**
+     * @return the number of shaders built so far
+     */
+    public static int size() {
+        return SHADERS.size();
+    }
+
+    private static final class Key {
+        private int[] colors;
+        private float height;
+        private Shader.TileMode tileMode;
+        private int hash;
+
+        void set(int[] colors, float height, Shader.TileMode tileMode) {
+            this.colors = colors;
+            this.height = height;
+            this.tileMode = tileMode;
+            this.hash = (Arrays.hashCode(colors) * 31 + Float.floatToIntBits(height)) * 31 + tileMode.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return Float.floatToIntBits(height) == Float.floatToIntBits(key.height)
+                    && tileMode == key.tileMode
+                    && Arrays.equals(colors, key.colors);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
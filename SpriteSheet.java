@@ -0,0 +1,329 @@
+package com.example.tetris_concept;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.graphics.drawable.AnimationDrawable;
+import android.graphics.drawable.Drawable;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One atlas bitmap holding every frame of one pet.
+ * <p>
+ * The atlas is built once per pet from the frame animations named in the pet's
+ * {@link PetAnimationTable}s: each frame list is inflated a single time, its frames are packed in
+ * rows into one bitmap, and the inflated drawables are dropped. A {@link SpriteSheetDrawable} then
+ * draws frames as sub-rectangles of that bitmap, so switching animation never inflates anything.
+ * </p>
+ *
+ * <p>
+ * If the build packed the pet ahead of time with {@code SpritePacker} from the {@code tools} module,
+ * the atlas and its frame metadata are read from {@code assets/sprites/<pet>.png} and {@code .bin}
+ * instead, and nothing is inflated or packed at runtime.
+ * </p>
+ *
+ * <p>
+ * Both kinds of atlas report frames at the size their frame drawables would have on this screen. A
+ * runtime atlas is drawn from the density-scaled frames, so its rectangles already have that size; a
+ * packed atlas keeps the source pixels and its rectangles are scaled by the density ratio when the
+ * frame size is asked for.
+ * </p>
+ *
+ * <p>
+ * Each frame list becomes a <em>sequence</em>: a run of frame rectangles with their durations,
+ * looked up by the frame list's resource id.
+ * </p>
+ *
+ * @author Aryan Farhang-pour
+ */
+public final class SpriteSheet {
+
+    // Frames are packed in rows no wider than this; pet frames are small, so one atlas stays compact
+    private static final int MAX_ATLAS_WIDTH = 2048;
+
+    private static final String ASSET_FOLDER = "sprites/";
+    private static final int PACKED_MAGIC = 0x50535052;  // "PSPR", written by the tools module's SpritePacker
+    private static final int PACKED_VERSION = 2;
+
+    // One lock per pet, so a build only holds up callers waiting for that same pet
+    private static final Map<String, Object> BUILD_LOCKS = new HashMap<>();
+
+    /**
+     * A run of frames in the atlas, built from one frame animation resource.
+     */
+    static final class Sequence {
+        final int firstFrame;
+        final int frameCount;
+        final long[] frameEnds;  // Cumulative end time of each frame in milliseconds
+        final boolean oneShot;
+
+        Sequence(int firstFrame, long[] durations, boolean oneShot) {
+            this.firstFrame = firstFrame;
+            this.frameCount = durations.length;
+            this.frameEnds = new long[durations.length];
+            long end = 0;
+            for (int i = 0; i < durations.length; i++) {
+                end += Math.max(1, durations[i]);
+                frameEnds[i] = end;
+            }
+            this.oneShot = oneShot;
+        }
+
+        long getTotalMillis() {
+            return frameEnds[frameCount - 1];
+        }
+
+        /**
+         * @param elapsedMillis time since the sequence started
+         * @return the index of the frame to show, relative to {@link #firstFrame}
+         */
+        int frameAt(long elapsedMillis) {
+            long total = getTotalMillis();
+            if (oneShot && elapsedMillis >= total) {
+                return frameCount - 1;
+            }
+            long t = elapsedMillis % total;
+            for (int i = 0; i < frameCount; i++) {
+                if (t < frameEnds[i]) {
+                    return i;
+                }
+            }
+            return frameCount - 1;
+        }
+
+        /**
+         * @param elapsedMillis time since the sequence started
+         * @return milliseconds until the frame after {@code elapsedMillis} is due, or -1 if it never changes again
+         */
+        long millisToNextFrame(long elapsedMillis) {
+            long total = getTotalMillis();
+            if (frameCount == 1 || (oneShot && elapsedMillis >= total)) {
+                return -1;
+            }
+            long t = elapsedMillis % total;
+            return frameEnds[frameAt(t)] - t;
+        }
+    }
+
+    private final Bitmap atlas;
+    private final Rect[] frameRects;
+    private final Map<Integer, Sequence> sequences;
+    private final float frameScale;  // Screen pixels per atlas pixel
+
+    private SpriteSheet(Bitmap atlas, Rect[] frameRects, Map<Integer, Sequence> sequences, float frameScale) {
+        this.atlas = atlas;
+        this.frameRects = frameRects;
+        this.sequences = sequences;
+        this.frameScale = frameScale;
+    }
+
+    /**
+     * Returns the atlas of a pet from the {@link FrameCache}, building it on a miss. Building is the only
+     * expensive step and may run on a background thread. A cache hit takes no lock, so the main thread is
+     * never held up by a prefetch building another pet.
+     *
+     * @param context any context
+     * @param petKey  the pet key, e.g. "FIRE"
+     * @return the pet's sprite sheet
+     */
+    public static SpriteSheet forPet(Context context, String petKey) {
+        FrameCache cache = FrameCache.getInstance(context);
+        SpriteSheet sheet = cache.get(petKey);
+        if (sheet != null) {
+            return sheet;
+        }
+        synchronized (buildLockOf(petKey)) {
+            sheet = cache.get(petKey);  // Another thread may have built it while this one waited
+            if (sheet == null) {
+                Context appContext = context.getApplicationContext();
+                sheet = loadPacked(appContext, petKey);
+                if (sheet == null) {
+                    sheet = build(appContext, PetAnimationTable.getFrameResources(petKey));
+                }
+                cache.put(petKey, sheet);
+            }
+            return sheet;
+        }
+    }
+
+    private static Object buildLockOf(String petKey) {
+        synchronized (BUILD_LOCKS) {
+            Object lock = BUILD_LOCKS.get(petKey);
+            if (lock == null) {
+                lock = new Object();
+                BUILD_LOCKS.put(petKey, lock);
+            }
+            return lock;
+        }
+    }
+
+    Bitmap getAtlas() {
+        return atlas;
+    }
+
+    Rect getFrameRect(int frame) {
+        return frameRects[frame];
+    }
+
+    /**
+     * @param frame a frame index
+     * @return the width the frame is shown at on this screen, as its frame drawable would report it
+     */
+    int getFrameWidth(int frame) {
+        return Math.round(frameRects[frame].width() * frameScale);
+    }
+
+    /**
+     * @param frame a frame index
+     * @return the height the frame is shown at on this screen, as its frame drawable would report it
+     */
+    int getFrameHeight(int frame) {
+        return Math.round(frameRects[frame].height() * frameScale);
+    }
+
+    /**
+     * @param frameRes a frame animation resource of this pet
+     * @return its sequence, or {@code null} if it is not in this sheet
+     */
+    Sequence getSequence(int frameRes) {
+        return sequences.get(frameRes);
+    }
+
+    /**
+     * @return the size of the atlas bitmap in bytes
+     */
+    public int getByteCount() {
+        return atlas.getByteCount();
+    }
+
+    // Pre-packed atlas ______________________________________________________________________________
+
+    /**
+     * Reads the atlas packed at build time, if the build shipped one.
+     *
+     * @return the sheet, or {@code null} to pack at runtime instead
+     */
+    private static SpriteSheet loadPacked(Context context, String petKey) {
+        String baseName = ASSET_FOLDER + petKey.toLowerCase();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(context.getAssets().open(baseName + ".bin")))) {
+            if (in.readInt() != PACKED_MAGIC || in.readUnsignedShort() != PACKED_VERSION) {
+                System.out.println("Unknown sprite metadata format in " + baseName + ".bin, packing at runtime.");
+                return null;
+            }
+            in.readUnsignedShort();  // Atlas width and height; the bitmap has them too
+            in.readUnsignedShort();
+            int sourceDensity = in.readUnsignedShort();
+            float frameScale = sourceDensity == 0 ? 1f  // Packed from drawable-nodpi: never scaled
+                    : context.getResources().getDisplayMetrics().densityDpi / (float) sourceDensity;
+
+            List<Rect> frameRects = new ArrayList<>();
+            Map<Integer, Sequence> sequences = new HashMap<>();
+            int sequenceCount = in.readUnsignedShort();
+            for (int s = 0; s < sequenceCount; s++) {
+                String name = in.readUTF();
+                boolean oneShot = in.readByte() != 0;
+                long[] durations = new long[in.readUnsignedShort()];
+                int firstFrame = frameRects.size();
+                for (int i = 0; i < durations.length; i++) {
+                    int x = in.readUnsignedShort();
+                    int y = in.readUnsignedShort();
+                    frameRects.add(new Rect(x, y, x + in.readUnsignedShort(), y + in.readUnsignedShort()));
+                    durations[i] = in.readInt();
+                }
+                int frameRes = context.getResources().getIdentifier(name, "drawable", context.getPackageName());
+                if (frameRes != 0) {
+                    sequences.put(frameRes, new Sequence(firstFrame, durations, oneShot));
+                }
+            }
+
+            for (int frameRes : PetAnimationTable.getFrameResources(petKey)) {
+                if (!sequences.containsKey(frameRes)) {
+                    System.out.println("Packed sprites for " + petKey + " are out of date, packing at runtime.");
+                    return null;
+                }
+            }
+
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inScaled = false;  // Frame rectangles are in atlas pixels; frameScale sizes them for the screen
+            Bitmap atlas;
+            try (InputStream image = context.getAssets().open(baseName + ".png")) {
+                atlas = BitmapFactory.decodeStream(image, null, options);
+            }
+            if (atlas == null) {
+                System.out.println("Error decoding " + baseName + ".png, packing at runtime.");
+                return null;
+            }
+            return new SpriteSheet(atlas, frameRects.toArray(new Rect[0]), sequences, frameScale);
+        } catch (FileNotFoundException e) {
+            return null;  // Not packed at build time
+        } catch (IOException e) {
+            System.out.println("Error reading " + baseName + ".bin, packing at runtime.");
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // Packing _______________________________________________________________________________________
+
+    private static SpriteSheet build(Context context, int[] frameResources) {
+        List<Drawable> frames = new ArrayList<>();
+        Map<Integer, Sequence> sequences = new HashMap<>();
+
+        for (int frameRes : frameResources) {
+            AnimationDrawable animation = (AnimationDrawable) context.getDrawable(frameRes);
+            long[] durations = new long[animation.getNumberOfFrames()];
+            for (int i = 0; i < durations.length; i++) {
+                durations[i] = animation.getDuration(i);
+                frames.add(animation.getFrame(i));
+            }
+            sequences.put(frameRes, new Sequence(frames.size() - durations.length, durations, animation.isOneShot()));
+        }
+
+        // Shelf packing: fill rows left to right, start a new row when the next frame does not fit
+        int maxFrameWidth = 1;
+        long area = 0;
+        for (Drawable frame : frames) {
+            maxFrameWidth = Math.max(maxFrameWidth, frame.getIntrinsicWidth());
+            area += (long) frame.getIntrinsicWidth() * frame.getIntrinsicHeight();
+        }
+        int atlasWidth = Math.min(MAX_ATLAS_WIDTH, Math.max(maxFrameWidth, (int) Math.ceil(Math.sqrt(area))));
+
+        Rect[] frameRects = new Rect[frames.size()];
+        int x = 0;
+        int y = 0;
+        int rowHeight = 0;
+        for (int i = 0; i < frames.size(); i++) {
+            int width = frames.get(i).getIntrinsicWidth();
+            int height = frames.get(i).getIntrinsicHeight();
+            if (x + width > atlasWidth) {
+                x = 0;
+                y += rowHeight;
+                rowHeight = 0;
+            }
+            frameRects[i] = new Rect(x, y, x + width, y + height);
+            x += width;
+            rowHeight = Math.max(rowHeight, height);
+        }
+
+        Bitmap atlas = Bitmap.createBitmap(atlasWidth, Math.max(1, y + rowHeight), Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(atlas);
+        for (int i = 0; i < frames.size(); i++) {
+            Drawable frame = frames.get(i).mutate();
+            frame.setFilterBitmap(false);  // Frames may be density-scaled on the way in; keep the pixels hard
+            frame.setBounds(frameRects[i]);
+            frame.draw(canvas);
+        }
+        return new SpriteSheet(atlas, frameRects, sequences, 1f);  // Drawn at the frames' scaled size
+    }
+}
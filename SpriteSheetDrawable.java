@@ -0,0 +1,161 @@
+package com.example.tetris_concept;
+
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.drawable.Animatable;
+import android.graphics.drawable.Drawable;
+import android.view.View;
+
+/**
+ * Draws a pet's frame animations out of one {@link SpriteSheet}.
+ * <p>
+ * Frames are sub-rectangles of the shared atlas bitmap, drawn with nearest-neighbour sampling that is
+ * set up once in the constructor. The current frame is computed from {@link AppClock}, so every pet
+ * on screen advances on the same clock, and the drawable only asks to be redrawn when the next frame
+ * is due. Switching animation with {@link #setSequence(int)} only changes an index.
+ * </p>
+ *
+ * @author Aryan Farhang-pour
+ */
+public class SpriteSheetDrawable extends Drawable implements Animatable {
+
+    private final SpriteSheet sheet;
+    private final Paint paint = new Paint();
+    private SpriteSheet.Sequence sequence;
+    private long startMillis;
+    private boolean running = false;
+
+    private final Runnable nextFrame = new Runnable() {
+        @Override
+        public void run() {
+            invalidateSelf();
+            scheduleNextFrame();
+        }
+    };
+
+    /**
+     * @param sheet    the pet's atlas
+     * @param frameRes the frame animation to show first
+     */
+    public SpriteSheetDrawable(SpriteSheet sheet, int frameRes) {
+        this.sheet = sheet;
+        paint.setFilterBitmap(false);  // Pixel art: never blend neighbouring texels
+        paint.setAntiAlias(false);
+        paint.setDither(false);
+        setSequence(frameRes);
+    }
+
+    /**
+     * @return the atlas this drawable draws from
+     */
+    public SpriteSheet getSheet() {
+        return sheet;
+    }
+
+    /**
+     * Switches to another frame animation of the same pet and starts it from its first frame.
+     *
+     * @param frameRes a frame animation resource in this drawable's sheet
+     */
+    public void setSequence(int frameRes) {
+        SpriteSheet.Sequence next = sheet.getSequence(frameRes);
+        if (next == null) {
+            throw new IllegalArgumentException("Frame animation " + frameRes + " is not in this sprite sheet");
+        }
+        boolean sizeChanged = sequence == null || !sameSize(sheet.getFrameRect(sequence.firstFrame), sheet.getFrameRect(next.firstFrame));
+        sequence = next;
+        startMillis = AppClock.get().uptimeMillis();
+        if (sizeChanged) {
+            Callback callback = getCallback();
+            if (callback instanceof View) {
+                ((View) callback).requestLayout();
+            }
+        }
+        invalidateSelf();
+        if (running) {
+            unscheduleSelf(nextFrame);
+            scheduleNextFrame();
+        }
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        int frame = sequence.firstFrame + sequence.frameAt(AppClock.get().uptimeMillis() - startMillis);
+        canvas.drawBitmap(sheet.getAtlas(), sheet.getFrameRect(frame), getBounds(), paint);
+    }
+
+    @Override
+    public void start() {
+        if (!running) {
+            running = true;
+            scheduleNextFrame();
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        unscheduleSelf(nextFrame);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean setVisible(boolean visible, boolean restart) {
+        boolean changed = super.setVisible(visible, restart);
+        if (!visible) {
+            unscheduleSelf(nextFrame);  // No redraws for a hidden view
+        } else if (running && changed) {
+            scheduleNextFrame();
+        }
+        return changed;
+    }
+
+    private void scheduleNextFrame() {
+        if (!running || !isVisible()) {
+            return;
+        }
+        long now = AppClock.get().uptimeMillis();
+        long delay = sequence.millisToNextFrame(now - startMillis);
+        if (delay >= 0) {
+            scheduleSelf(nextFrame, now + delay);
+        }
+    }
+
+    @Override
+    public int getIntrinsicWidth() {
+        return sheet.getFrameWidth(sequence.firstFrame);
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        return sheet.getFrameHeight(sequence.firstFrame);
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        paint.setAlpha(alpha);
+        invalidateSelf();
+    }
+
+    @Override
+    public void setColorFilter(ColorFilter colorFilter) {
+        paint.setColorFilter(colorFilter);
+        invalidateSelf();
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+
+    private static boolean sameSize(Rect a, Rect b) {
+        return a.width() == b.width() && a.height() == b.height();
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.tetris_concept;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Key-level change notifications for the values kept by {@link Storage}.
+ * <p>
+ * Screens subscribe to the keys they display instead of polling {@link Storage} on a timer.
+ * A listener is only called when the stored value actually changes (writing the same value
+ * again is ignored), and it is always called on the main thread, so it can touch views directly.
+ * A listener that unsubscribes is not called afterwards, even for a change that was already on its
+ * way from another thread.
+ * </p>
+ *
+ * <p>Passing {@link #ANY_KEY} subscribes to every key in the storage file.</p>
+ *
+ * <p><strong>Author:</strong> Alex</p>
+ */
+public class StorageObserver {
+
+    /** Name of the preferences file that backs {@link Storage}. */
+    static final String PREFS_NAME = "home_page";
+
+    /** Key holding the current game energy (0 - 100). */
+    static final String KEY_GAME_ENERGY = "gameEnergy";
+
+    /** Wildcard key used to listen to every change in the storage file. */
+    static final String ANY_KEY = "*";
+
+    /**
+     * Callback invoked on the main thread when a stored value changes.
+     */
+    public interface OnValueChangedListener {
+        /**
+         * Called after {@code key} has been written with a value different from the previous one.
+         *
+         * @param key      the key that changed
+         * @param newValue the new value, or {@code null} if the key was removed
+         */
+        void onValueChanged(String key, Object newValue);
+    }
+
+    private static StorageObserver instance;
+
+    private final SharedPreferences preferences;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<String, List<OnValueChangedListener>> listeners = new HashMap<>();
+    private final Map<String, Object> lastValues = new HashMap<>();
+
+    // SharedPreferences only keeps a weak reference to its listeners, so hold on to it here.
+    private final SharedPreferences.OnSharedPreferenceChangeListener preferenceListener =
+            new SharedPreferences.OnSharedPreferenceChangeListener() {
+                @Override
+                public void onSharedPreferenceChanged(SharedPreferences sharedPreferences, String key) {
+                    if (key != null) {
+                        publish(key, sharedPreferences.getAll().get(key));
+                    }
+                }
+            };
+
+    private StorageObserver(Context context) {
+        preferences = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        lastValues.putAll(preferences.getAll());
+        preferences.registerOnSharedPreferenceChangeListener(preferenceListener);
+    }
+
+    /**
+     * Returns the process-wide observer, creating it on first use.
+     *
+     * @param context any context; only the application context is retained
+     * @return the shared {@code StorageObserver}
+     */
+    public static synchronized StorageObserver getInstance(Context context) {
+        if (instance == null) {
+            instance = new StorageObserver(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Registers a listener for a key.
+     *
+     * @param key      the storage key to watch, or {@link #ANY_KEY} for every key
+     * @param listener the listener to call on the main thread when the value changes
+     */
+    public synchronized void subscribe(String key, OnValueChangedListener listener) {
+        List<OnValueChangedListener> keyListeners = listeners.get(key);
+        if (keyListeners == null) {
+            keyListeners = new ArrayList<>();
+            listeners.put(key, keyListeners);
+        }
+        if (!keyListeners.contains(listener)) {
+            keyListeners.add(listener);
+        }
+    }
+
+    /**
+     * Removes a listener previously registered with {@link #subscribe(String, OnValueChangedListener)}.
+     *
+     * @param key      the key the listener was registered for
+     * @param listener the listener to remove
+     */
+    public synchronized void unsubscribe(String key, OnValueChangedListener listener) {
+        List<OnValueChangedListener> keyListeners = listeners.get(key);
+        if (keyListeners != null) {
+            keyListeners.remove(listener);
+            if (keyListeners.isEmpty()) {
+                listeners.remove(key);
+            }
+        }
+    }
+
+    private synchronized boolean isSubscribed(String key, OnValueChangedListener listener) {
+        List<OnValueChangedListener> keyListeners = listeners.get(key);
+        return keyListeners != null && keyListeners.contains(listener);
+    }
+
+    /**
+     * Returns the last known value for a key without touching the disk.
+     *
+     * @param key          the storage key
+     * @param defaultValue the value to return when the key is unset
+     * @return the cached value, or {@code defaultValue}
+     */
+    public synchronized Object getValue(String key, Object defaultValue) {
+        Object value = lastValues.get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Returns the last known integer value for a key without touching the disk.
+     *
+     * @param key          the storage key
+     * @param defaultValue the value to return when the key is unset or not an integer
+     * @return the cached value, or {@code defaultValue}
+     */
+    public int getInt(String key, int defaultValue) {
+        Object value = getValue(key, null);
+        return value instanceof Integer ? (Integer) value : defaultValue;
+    }
+
+    /**
+     * Records a new value for a key and notifies the subscribers if it differs from the last one.
+     * <p>
+     * Called automatically for writes to the storage file. Values that live only in memory
+     * can be published through this method as well.
+     * </p>
+     *
+     * @param key      the key that was written
+     * @param newValue the new value, or {@code null} if the key was removed
+     */
+    public void publish(String key, Object newValue) {
+        final List<OnValueChangedListener> targets = new ArrayList<>();
+        final List<String> targetKeys = new ArrayList<>();  // The key each target subscribed to
+        synchronized (this) {
+            if (lastValues.containsKey(key) && Objects.equals(lastValues.get(key), newValue)) {
+                return;  // Same value written again, nothing to tell anyone
+            }
+            lastValues.put(key, newValue);
+
+            List<OnValueChangedListener> keyListeners = listeners.get(key);
+            if (keyListeners != null) {
+                for (OnValueChangedListener listener : keyListeners) {
+                    targets.add(listener);
+                    targetKeys.add(key);
+                }
+            }
+            List<OnValueChangedListener> anyListeners = listeners.get(ANY_KEY);
+            if (anyListeners != null) {
+                for (OnValueChangedListener listener : anyListeners) {
+                    targets.add(listener);
+                    targetKeys.add(ANY_KEY);
+                }
+            }
+        }
+        if (targets.isEmpty()) {
+            return;
+        }
+
+        Runnable dispatch = new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < targets.size(); i++) {
+                    // A screen may have unsubscribed in onPause while this change was posted
+                    if (isSubscribed(targetKeys.get(i), targets.get(i))) {
+                        targets.get(i).onValueChanged(key, newValue);
+                    }
+                }
+            }
+        };
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            dispatch.run();
+        } else {
+            mainHandler.post(dispatch);
+        }
+    }
+}
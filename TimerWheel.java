@@ -0,0 +1,425 @@
+package com.example.tetris_concept;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * A single hashed timer wheel that owns every timed task in the app.
+ * <p>
+ * Tasks are hashed into {@link #WHEEL_SIZE} slots by their deadline tick. Cancelling unlinks a task
+ * from its slot in O(1), and a wake-up only walks the slots whose ticks have passed since the last
+ * one. The wheel does not tick on its own: it arms one main-thread callback for the earliest
+ * deadline and sleeps until then, so an idle app never wakes up.
+ * </p>
+ *
+ * <p>
+ * The earliest deadline comes from a min-heap of deadlines, so scheduling costs O(log n). Cancelled
+ * and rescheduled tasks leave their old heap entry behind; it is dropped when it reaches the top,
+ * and the heap is rebuilt once such entries outnumber the live ones.
+ * </p>
+ *
+ * <p>
+ * A task can be tied to a {@link LifecycleOwner}; it is cancelled automatically when that owner
+ * is destroyed. All tasks run on the main thread. {@link #getActiveCount()} and {@link #dump()}
+ * report how many timers are active and how late each one fired last.
+ * </p>
+ *
+ * <p>Time and wake-ups come from {@link AppClock}, so the wheel also runs on a {@link VirtualClock}.</p>
+ *
+ * @author Collin
+ */
+public class TimerWheel {
+
+    /** Number of slots in the wheel. Must be a power of two. */
+    static final int WHEEL_SIZE = 64;
+
+    /** Width of one slot in milliseconds. */
+    static final long TICK_MILLIS = 10;
+
+    private static final long NONE = Long.MAX_VALUE;
+
+    /** Stale heap entries allowed on top of the live ones before the heap is rebuilt. */
+    private static final int HEAP_SLACK = 64;
+
+    private static TimerWheel instance;
+
+    /**
+     * A scheduled task. Keep it to cancel the task early.
+     */
+    public final class Timeout {
+        private final String name;
+        private final Runnable task;
+        private final long periodMillis;
+        private final LifecycleOwner owner;
+        private long deadline;
+        private long lastLatenessMillis = -1;
+        private int fireCount = 0;
+        private boolean cancelled = false;
+
+        // Links inside the slot's list
+        private Timeout prev;
+        private Timeout next;
+        private int slot = -1;
+
+        private Timeout(String name, Runnable task, long deadline, long periodMillis, LifecycleOwner owner) {
+            this.name = name;
+            this.task = task;
+            this.deadline = deadline;
+            this.periodMillis = periodMillis;
+            this.owner = owner;
+        }
+
+        /**
+         * Cancels the task. Does nothing if it already ran (one-shot) or was cancelled.
+         */
+        public void cancel() {
+            TimerWheel.this.cancel(this);
+        }
+
+        /**
+         * @return {@code true} while the task is waiting to run
+         */
+        public boolean isActive() {
+            return slot >= 0;
+        }
+
+        /**
+         * @return the name given when the task was scheduled
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return how many milliseconds after its deadline the task last ran, or -1 if it never ran
+         */
+        public long getLastLatenessMillis() {
+            return lastLatenessMillis;
+        }
+    }
+
+    /**
+     * A deadline in the heap. It is stale once its task has run, been cancelled or moved to a new deadline.
+     */
+    private static final class HeapEntry implements Comparable<HeapEntry> {
+        final Timeout timeout;
+        final long deadline;
+
+        HeapEntry(Timeout timeout) {
+            this.timeout = timeout;
+            this.deadline = timeout.deadline;
+        }
+
+        boolean isStale() {
+            return !timeout.isActive() || timeout.deadline != deadline;
+        }
+
+        @Override
+        public int compareTo(HeapEntry other) {
+            return Long.compare(deadline, other.deadline);
+        }
+    }
+
+    private final Timeout[] slots = new Timeout[WHEEL_SIZE];
+    private final PriorityQueue<HeapEntry> deadlines = new PriorityQueue<>();
+    private final Map<LifecycleOwner, Set<Timeout>> ownedTimeouts = new HashMap<>();
+    private int activeCount = 0;
+    private long armedDeadline = NONE;
+    // Every tick up to and including this one has been walked
+    private long cursorTick = AppClock.get().uptimeMillis() / TICK_MILLIS - 1;
+
+    private final Runnable wakeRunnable = new Runnable() {
+        @Override
+        public void run() {
+            armedDeadline = NONE;
+            expireTimeouts();
+        }
+    };
+
+    private final LifecycleEventObserver lifecycleObserver = new LifecycleEventObserver() {
+        @Override
+        public void onStateChanged(LifecycleOwner source, Lifecycle.Event event) {
+            if (event == Lifecycle.Event.ON_DESTROY) {
+                cancelAll(source);
+            }
+        }
+    };
+
+    private TimerWheel() {
+    }
+
+    /**
+     * Returns the app-wide timer wheel. Must be called on the main thread (or the {@link VirtualClock}'s thread).
+     *
+     * @return the shared {@code TimerWheel}
+     */
+    public static TimerWheel getInstance() {
+        if (instance == null) {
+            instance = new TimerWheel();
+        }
+        return instance;
+    }
+
+    /**
+     * Drops the app-wide timer wheel and its tasks, so the next {@link #getInstance()} starts from the
+     * current {@link AppClock}. For tests that install a new {@link VirtualClock}.
+     */
+    static void reset() {
+        instance = null;
+    }
+
+    /**
+     * Runs a task once after a delay.
+     *
+     * @param owner       the lifecycle owner that cancels the task when destroyed, or {@code null}
+     * @param name        a short name shown in {@link #dump()}
+     * @param delayMillis the delay in milliseconds
+     * @param task        the task to run on the main thread
+     * @return the scheduled {@link Timeout}
+     */
+    public Timeout schedule(LifecycleOwner owner, String name, long delayMillis, Runnable task) {
+        return add(owner, name, delayMillis, 0, task);
+    }
+
+    /**
+     * Runs a task repeatedly at a fixed rate until it is cancelled.
+     *
+     * @param owner              the lifecycle owner that cancels the task when destroyed, or {@code null}
+     * @param name               a short name shown in {@link #dump()}
+     * @param initialDelayMillis the delay before the first run in milliseconds
+     * @param periodMillis       the time between runs in milliseconds
+     * @param task               the task to run on the main thread
+     * @return the scheduled {@link Timeout}
+     */
+    public Timeout scheduleRepeating(LifecycleOwner owner, String name, long initialDelayMillis, long periodMillis, Runnable task) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("periodMillis must be positive");
+        }
+        return add(owner, name, initialDelayMillis, periodMillis, task);
+    }
+
+    /**
+     * Cancels every task tied to a lifecycle owner.
+     *
+     * @param owner the lifecycle owner
+     */
+    public void cancelAll(LifecycleOwner owner) {
+        Set<Timeout> timeouts = ownedTimeouts.remove(owner);
+        if (timeouts == null) {
+            return;
+        }
+        owner.getLifecycle().removeObserver(lifecycleObserver);
+        for (Timeout timeout : timeouts) {
+            timeout.cancelled = true;
+            unlink(timeout);
+        }
+        rearm();
+    }
+
+    /**
+     * @return the number of tasks waiting to run
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * Describes every active task: its name, time left and how late it last fired.
+     *
+     * @return a multi-line report for logs or a debug screen
+     */
+    public String dump() {
+        long now = AppClock.get().uptimeMillis();
+        StringBuilder report = new StringBuilder();
+        report.append("TimerWheel: ").append(activeCount).append(" active\n");
+        for (Timeout head : slots) {
+            for (Timeout timeout = head; timeout != null; timeout = timeout.next) {
+                report.append("  ").append(timeout.name)
+                        .append(" due in ").append(timeout.deadline - now).append(" ms")
+                        .append(", fired ").append(timeout.fireCount).append("x")
+                        .append(", last late ").append(timeout.lastLatenessMillis).append(" ms\n");
+            }
+        }
+        return report.toString();
+    }
+
+    // Wheel internals _______________________________________________________________________
+
+    private Timeout add(LifecycleOwner owner, String name, long delayMillis, long periodMillis, Runnable task) {
+        long deadline = AppClock.get().uptimeMillis() + Math.max(0, delayMillis);
+        Timeout timeout = new Timeout(name, task, deadline, periodMillis, owner);
+        if (owner != null) {
+            if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+                timeout.cancelled = true;
+                return timeout;  // Never run tasks for an owner that is already gone
+            }
+            Set<Timeout> timeouts = ownedTimeouts.get(owner);
+            if (timeouts == null) {
+                timeouts = new LinkedHashSet<>();
+                ownedTimeouts.put(owner, timeouts);
+                owner.getLifecycle().addObserver(lifecycleObserver);
+            }
+            timeouts.add(timeout);
+        }
+        link(timeout);
+        if (deadline < armedDeadline) {
+            arm(deadline);
+        }
+        return timeout;
+    }
+
+    private void cancel(Timeout timeout) {
+        if (timeout.cancelled) {
+            return;
+        }
+        timeout.cancelled = true;
+        unlink(timeout);
+        forget(timeout);
+        rearm();
+    }
+
+    private void link(Timeout timeout) {
+        // A deadline in a tick that was already walked goes in the next slot to be walked
+        long tick = Math.max(timeout.deadline / TICK_MILLIS, cursorTick + 1);
+        int slot = (int) (tick & (WHEEL_SIZE - 1));
+        timeout.slot = slot;
+        timeout.prev = null;
+        timeout.next = slots[slot];
+        if (slots[slot] != null) {
+            slots[slot].prev = timeout;
+        }
+        slots[slot] = timeout;
+        activeCount++;
+        deadlines.add(new HeapEntry(timeout));
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.slot < 0) {
+            return;
+        }
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            slots[timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.slot = -1;
+        activeCount--;
+    }
+
+    private void forget(Timeout timeout) {
+        if (timeout.owner == null) {
+            return;
+        }
+        Set<Timeout> timeouts = ownedTimeouts.get(timeout.owner);
+        if (timeouts != null) {
+            timeouts.remove(timeout);
+            if (timeouts.isEmpty()) {
+                ownedTimeouts.remove(timeout.owner);
+                timeout.owner.getLifecycle().removeObserver(lifecycleObserver);
+            }
+        }
+    }
+
+    /**
+     * Runs every task whose deadline has passed, then arms the wheel for the next deadline.
+     * <p>
+     * Only the slots of the ticks since the last wake-up are walked, all of them at most once. Tasks
+     * found there that are due in a later turn of the wheel stay where they are.
+     * </p>
+     */
+    private void expireTimeouts() {
+        long now = AppClock.get().uptimeMillis();
+        long nowTick = now / TICK_MILLIS;
+        long firstTick = Math.max(cursorTick + 1, nowTick - WHEEL_SIZE + 1);
+        // The current tick is walked again next time: tasks later in it are not due yet
+        cursorTick = nowTick - 1;
+        List<Timeout> due = new ArrayList<>();
+        for (long tick = firstTick; tick <= nowTick; tick++) {
+            Timeout timeout = slots[(int) (tick & (WHEEL_SIZE - 1))];
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.deadline <= now) {
+                    unlink(timeout);
+                    due.add(timeout);
+                }
+                timeout = next;
+            }
+        }
+
+        for (Timeout timeout : due) {
+            if (timeout.cancelled) {
+                continue;  // Cancelled by an earlier task in this batch
+            }
+            timeout.lastLatenessMillis = now - timeout.deadline;
+            timeout.fireCount++;
+            if (timeout.periodMillis > 0) {
+                // Fixed rate: skip missed periods instead of running them back to back
+                long missed = (now - timeout.deadline) / timeout.periodMillis;
+                timeout.deadline += (missed + 1) * timeout.periodMillis;
+                link(timeout);
+            } else {
+                timeout.cancelled = true;
+                forget(timeout);
+            }
+            timeout.task.run();
+        }
+        rearm();
+    }
+
+    /**
+     * Arms the wake-up callback for the earliest remaining deadline, or disarms it if the wheel is empty.
+     */
+    private void rearm() {
+        long earliest = nextDeadline();
+        if (earliest == NONE) {
+            AppClock.get().removeCallbacks(wakeRunnable);
+            armedDeadline = NONE;
+        } else if (earliest != armedDeadline) {
+            arm(earliest);
+        }
+    }
+
+    /**
+     * Drops stale entries from the top of the heap and returns the earliest live deadline.
+     */
+    private long nextDeadline() {
+        if (deadlines.size() > 2 * activeCount + HEAP_SLACK) {
+            // Mostly stale: keep only the live entries
+            List<HeapEntry> live = new ArrayList<>(activeCount);
+            for (HeapEntry entry : deadlines) {
+                if (!entry.isStale()) {
+                    live.add(entry);
+                }
+            }
+            deadlines.clear();
+            deadlines.addAll(live);
+        }
+        HeapEntry top = deadlines.peek();
+        while (top != null && top.isStale()) {
+            deadlines.poll();
+            top = deadlines.peek();
+        }
+        return top == null ? NONE : top.deadline;
+    }
+
+    private void arm(long deadline) {
+        Clock clock = AppClock.get();
+        clock.removeCallbacks(wakeRunnable);
+        armedDeadline = deadline;
+        clock.postAtTime(wakeRunnable, deadline);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.tetris_concept;
+
+import java.util.PriorityQueue;
+
+/**
+ * A clock that only moves when told to, for running time-driven logic on the JVM.
+ * <p>
+ * Install it with {@link AppClock#set(Clock)}, then call {@link #advanceBy(long)}. Posted tasks
+ * run in deadline order, with the clock set to each task's own deadline while it runs, so timers
+ * fire exactly as they would in real time, only without the waiting. Both the wall clock and the
+ * monotonic clock advance together.
+ * </p>
+ *
+ * <pre>
+ * VirtualClock clock = new VirtualClock(startEpochMillis);
+ * AppClock.set(clock);
+ * clock.advanceBy(7 * VirtualClock.DAY_MILLIS);  // a simulated week
+ * </pre>
+ *
+ * @author Eric
+ */
+public final class VirtualClock implements Clock {
+
+    /** One hour in milliseconds. */
+    public static final long HOUR_MILLIS = 60L * 60L * 1000L;
+
+    /** One day in milliseconds. */
+    public static final long DAY_MILLIS = 24L * HOUR_MILLIS;
+
+    private static final class Pending implements Comparable<Pending> {
+        final Runnable task;
+        final long uptimeMillis;
+        final long sequence;
+
+        Pending(Runnable task, long uptimeMillis, long sequence) {
+            this.task = task;
+            this.uptimeMillis = uptimeMillis;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Pending other) {
+            if (uptimeMillis != other.uptimeMillis) {
+                return Long.compare(uptimeMillis, other.uptimeMillis);
+            }
+            return Long.compare(sequence, other.sequence);  // Same deadline: keep posting order
+        }
+    }
+
+    private final long wallOffsetMillis;
+    private final PriorityQueue<Pending> pending = new PriorityQueue<>();
+    private long uptimeMillis = 0;
+    private long sequence = 0;
+
+    /**
+     * Creates a virtual clock.
+     *
+     * @param startEpochMillis the wall-clock time the simulation starts at
+     */
+    public VirtualClock(long startEpochMillis) {
+        this.wallOffsetMillis = startEpochMillis;
+    }
+
+    @Override
+    public synchronized long currentTimeMillis() {
+        return wallOffsetMillis + uptimeMillis;
+    }
+
+    @Override
+    public synchronized long uptimeMillis() {
+        return uptimeMillis;
+    }
+
+    @Override
+    public synchronized void postAtTime(Runnable task, long atUptimeMillis) {
+        pending.add(new Pending(task, atUptimeMillis, sequence++));
+    }
+
+    @Override
+    public synchronized void removeCallbacks(Runnable task) {
+        pending.removeIf(entry -> entry.task == task);
+    }
+
+    /**
+     * Moves time forward, running every task that falls due on the way.
+     *
+     * @param millis how far to advance
+     * @return the number of tasks that ran
+     */
+    public int advanceBy(long millis) {
+        return advanceTo(uptimeMillis() + millis);
+    }
+
+    /**
+     * Moves the monotonic time forward to a given value, running every task that falls due on the way.
+     *
+     * @param targetUptimeMillis the monotonic time to stop at
+     * @return the number of tasks that ran
+     */
+    public int advanceTo(long targetUptimeMillis) {
+        int ran = 0;
+        while (true) {
+            Pending next;
+            synchronized (this) {
+                next = pending.peek();
+                if (next == null || next.uptimeMillis > targetUptimeMillis) {
+                    uptimeMillis = Math.max(uptimeMillis, targetUptimeMillis);
+                    return ran;
+                }
+                pending.poll();
+                uptimeMillis = Math.max(uptimeMillis, next.uptimeMillis);
+            }
+            next.task.run();  // Run outside the lock; it may post more tasks
+            ran++;
+        }
+    }
+
+    /**
+     * @return the number of tasks waiting to run
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+}
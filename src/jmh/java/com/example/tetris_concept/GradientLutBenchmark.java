@@ -0,0 +1,133 @@
+package com.example.tetris_concept;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Colors per microsecond of a {@link GradientLut} against the per-frame blending it replaced.
+ * <p>
+ * {@code blendColors} and {@code blendColorsRainBow} are copied from {@link AnimFunctions} as they were
+ * before the tables, with the {@code android.graphics.Color} accessors written out the way Android
+ * implements them, so the benchmark runs on the JVM. Each invocation computes the colors of
+ * {@link #FRAMES} animation frames; the LUT methods do what {@link ColorAnimationClock} does per frame.
+ * </p>
+ *
+ * @author Aryan Farhang-pour
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradientLutBenchmark {
+
+    /** Frames computed per invocation. */
+    static final int FRAMES = 1024;
+
+    private static final int[] RAINBOW = {
+            0xFFFF0000, 0xFFFF00FF, 0xFF0000FF, 0xFF00FFFF, 0xFF00FF00, 0xFFFFFF00, 0xFFFF0000
+    };
+
+    private final float[] ratios = new float[FRAMES];
+    private GradientLut twoStops;
+    private GradientLut rainbow;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < FRAMES; i++) {
+            ratios[i] = (i * 0.618034f) % 1f;  // Spread over the gradient without a pattern the JIT can fold
+        }
+        twoStops = GradientLut.of(0xFFFF0000, 0xFF0000FF);
+        rainbow = GradientLut.of(RAINBOW);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public int blendColors() {
+        int sum = 0;
+        for (float ratio : ratios) {
+            sum += blendColors(0xFFFF0000, 0xFF0000FF, ratio);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public int lutTwoStops() {
+        int sum = 0;
+        for (float ratio : ratios) {
+            sum += twoStops.colorAtIndex((int) (ratio * (GradientLut.SIZE - 1)));
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public int blendColorsRainBow() {
+        int sum = 0;
+        for (float ratio : ratios) {
+            // As the rainbow text animator did: a position along the stops, split into index and fraction
+            float animatedValue = ratio * (RAINBOW.length - 1);
+            int colorIndex = (int) animatedValue;
+            int nextColorIndex = (colorIndex + 1) % RAINBOW.length;
+            sum += blendColorsRainBow(RAINBOW[colorIndex], RAINBOW[nextColorIndex], animatedValue - colorIndex);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public int lutRainbow() {
+        int sum = 0;
+        for (float ratio : ratios) {
+            sum += rainbow.colorAtIndex((int) (ratio * (GradientLut.SIZE - 1)));
+        }
+        return sum;
+    }
+
+    // The blending functions the tables replaced ________________________________________________
+
+    private static int blendColors(int color1, int color2, float ratio) {
+        float inverseRatio = 1 - ratio;
+        float r = red(color1) * inverseRatio + red(color2) * ratio;
+        float g = green(color1) * inverseRatio + green(color2) * ratio;
+        float b = blue(color1) * inverseRatio + blue(color2) * ratio;
+        return 0xFF000000 | ((int) r << 16) | ((int) g << 8) | (int) b;  // Color.rgb
+    }
+
+    private static int blendColorsRainBow(int color1, int color2, float ratio) {
+        int alpha = (int) (alpha(color1) * (1 - ratio) + alpha(color2) * ratio);
+        int red = (int) (red(color1) * (1 - ratio) + red(color2) * ratio);
+        int green = (int) (green(color1) * (1 - ratio) + green(color2) * ratio);
+        int blue = (int) (blue(color1) * (1 - ratio) + blue(color2) * ratio);
+        return (alpha << 24) | (red << 16) | (green << 8) | blue;  // Color.argb
+    }
+
+    private static int alpha(int color) {
+        return color >>> 24;
+    }
+
+    private static int red(int color) {
+        return (color >> 16) & 0xFF;
+    }
+
+    private static int green(int color) {
+        return (color >> 8) & 0xFF;
+    }
+
+    private static int blue(int color) {
+        return color & 0xFF;
+    }
+}
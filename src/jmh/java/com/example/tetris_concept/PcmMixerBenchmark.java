@@ -0,0 +1,81 @@
+package com.example.tetris_concept;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixed output samples per second of {@link PcmMixer}.
+ * <p>
+ * Every invocation mixes one block of {@link #BLOCK_FRAMES} stereo frames, the size
+ * {@link AudioTrackOutput} asks for, from looping noise sources loud enough to keep the limiter
+ * working. One score unit is one output sample (left and right count separately), so the score is
+ * directly comparable with the {@value #SAMPLE_RATE} x 2 samples per second playback needs.
+ * </p>
+ *
+ * @author Collin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PcmMixerBenchmark {
+
+    /** Output rate of {@link AudioTrackOutput}. */
+    static final int SAMPLE_RATE = CrossfadeMixer.DEFAULT_SAMPLE_RATE;
+
+    /** Frames per mixed block, as {@link AudioTrackOutput} mixes them (10 ms). */
+    static final int BLOCK_FRAMES = SAMPLE_RATE / 100;
+
+    /** Output samples per invocation. */
+    static final int BLOCK_SAMPLES = BLOCK_FRAMES * PcmMixer.CHANNELS;
+
+    /** Number of sources mixed together. */
+    @Param({"1", "4", "16"})
+    public int sources;
+
+    /** Whether the sources are panned, which uses the per-side gain loop instead of the single-gain one. */
+    @Param({"false", "true"})
+    public boolean panned;
+
+    private PcmMixer mixer;
+    private final short[] out = new short[BLOCK_SAMPLES];
+
+    @Setup
+    public void setUp() {
+        mixer = new PcmMixer(BLOCK_FRAMES);
+        Random random = new Random(42);
+        for (int s = 0; s < sources; s++) {
+            short[] samples = new short[SAMPLE_RATE * PcmMixer.CHANNELS];  // One second, looped
+            for (int i = 0; i < samples.length; i++) {
+                samples[i] = (short) (random.nextInt(1 << 16) - (1 << 15));
+            }
+            PcmMixer.Channel channel = mixer.add(new PcmMixer.SampleSource(samples, true));
+            channel.setGain(0.8f);
+            if (panned) {
+                channel.setPan(s % 2 == 0 ? -0.5f : 0.5f);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BLOCK_SAMPLES)
+    public short[] mixBlock() {
+        mixer.mix(out, BLOCK_FRAMES);
+        return out;
+    }
+}
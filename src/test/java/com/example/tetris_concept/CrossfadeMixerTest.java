@@ -0,0 +1,148 @@
+package com.example.tetris_concept;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+/**
+ * Checks the crossfade curves, the clamping of positions and the saturation of {@link CrossfadeMixer#mix}.
+ *
+ * @author Collin
+ */
+public class CrossfadeMixerTest {
+
+    private static final float TOLERANCE = 1e-5f;
+
+    @Test
+    public void curvesRunFromSilenceToFullGain() {
+        for (CrossfadeMixer.Curve curve : CrossfadeMixer.Curve.values()) {
+            assertEquals(curve.name(), 0f, curve.gainIn(0f), 0f);
+            assertEquals(curve.name(), 1f, curve.gainIn(1f), 0f);
+            assertEquals(curve.name(), 1f, curve.gainOut(0f), 0f);
+            assertEquals(curve.name(), 0f, curve.gainOut(1f), 0f);
+            float previous = 0f;
+            for (int i = 1; i <= 1000; i++) {
+                float gain = curve.gainIn(i / 1000f);
+                assertTrue(curve.name() + " falls at " + i, gain >= previous);
+                previous = gain;
+            }
+        }
+    }
+
+    @Test
+    public void outgoingGainIsTheIncomingCurvePlayedBackwards() {
+        for (CrossfadeMixer.Curve curve : CrossfadeMixer.Curve.values()) {
+            for (int i = 0; i <= 1000; i++) {
+                float progress = i / 1000f;
+                assertEquals(curve.name(), curve.gainIn(1f - progress), curve.gainOut(progress), 0f);
+            }
+            // Both tracks meet halfway
+            assertEquals(curve.name(), curve.gainIn(0.5f), curve.gainOut(0.5f), TOLERANCE);
+        }
+    }
+
+    @Test
+    public void linearGainsAndEqualPowerPowersAddUpToOne() {
+        for (int i = 0; i <= 1000; i++) {
+            float progress = i / 1000f;
+            CrossfadeMixer.Curve linear = CrossfadeMixer.Curve.LINEAR;
+            assertEquals(1f, linear.gainIn(progress) + linear.gainOut(progress), TOLERANCE);
+
+            CrossfadeMixer.Curve equalPower = CrossfadeMixer.Curve.EQUAL_POWER;
+            float in = equalPower.gainIn(progress);
+            float out = equalPower.gainOut(progress);
+            assertEquals(1f, in * in + out * out, 1e-4f);  // Table interpolation leaves a tiny dip
+
+            CrossfadeMixer.Curve sCurve = CrossfadeMixer.Curve.S_CURVE;
+            assertEquals(1f, sCurve.gainIn(progress) + sCurve.gainOut(progress), TOLERANCE);
+        }
+    }
+
+    @Test
+    public void progressAndPositionAreClamped() {
+        CrossfadeMixer.Curve curve = CrossfadeMixer.Curve.EQUAL_POWER;
+        assertEquals(0f, curve.gainIn(-0.5f), 0f);
+        assertEquals(1f, curve.gainIn(1.5f), 0f);
+
+        CrossfadeMixer mixer = new CrossfadeMixer(curve, 480);
+        mixer.setPosition(-10);
+        assertEquals(0, mixer.getPosition());
+        assertEquals(1f, mixer.gainOut(), 0f);
+        assertFalse(mixer.isFinished());
+
+        mixer.advance(1000);
+        assertEquals(480, mixer.getPosition());
+        assertTrue(mixer.isFinished());
+        assertEquals(0f, mixer.gainOut(), 0f);
+        assertEquals(1f, mixer.gainIn(), 0f);
+    }
+
+    @Test
+    public void zeroLengthFadeSwitchesAtOnce() {
+        CrossfadeMixer mixer = new CrossfadeMixer(CrossfadeMixer.Curve.LINEAR, 0);
+        assertTrue(mixer.isFinished());
+        assertEquals(1f, mixer.gainIn(), 0f);
+        assertEquals(0f, mixer.gainOut(), 0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeLengthIsRejected() {
+        new CrossfadeMixer(CrossfadeMixer.Curve.LINEAR, -1);
+    }
+
+    @Test
+    public void millisAreConvertedToWholeFrames() {
+        assertEquals(72000, CrossfadeMixer.millisToFrames(1500, CrossfadeMixer.DEFAULT_SAMPLE_RATE));
+        assertEquals(44, CrossfadeMixer.millisToFrames(1, 44100));
+    }
+
+    @Test
+    public void mixSaturatesInsteadOfWrappingAround() {
+        int frames = 64;
+        short[] loud = new short[frames * 2];
+        short[] quiet = new short[frames * 2];
+        for (int i = 0; i < loud.length; i += 2) {
+            loud[i] = Short.MAX_VALUE;
+            loud[i + 1] = Short.MIN_VALUE;
+        }
+        // Equal power puts both tracks near 0.71 in the middle: full-scale inputs sum past 16 bits
+        CrossfadeMixer mixer = new CrossfadeMixer(CrossfadeMixer.Curve.EQUAL_POWER, 2 * frames);
+        mixer.setPosition(frames / 2);
+        short[] out = new short[frames * 2];
+        mixer.mix(loud, loud, out, frames, 2);
+        for (int i = 0; i < out.length; i += 2) {
+            assertEquals(Short.MAX_VALUE, out[i]);
+            assertEquals(Short.MIN_VALUE, out[i + 1]);
+        }
+        assertEquals(frames / 2 + frames, mixer.getPosition());
+
+        // Null is silence, and the output may be one of the inputs
+        mixer.setPosition(0);
+        mixer.mix(null, quiet, quiet, frames, 2);
+        for (short sample : quiet) {
+            assertEquals(0, sample);
+        }
+    }
+
+    @Test
+    public void mixFollowsTheCurveFrameByFrame() {
+        int frames = 100;
+        short[] outgoing = new short[frames];
+        short[] incoming = new short[frames];
+        Arrays.fill(outgoing, (short) 10000);
+        Arrays.fill(incoming, (short) -10000);
+        CrossfadeMixer mixer = new CrossfadeMixer(CrossfadeMixer.Curve.LINEAR, frames);
+        short[] out = new short[frames];
+        mixer.mix(outgoing, incoming, out, frames, 1);
+
+        for (int frame = 0; frame < frames; frame++) {
+            float progress = (float) frame / frames;
+            assertEquals(Math.round(10000 * (1 - progress) - 10000 * progress), out[frame], 1);
+        }
+        assertTrue(mixer.isFinished());
+    }
+}
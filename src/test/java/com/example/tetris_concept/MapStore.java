@@ -0,0 +1,52 @@
+package com.example.tetris_concept;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link KeyValueStore} over a map, standing in for {@code SharedPreferences} in tests.
+ *
+ * @author Eric
+ */
+final class MapStore implements KeyValueStore {
+
+    private final Map<String, Object> values = new HashMap<>();
+
+    @Override
+    public boolean contains(String key) {
+        return values.containsKey(key);
+    }
+
+    @Override
+    public int getInt(String key, int defaultValue) {
+        Object value = values.get(key);
+        return value == null ? defaultValue : (Integer) value;
+    }
+
+    @Override
+    public long getLong(String key, long defaultValue) {
+        Object value = values.get(key);
+        return value == null ? defaultValue : (Long) value;
+    }
+
+    @Override
+    public String getString(String key, String defaultValue) {
+        Object value = values.get(key);
+        return value == null ? defaultValue : (String) value;
+    }
+
+    @Override
+    public void putInt(String key, int value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putLong(String key, long value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putString(String key, String value) {
+        values.put(key, value);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.tetris_concept;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Checks the gains, pans, limiter and source handling of {@link PcmMixer}.
+ *
+ * @author Collin
+ */
+public class PcmMixerTest {
+
+    private static final int FRAMES = 4;
+
+    /**
+     * @return a looping source repeating one stereo frame
+     */
+    private static PcmMixer.Source constant(int left, int right) {
+        return new PcmMixer.SampleSource(new short[]{(short) left, (short) right}, true);
+    }
+
+    private static short[] mix(PcmMixer mixer) {
+        short[] out = new short[FRAMES * PcmMixer.CHANNELS];
+        mixer.mix(out, FRAMES);
+        return out;
+    }
+
+    @Test
+    public void centeredSourceAtUnityGainPassesThrough() {
+        PcmMixer mixer = new PcmMixer(FRAMES);
+        short[] samples = {100, -200, 300, -400, 500, -600, 700, -800};
+        mixer.add(new PcmMixer.SampleSource(samples, false));
+
+        assertArrayEquals(samples, mix(mixer));
+        assertEquals(PcmMixer.UNITY_GAIN, mixer.getLimiterGain());
+        assertEquals(FRAMES * PcmMixer.CHANNELS, mixer.getMixedSampleCount());
+    }
+
+    @Test
+    public void sourcesAreSummed() {
+        PcmMixer mixer = new PcmMixer(FRAMES);
+        mixer.add(constant(1000, -1000));
+        mixer.add(constant(2000, 500));
+
+        short[] out = mix(mixer);
+        for (int i = 0; i < out.length; i += 2) {
+            assertEquals(3000, out[i]);
+            assertEquals(-500, out[i + 1]);
+        }
+    }
+
+    @Test
+    public void channelAndMasterGainsScaleTheMix() {
+        PcmMixer mixer = new PcmMixer(FRAMES);
+        mixer.add(constant(8000, 8000)).setGain(0.5f);
+        assertEquals(4000, mix(mixer)[0]);
+
+        mixer.setMasterGain(0.25f);
+        assertEquals(1000, mix(mixer)[0]);
+    }
+
+    @Test
+    public void fullPanMovesTheSourceToOneSide() {
+        PcmMixer mixer = new PcmMixer(FRAMES);
+        mixer.add(constant(10000, 10000)).setPan(-1f);
+
+        short[] out = mix(mixer);
+        assertEquals(14142, out[0], 1);  // Constant power: all of both sides on the left
+        assertEquals(0, out[1]);
+
+        PcmMixer right = new PcmMixer(FRAMES);
+        right.add(constant(10000, 10000)).setPan(1f);
+        out = mix(right);
+        assertEquals(0, out[0], 1);
+        assertEquals(14142, out[1], 1);
+    }
+
+    @Test
+    public void limiterPreventsClippingAndRecovers() {
+        PcmMixer mixer = new PcmMixer(FRAMES);
+        PcmMixer.Channel loud = mixer.add(constant(30000, -30000));
+        mixer.add(constant(30000, -30000));
+
+        short[] out = mix(mixer);
+        assertTrue(mixer.getLimiterGain() < PcmMixer.UNITY_GAIN);
+        for (int i = 0; i < out.length; i += 2) {
+            // Scaled down to full scale instead of wrapping around or flattening at a different level
+            assertEquals(Short.MAX_VALUE, out[i], 2);
+            assertEquals(-Short.MAX_VALUE, out[i + 1], 2);
+        }
+
+        loud.setGain(0f);
+        for (int block = 0; block < 200 && mixer.getLimiterGain() < PcmMixer.UNITY_GAIN; block++) {
+            mix(mixer);
+        }
+        assertEquals(PcmMixer.UNITY_GAIN, mixer.getLimiterGain());
+        assertEquals(30000, mix(mixer)[0]);
+    }
+
+    @Test
+    public void endedSourceIsPaddedWithSilence() {
+        PcmMixer mixer = new PcmMixer(FRAMES);
+        PcmMixer.Channel channel = mixer.add(new PcmMixer.SampleSource(new short[]{1, 2, 3, 4}, false));
+
+        assertArrayEquals(new short[]{1, 2, 3, 4, 0, 0, 0, 0}, mix(mixer));
+        assertTrue(channel.isEnded());
+        assertArrayEquals(new short[FRAMES * PcmMixer.CHANNELS], mix(mixer));
+    }
+
+    @Test
+    public void loopingSourceStartsAgainAtItsEnd() {
+        PcmMixer mixer = new PcmMixer(FRAMES);
+        PcmMixer.Channel channel = mixer.add(new PcmMixer.SampleSource(new short[]{1, 2, 3, 4, 5, 6}, true));
+
+        assertArrayEquals(new short[]{1, 2, 3, 4, 5, 6, 1, 2}, mix(mixer));
+        assertArrayEquals(new short[]{3, 4, 5, 6, 1, 2, 3, 4}, mix(mixer));
+        assertFalse(channel.isEnded());
+    }
+
+    @Test
+    public void removedChannelIsNoLongerMixed() {
+        PcmMixer mixer = new PcmMixer(FRAMES);
+        PcmMixer.Channel first = mixer.add(constant(1000, 1000));
+        mixer.add(constant(10, 10));
+
+        mixer.remove(first);
+        assertEquals(10, mix(mixer)[0]);
+        mixer.remove(first);  // Already gone: nothing happens
+        assertEquals(10, mix(mixer)[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void blockLargerThanTheBuffersIsRejected() {
+        PcmMixer mixer = new PcmMixer(FRAMES);
+        mixer.mix(new short[(FRAMES + 1) * PcmMixer.CHANNELS], FRAMES + 1);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.tetris_concept;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+/**
+ * Checks that every built-in pet and variant resolves to a playable table, and that tables reject
+ * transitions and durations that cannot be played.
+ *
+ * @author Aryan Farhang-pour
+ */
+public class PetAnimationTableTest {
+
+    private static final String[] PETS = {"FIRE", "FOX", "SQUIRREL"};
+    private static final String[] VARIANTS = {
+            PetAnimationTable.HOME, PetAnimationTable.PREVIEW, PetAnimationTable.SLEEP,
+            PetAnimationTable.IDLE, PetAnimationTable.RUN};
+
+    @Test
+    public void everyPetAndVariantResolvesToFramesAndADuration() {
+        for (String pet : PETS) {
+            for (String variant : VARIANTS) {
+                PetAnimationTable table = PetAnimationTable.find(pet, variant);
+                assertNotNull(pet + " " + variant, table);
+                assertEquals(pet, table.petKey);
+                assertEquals(variant, table.variant);
+                assertNotNull(pet + " " + variant, table.pose);
+                for (int i = 0; i < table.getStateCount(); i++) {
+                    PetAnimationTable.State state = table.getState(i);
+                    String where = pet + " " + variant + " " + state.name;
+                    assertTrue(where, state.frameRes != 0);
+                    assertTrue(where, state.durationMillis > 0);
+                    assertNotNull(where, state.transform);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void loopsVisitEveryStateAndReturnToTheFirst() {
+        for (String pet : PETS) {
+            for (String variant : VARIANTS) {
+                PetAnimationTable table = PetAnimationTable.find(pet, variant);
+                boolean[] visited = new boolean[table.getStateCount()];
+                int index = 0;
+                for (int step = 0; step < table.getStateCount(); step++) {
+                    visited[index] = true;
+                    index = table.getState(index).next;
+                }
+                assertEquals(pet + " " + variant, 0, index);
+                for (int i = 0; i < visited.length; i++) {
+                    assertTrue(pet + " " + variant + " never shows state " + i, visited[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void sheetFramesCoverEveryStateOfThePet() {
+        for (String pet : PETS) {
+            int[] frames = PetAnimationTable.getFrameResources(pet);
+            assertEquals(pet + " lists a frame twice", frames.length, Arrays.stream(frames).distinct().count());
+            for (String variant : VARIANTS) {
+                PetAnimationTable table = PetAnimationTable.find(pet, variant);
+                for (int i = 0; i < table.getStateCount(); i++) {
+                    int frameRes = table.getState(i).frameRes;
+                    assertTrue(pet + " " + variant + " " + table.getState(i).name,
+                            Arrays.stream(frames).anyMatch(frame -> frame == frameRes));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void unknownPetOrVariantHasNoTable() {
+        assertNull(PetAnimationTable.find("DRAGON", PetAnimationTable.HOME));
+        assertNull(PetAnimationTable.find("FIRE", "GAMEPLAY"));
+        assertEquals(0, PetAnimationTable.getFrameResources("DRAGON").length);
+    }
+
+    @Test
+    public void registeringTheSamePetAndVariantReplacesTheTable() {
+        PetAnimationTable first = new PetAnimationTable("TEST_PET", PetAnimationTable.HOME,
+                PetAnimationTable.Transform.NONE, new PetAnimationTable.State("a", 1, PetAnimationTable.Transform.NONE, 100, 0));
+        PetAnimationTable second = new PetAnimationTable("TEST_PET", PetAnimationTable.HOME,
+                PetAnimationTable.Transform.NONE, new PetAnimationTable.State("b", 2, PetAnimationTable.Transform.NONE, 100, 0));
+        PetAnimationTable.register(first);
+        PetAnimationTable.register(second);
+
+        assertSame(second, PetAnimationTable.find("TEST_PET", PetAnimationTable.HOME));
+        assertEquals(1, PetAnimationTable.getFrameResources("TEST_PET").length);
+        assertEquals(2, PetAnimationTable.getFrameResources("TEST_PET")[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void transitionToAMissingStateIsRejected() {
+        new PetAnimationTable("FIRE", "TEST", PetAnimationTable.Transform.NONE,
+                new PetAnimationTable.State("run", 1, PetAnimationTable.Transform.NONE, 100, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stateWithoutDurationIsRejected() {
+        new PetAnimationTable("FIRE", "TEST", PetAnimationTable.Transform.NONE,
+                new PetAnimationTable.State("run", 1, PetAnimationTable.Transform.NONE, 0, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tableWithoutStatesIsRejected() {
+        new PetAnimationTable("FIRE", "TEST", PetAnimationTable.Transform.NONE);
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.tetris_concept;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Checks that {@link PetRepository} imports the original pets from {@link Storage} once, serves
+ * reads from its table, follows the writes game code still makes to {@link Storage}, and
+ * regenerates stats against a {@link VirtualClock}.
+ *
+ * @author Eric
+ */
+public class PetRepositoryTest {
+
+    /** The per-pet values game code would keep in {@link Storage}, counting the reads. */
+    private static final class FakeStoredPets implements PetRepository.StoredPets {
+        final Map<String, String> names = new HashMap<>();
+        final Map<String, double[]> stats = new HashMap<>();
+        int reads;
+
+        FakeStoredPets() {
+            names.put("FIRE", "Ember");
+            names.put("FOX", "Rusty");
+            names.put("SQUIRREL", "Nutmeg");
+            stats.put("FIRE", new double[]{100, 80, 60, 40});
+            stats.put("FOX", new double[]{90, 70, 50.5, 30});
+            stats.put("SQUIRREL", new double[]{12.1f, 11, 10, 9});
+        }
+
+        @Override
+        public String getName(String petKey) {
+            reads++;
+            return names.get(petKey);
+        }
+
+        @Override
+        public void setName(String petKey, String name) {
+            names.put(petKey, name);
+        }
+
+        @Override
+        public double getStat(String petKey, int stat) {
+            reads++;
+            return stats.get(petKey)[stat];
+        }
+    }
+
+    private VirtualClock clock;
+    private MapStore preferences;
+    private FakeStoredPets storedPets;
+
+    @Before
+    public void setUp() {
+        clock = new VirtualClock(1_700_000_000_000L);
+        AppClock.set(clock);
+        preferences = new MapStore();
+        storedPets = new FakeStoredPets();
+    }
+
+    @After
+    public void tearDown() {
+        AppClock.set(null);
+    }
+
+    @Test
+    public void originalPetsAreImportedOnceAndReadFromTheTable() {
+        PetRepository repository = new PetRepository(preferences, storedPets);
+        assertEquals(PetRepository.STORAGE_PETS.length, repository.getPetCount());
+        assertEquals(0, repository.idOf("FIRE"));
+        assertEquals(2, repository.idOf("SQUIRREL"));
+
+        storedPets.reads = 0;
+        PetRecord.Holder holder = new PetRecord.Holder();
+        for (int id = 0; id < repository.getPetCount(); id++) {
+            repository.readInto(id, holder);
+            repository.getName(id);
+        }
+        assertEquals("reads must not reach Storage", 0, storedPets.reads);
+
+        repository.readInto(repository.idOf("FOX"), holder);
+        assertEquals("Rusty", holder.name);
+        assertEquals(50.5, holder.ma, 0);
+        assertEquals(12.1f, repository.getStat(2, PetRepository.STAT_HP), 0);
+    }
+
+    @Test
+    public void tableIsSavedAndNotImportedAgain() {
+        PetRepository repository = new PetRepository(preferences, storedPets);
+        repository.setStat(0, PetRepository.STAT_FO, 55);
+        int added = repository.registerPet("DRAGON", "Smaug", 1, 2, 3, 4);
+
+        PetRepository reloaded = new PetRepository(preferences, storedPets);
+        assertEquals(55, reloaded.getStat(0, PetRepository.STAT_FO), 0);
+        assertEquals(added, reloaded.idOf("DRAGON"));
+        assertEquals("Smaug", reloaded.getName(added));
+        assertEquals(4, reloaded.getStat(added, PetRepository.STAT_VI), 0);
+    }
+
+    @Test
+    public void statsOfOriginalPetsCanBeSet() {
+        PetRepository repository = new PetRepository(preferences, storedPets);
+        repository.setStat(1, PetRepository.STAT_HP, 42.5);
+        assertEquals(42.5, repository.getStat(1, PetRepository.STAT_HP), 0);
+
+        // A later, unrelated Storage write does not bring back the value Storage still holds
+        repository.onStorageChanged();
+        assertEquals(42.5, repository.getStat(1, PetRepository.STAT_HP), 0);
+    }
+
+    @Test
+    public void renamingAnOriginalPetIsCopiedToStorage() {
+        PetRepository repository = new PetRepository(preferences, storedPets);
+        repository.setName(0, "Blaze");
+        assertEquals("Blaze", storedPets.names.get("FIRE"));
+        assertEquals("Blaze", repository.getName(0));
+    }
+
+    @Test
+    public void gameWritesToStorageAreFollowed() {
+        PetRepository repository = new PetRepository(preferences, storedPets);
+        storedPets.stats.get("SQUIRREL")[PetRepository.STAT_VI] = 3;
+        storedPets.names.put("FOX", "Copper");
+        repository.onStorageChanged();
+        assertEquals(3, repository.getStat(2, PetRepository.STAT_VI), 0);
+        assertEquals("Copper", repository.getName(1));
+
+        // Writes made while no repository was running are picked up when it loads
+        storedPets.stats.get("FIRE")[PetRepository.STAT_MA] = 7;
+        PetRepository reloaded = new PetRepository(preferences, storedPets);
+        assertEquals(7, reloaded.getStat(0, PetRepository.STAT_MA), 0);
+        assertEquals(3, reloaded.getStat(2, PetRepository.STAT_VI), 0);
+    }
+
+    @Test
+    public void statRefillsAtItsRateUpToTheCap() {
+        PetRepository repository = new PetRepository(preferences, storedPets);
+        repository.setStat(0, PetRepository.STAT_HP, 40);  // HP regenerates 10 units an hour by default
+
+        clock.advanceBy(VirtualClock.HOUR_MILLIS - 1);
+        assertEquals(49, repository.getStat(0, PetRepository.STAT_HP), 0);
+        clock.advanceBy(1);
+        assertEquals(50, repository.getStat(0, PetRepository.STAT_HP), 0);
+        PetRecord.Holder holder = new PetRecord.Holder();
+        repository.readInto(0, holder);
+        assertEquals(50, holder.hp, 0);
+        assertEquals(50, repository.getRecord(0).hp, 0);
+
+        // Days away cost one read, and the stat stops at its cap
+        clock.advanceBy(3 * VirtualClock.DAY_MILLIS);
+        assertEquals(100, repository.getStat(0, PetRepository.STAT_HP), 0);
+    }
+
+    @Test
+    public void spendingKeepsTheProgressTowardTheNextUnit() {
+        PetRepository repository = new PetRepository(preferences, storedPets);
+        repository.setRegen(PetRepository.STAT_FO, RegenBucket.perHour(100, 6));  // One unit every 10 minutes
+        repository.setStat(1, PetRepository.STAT_FO, 20);
+
+        clock.advanceBy(25 * 60 * 1000L);  // 2 units and half of the third
+        assertEquals(2, repository.addToStat(1, PetRepository.STAT_FO, -20), 0);
+        clock.advanceBy(5 * 60 * 1000L);
+        assertEquals(3, repository.getStat(1, PetRepository.STAT_FO), 0);
+
+        // The value and its time are saved together, so a reload continues the refill
+        clock.advanceBy(10 * 60 * 1000L);
+        PetRepository reloaded = new PetRepository(preferences, storedPets);
+        reloaded.setRegen(PetRepository.STAT_FO, RegenBucket.perHour(100, 6));
+        assertEquals(4, reloaded.getStat(1, PetRepository.STAT_FO), 0);
+    }
+
+    @Test
+    public void staticStatDoesNotRegenerate() {
+        PetRepository repository = new PetRepository(preferences, storedPets);
+        repository.setRegen(PetRepository.STAT_MA, RegenBucket.STATIC);
+        repository.setStat(2, PetRepository.STAT_MA, 1);
+        clock.advanceBy(VirtualClock.DAY_MILLIS);
+        assertEquals(1, repository.getStat(2, PetRepository.STAT_MA), 0);
+    }
+
+    @Test
+    public void registeringAnExistingKeyKeepsTheRecord() {
+        PetRepository repository = new PetRepository(preferences, storedPets);
+        assertEquals(0, repository.registerPet("FIRE", "Other", 0, 0, 0, 0));
+        assertEquals("Ember", repository.getName(0));
+        assertFalse(repository.idOf("DRAGON") >= 0);
+        assertTrue(repository.registerPet("DRAGON", "Smaug", 0, 0, 0, 0) >= PetRepository.STORAGE_PETS.length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownIdIsRejected() {
+        new PetRepository(preferences, storedPets).getName(PetRepository.STORAGE_PETS.length);
+    }
+}
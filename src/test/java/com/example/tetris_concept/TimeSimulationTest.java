@@ -0,0 +1,271 @@
+package com.example.tetris_concept;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Calendar;
+
+/**
+ * Runs a simulated week of energy refills, parental limits and play time against a {@link VirtualClock}.
+ * <p>
+ * The scheduler and the limit get in-memory stores instead of {@code SharedPreferences} and
+ * {@link Storage}, so a week passes in milliseconds and every timer fires on its exact deadline.
+ * </p>
+ *
+ * @author Eric
+ */
+public class TimeSimulationTest {
+
+    private static final long MINUTE_MILLIS = 60L * 1000L;
+    private static final long PLAY_MILLIS = 4 * VirtualClock.HOUR_MILLIS;     // Daily parental limit
+    private static final long REFILL_MILLIS = VirtualClock.HOUR_MILLIS;       // Until full after the energy runs out
+    private static final long ROUND_MILLIS = 10 * MINUTE_MILLIS;              // One game
+    private static final int ROUND_COST = 25;                                 // Energy one game spends
+
+    /** The values game code would keep in {@link Storage}. */
+    private static final class FakeGameEnergy
+            implements EnergyRefillScheduler.GameEnergy, ParentalLimit.LimitText, PlayTimeTracker.PlayedTime {
+        int energy = EnergyRefillScheduler.FULL_ENERGY;
+        String refillDate = EnergyRefillScheduler.NO_REFILL;
+        String timeLimit = ParentalLimit.NO_LIMIT;
+        boolean limitReached;
+        float playedMinutes;
+
+        @Override
+        public int getEnergy() {
+            return energy;
+        }
+
+        @Override
+        public void setEnergy(int energy) {
+            this.energy = energy;
+        }
+
+        @Override
+        public String getRefillDate() {
+            return refillDate;
+        }
+
+        @Override
+        public void setRefillDate(String refillDate) {
+            this.refillDate = refillDate;
+        }
+
+        @Override
+        public String getTimeLimit() {
+            return timeLimit;
+        }
+
+        @Override
+        public void setTimeLimit(String timeLimit) {
+            this.timeLimit = timeLimit;
+        }
+
+        @Override
+        public void setLimitReached(boolean reached) {
+            limitReached = reached;
+        }
+
+        @Override
+        public float getTotalPlayedTime() {
+            return playedMinutes;
+        }
+
+        @Override
+        public void setTotalPlayedTime(float minutes) {
+            playedMinutes = minutes;
+        }
+    }
+
+    private VirtualClock clock;
+    private FakeGameEnergy game;
+
+    @Before
+    public void setUp() {
+        Calendar monday = Calendar.getInstance();
+        monday.set(2024, Calendar.JANUARY, 1, 8, 0, 0);  // Whole seconds, as Storage keeps its dates
+        monday.set(Calendar.MILLISECOND, 0);
+        clock = new VirtualClock(monday.getTimeInMillis());
+        AppClock.set(clock);
+        TimerWheel.reset();
+        game = new FakeGameEnergy();
+    }
+
+    @After
+    public void tearDown() {
+        TimerWheel.reset();
+        AppClock.set(null);
+    }
+
+    @Test
+    public void simulatedWeekRunsInMilliseconds() {
+        long startNanos = System.nanoTime();
+        EnergyRefillScheduler scheduler = new EnergyRefillScheduler(new MapStore(), game);
+        ParentalLimit limit = new ParentalLimit(new MapStore(), game);
+        PlayTimeTracker playTime = new PlayTimeTracker(new MapStore(), game);
+        int[] notifications = new int[1];
+        scheduler.start((energy, asleep) -> {
+            assertTrue(energy > 0 || asleep);
+            notifications[0]++;
+        });
+
+        int totalRounds = 0;
+        int totalSleeps = 0;
+        for (int day = 0; day < 7; day++) {
+            long dayStart = clock.uptimeMillis();
+            long deadline = clock.currentTimeMillis() + PLAY_MILLIS;
+            limit.setLimit(deadline);
+            int sleeps = 0;
+
+            while (!limit.isLimitReached()) {
+                // Play one game, writing the spent energy the way game code writes Storage
+                game.energy = Math.max(0, scheduler.getEnergy() - ROUND_COST);
+                scheduler.onStorageChanged();
+                if (game.energy == 0) {
+                    // Out of energy: the game writes when the pets are fully rested again
+                    long now = clock.currentTimeMillis();
+                    game.refillDate = EnergyRefillScheduler.formatDate(now + REFILL_MILLIS);
+                    scheduler.onStorageChanged();
+                    // Asleep until the refill date, not as soon as the first unit is back
+                    assertTrue(scheduler.isAsleep());
+                    assertEquals(now + REFILL_MILLIS, scheduler.getWakeMillis());
+                    assertEquals(now + REFILL_MILLIS, scheduler.getFullAtMillis());
+                    sleeps++;
+                }
+                playTime.startPlaying();
+                clock.advanceBy(ROUND_MILLIS);
+                playTime.stopPlaying();
+                totalRounds++;
+                if (scheduler.isAsleep()) {
+                    // Game code still sees the pets asleep while the bar fills; wait for them to wake
+                    assertTrue(scheduler.getEnergy() > 0);
+                    assertEquals(0, game.energy);
+                    assertFalse(EnergyRefillScheduler.NO_REFILL.equals(game.refillDate));
+                    clock.advanceBy(scheduler.getWakeMillis() - clock.currentTimeMillis() - 1);
+                    assertTrue(scheduler.isAsleep());
+                    clock.advanceBy(1);
+                    assertEquals(EnergyRefillScheduler.FULL_ENERGY, game.energy);  // Written by the wake callback
+                }
+                assertFalse(scheduler.isAsleep());
+                assertEquals(EnergyRefillScheduler.NO_REFILL, game.refillDate);
+            }
+
+            // The limit fired during the last game or sleep, never before its deadline
+            assertTrue(clock.currentTimeMillis() >= deadline);
+            assertTrue(clock.currentTimeMillis() < deadline + REFILL_MILLIS);
+            assertTrue(game.limitReached);
+            assertTrue("day " + day + " never ran out of energy", sleeps > 0);
+            totalSleeps += sleeps;
+
+            clock.advanceTo(dayStart + VirtualClock.DAY_MILLIS);  // Overnight the energy refills
+            assertEquals(EnergyRefillScheduler.FULL_ENERGY, scheduler.getEnergy());
+        }
+        scheduler.stop();
+
+        // Only the games count, not the sleeps or the nights, and Storage shows the same total
+        assertEquals(totalRounds * ROUND_MILLIS, playTime.getTotalPlayedMillis());
+        assertEquals(totalRounds * ROUND_MILLIS / (float) MINUTE_MILLIS, game.playedMinutes, 0);
+        assertTrue(totalSleeps >= 7);
+        assertTrue(notifications[0] >= totalRounds + totalSleeps);
+        assertEquals(0, TimerWheel.getInstance().getActiveCount());
+
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        assertTrue("a simulated week took " + elapsedMillis + " ms", elapsedMillis < 1000);
+    }
+
+    @Test
+    public void limitIsReachedExactlyAtItsDeadline() {
+        ParentalLimit limit = new ParentalLimit(new MapStore(), game);
+        long deadline = clock.currentTimeMillis() + PLAY_MILLIS;
+        limit.setLimit(deadline);
+        assertEquals(EnergyRefillScheduler.formatDate(deadline), game.timeLimit);
+
+        clock.advanceBy(PLAY_MILLIS - 1);
+        assertFalse(limit.isLimitReached());
+        clock.advanceBy(1);
+        assertTrue(limit.isLimitReached());
+        assertTrue(game.limitReached);
+
+        limit.clearLimit();
+        assertFalse(limit.isLimitReached());
+        assertFalse(game.limitReached);
+        assertEquals(ParentalLimit.NO_LIMIT, game.timeLimit);
+    }
+
+    @Test
+    public void playTimeCountsOnlyGamesAndIsKept() {
+        MapStore preferences = new MapStore();
+        game.playedMinutes = 30;  // Counted before the tracker existed
+        PlayTimeTracker playTime = new PlayTimeTracker(preferences, game);
+        assertEquals(30 * MINUTE_MILLIS, playTime.getTotalPlayedMillis());
+
+        playTime.startPlaying();
+        clock.advanceBy(ROUND_MILLIS);
+        assertEquals(30 * MINUTE_MILLIS + ROUND_MILLIS, playTime.getTotalPlayedMillis());  // The running game counts
+        playTime.stopPlaying();
+        clock.advanceBy(VirtualClock.HOUR_MILLIS);  // Not playing
+        assertEquals(40, game.playedMinutes, 0);
+
+        // A restart keeps the total
+        playTime = new PlayTimeTracker(preferences, game);
+        assertEquals(40 * MINUTE_MILLIS, playTime.getTotalPlayedMillis());
+
+        // A total game code writes to Storage directly is taken over
+        game.playedMinutes = 0;
+        playTime.startPlaying();
+        clock.advanceBy(ROUND_MILLIS);
+        playTime.stopPlaying();
+        assertEquals(ROUND_MILLIS, playTime.getTotalPlayedMillis());
+
+        playTime.reset();
+        assertEquals(0, playTime.getTotalPlayedMillis());
+        assertEquals(0, game.playedMinutes, 0);
+    }
+
+    @Test
+    public void refillDateWrittenBeforeTheSpendStillWakesFull() {
+        EnergyRefillScheduler scheduler = new EnergyRefillScheduler(new MapStore(), game);
+        long now = clock.currentTimeMillis();
+        game.refillDate = EnergyRefillScheduler.formatDate(now + REFILL_MILLIS);
+        scheduler.onStorageChanged();
+        game.energy = 0;
+        scheduler.onStorageChanged();
+
+        assertTrue(scheduler.isAsleep());
+        assertEquals(now + REFILL_MILLIS, scheduler.getWakeMillis());
+        assertEquals(now + REFILL_MILLIS, scheduler.getFullAtMillis());
+        clock.advanceBy(REFILL_MILLIS);
+        assertFalse(scheduler.isAsleep());
+        assertEquals(EnergyRefillScheduler.FULL_ENERGY, scheduler.getEnergy());
+    }
+
+    @Test
+    public void energyIsFullAtTheRefillDate() {
+        MapStore preferences = new MapStore();
+        EnergyRefillScheduler scheduler = new EnergyRefillScheduler(preferences, game);
+        game.energy = 0;
+        game.refillDate = EnergyRefillScheduler.formatDate(clock.currentTimeMillis() + REFILL_MILLIS);
+        scheduler.onStorageChanged();
+        assertTrue(scheduler.isAsleep());
+
+        // A restart while asleep picks up the saved state; the pets sleep on while the energy returns
+        String refillDate = game.refillDate;
+        scheduler = new EnergyRefillScheduler(preferences, game);
+        clock.advanceBy(REFILL_MILLIS / 2);
+        assertEquals(EnergyRefillScheduler.FULL_ENERGY / 2, scheduler.getEnergy());
+        assertTrue(scheduler.isAsleep());
+        assertEquals(0, game.energy);
+        assertEquals(refillDate, game.refillDate);
+
+        clock.advanceBy(REFILL_MILLIS / 2);
+        assertEquals(EnergyRefillScheduler.FULL_ENERGY, scheduler.getEnergy());
+        assertFalse(scheduler.isAsleep());
+        assertEquals(EnergyRefillScheduler.FULL_ENERGY, game.energy);
+        assertEquals(EnergyRefillScheduler.NO_REFILL, game.refillDate);
+    }
+}
@@ -0,0 +1,628 @@
+package com.example.tetris_concept.tools;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * Build-time tool that finds the beats and sections of every music track and writes a small index
+ * per track.
+ * <p>
+ * Each track is decoded to mono samples: WAV, AIFF and AU files through {@code javax.sound}, anything
+ * else (MP3, OGG) through {@code ffmpeg} on the {@code PATH}. The analysis then runs in four steps:
+ * </p>
+ * <ol>
+ *     <li>Spectral flux: a Hann-windowed FFT of {@value #FRAME_SIZE} samples every {@value #HOP_SIZE}
+ *     samples; the flux of a frame is the summed rise of its log magnitudes over the previous frame.</li>
+ *     <li>Onsets: flux peaks above a moving-average threshold.</li>
+ *     <li>Tempo: the autocorrelation of the flux between 60 and 200 BPM, weighted towards 120 BPM to
+ *     avoid picking half or double the tempo. Beats are then placed on onsets by dynamic programming
+ *     that keeps the gaps close to the tempo, so small drifts and tempo errors are followed.</li>
+ *     <li>Sections: bars of four beats whose loudness changes by more than
+ *     {@value #SECTION_THRESHOLD_DB} dB against the bars before them.</li>
+ * </ol>
+ *
+ * <p>
+ * Tracks are analysed in parallel, one task per track, on all cores. An index starts with the SHA-256
+ * of its track, so a track whose index already matches its content and the analysis version is
+ * skipped. {@link com.example.tetris_concept.BeatIndex} reads the indexes from {@code assets/beats/}.
+ * </p>
+ *
+ * <p>Usage: {@code java com.example.tetris_concept.tools.BeatAnalyzer <res/raw dir> <output dir>}</p>
+ *
+ * <p>
+ * A track that cannot be analysed is reported and the others are still analysed; the exit status is
+ * then 1, so a build step running the tool fails.
+ * </p>
+ *
+ * <p>
+ * Index format ({@code <track>.beats}, big endian): magic {@code "PBTI"} (int), version (short),
+ * SHA-256 of the track (32 bytes), tempo in hundredths of BPM (int), beat count (int), first beat in
+ * milliseconds (int) followed by the gap to each next beat in milliseconds (unsigned short each),
+ * section count (short), and the start of each section in milliseconds (int each).
+ * </p>
+ *
+ * @author Aryan Farhang-pour
+ */
+public class BeatAnalyzer {
+
+    static final int MAGIC = 0x50425449;  // "PBTI"
+    /** Bump when the analysis changes, so every index is rebuilt. */
+    static final int VERSION = 1;
+
+    static final int FRAME_SIZE = 1024;
+    static final int HOP_SIZE = 512;
+    /** Sample rate tracks are decoded to through ffmpeg. */
+    static final int DECODE_SAMPLE_RATE = 22050;
+
+    static final double MIN_BPM = 60;
+    static final double MAX_BPM = 200;
+    /** Tempo the weighting prefers; one octave away halves the weight. */
+    static final double PREFERRED_BPM = 120;
+
+    /** Frames on each side of the moving average used to pick onsets. */
+    static final int ONSET_WINDOW = 8;
+    /** How strongly the beat tracker holds gaps to the estimated period. */
+    static final double BEAT_TIGHTNESS = 100;
+
+    static final int BEATS_PER_BAR = 4;
+    /** Bars compared on each side of a possible section boundary. */
+    static final int SECTION_CONTEXT_BARS = 4;
+    /** Shortest section in bars. */
+    static final int MIN_SECTION_BARS = 8;
+    static final double SECTION_THRESHOLD_DB = 3.0;
+
+    private static final String INDEX_SUFFIX = ".beats";
+    private static final List<String> JAVA_SOUND_TYPES = Arrays.asList("wav", "aif", "aiff", "au");
+    private static final List<String> TRACK_TYPES = Arrays.asList("wav", "aif", "aiff", "au", "mp3", "ogg", "m4a", "flac");
+
+    /**
+     * Mono samples between -1 and 1.
+     */
+    static final class Samples {
+        final float[] data;
+        final int sampleRate;
+
+        Samples(float[] data, int sampleRate) {
+            this.data = data;
+            this.sampleRate = sampleRate;
+        }
+    }
+
+    /**
+     * The result of analysing one track.
+     */
+    static final class Analysis {
+        final double tempoBpm;
+        final int[] beatMillis;
+        final int[] sectionMillis;
+
+        Analysis(double tempoBpm, int[] beatMillis, int[] sectionMillis) {
+            this.tempoBpm = tempoBpm;
+            this.beatMillis = beatMillis;
+            this.sectionMillis = sectionMillis;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.out.println("Usage: BeatAnalyzer <res/raw dir> <output dir>");
+            return;
+        }
+        File trackDir = new File(args[0]);
+        File outputDir = new File(args[1]);
+        if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+            System.out.println("Could not create " + outputDir);
+            return;
+        }
+
+        File[] files = trackDir.listFiles((dir, name) -> TRACK_TYPES.contains(extensionOf(name)));
+        if (files == null || files.length == 0) {
+            System.out.println("No music tracks found in " + trackDir);
+            return;
+        }
+        Arrays.sort(files);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        List<Future<String>> results = new ArrayList<>();
+        for (File track : files) {
+            results.add(executor.submit(() -> analyseTrack(track, outputDir)));
+        }
+        executor.shutdown();
+        int failed = 0;
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                System.out.println(results.get(i).get());
+            } catch (ExecutionException e) {
+                // One bad track must not stop the others; its old index, if any, is left as it was
+                failed++;
+                System.out.println("Error analysing " + files[i].getName() + ": " + e.getCause());
+                e.getCause().printStackTrace();
+            }
+        }
+        if (failed > 0) {
+            System.out.println(failed + " of " + files.length + " tracks could not be analysed.");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Analyses one track and writes its index, unless the existing index is up to date.
+     *
+     * @return a one-line report
+     */
+    static String analyseTrack(File track, File outputDir) throws IOException, InterruptedException {
+        String name = baseNameOf(track.getName());
+        File indexFile = new File(outputDir, name + INDEX_SUFFIX);
+        byte[] hash = sha256(Files.readAllBytes(track.toPath()));
+        if (isUpToDate(indexFile, hash)) {
+            return name + ": unchanged, skipped";
+        }
+
+        long start = System.nanoTime();
+        Samples samples = decode(track);
+        Analysis analysis = analyse(samples);
+        writeIndex(indexFile, hash, analysis);
+        return String.format(Locale.US, "%s: %.1f BPM, %d beats, %d sections (%d ms)", name, analysis.tempoBpm,
+                analysis.beatMillis.length, analysis.sectionMillis.length, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Decoding __________________________________________________________________________________
+
+    static Samples decode(File track) throws IOException, InterruptedException {
+        if (JAVA_SOUND_TYPES.contains(extensionOf(track.getName()))) {
+            try {
+                return decodeWithJavaSound(track);
+            } catch (UnsupportedAudioFileException e) {
+                // Compressed WAV and the like: let ffmpeg try
+            }
+        }
+        return decodeWithFfmpeg(track);
+    }
+
+    private static Samples decodeWithJavaSound(File track) throws IOException, UnsupportedAudioFileException {
+        try (AudioInputStream source = AudioSystem.getAudioInputStream(track)) {
+            AudioFormat sourceFormat = source.getFormat();
+            int channels = sourceFormat.getChannels();
+            AudioFormat pcm = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, sourceFormat.getSampleRate(),
+                    16, channels, channels * 2, sourceFormat.getSampleRate(), false);
+            try (AudioInputStream stream = AudioSystem.getAudioInputStream(pcm, source)) {
+                return toMono(readAll(stream), channels, (int) sourceFormat.getSampleRate());
+            }
+        }
+    }
+
+    private static Samples decodeWithFfmpeg(File track) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder("ffmpeg", "-v", "error", "-i", track.getPath(),
+                "-f", "s16le", "-ac", "1", "-ar", String.valueOf(DECODE_SAMPLE_RATE), "-")
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        byte[] pcm;
+        try (InputStream stdout = process.getInputStream()) {
+            pcm = readAll(stdout);
+        }
+        if (process.waitFor() != 0) {
+            throw new IOException("ffmpeg could not decode " + track);
+        }
+        return toMono(pcm, 1, DECODE_SAMPLE_RATE);
+    }
+
+    private static byte[] readAll(InputStream stream) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1 << 16];
+        int read;
+        while ((read = stream.read(buffer)) != -1) {
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Turns interleaved little-endian 16-bit PCM into mono floats by averaging the channels.
+     */
+    private static Samples toMono(byte[] pcm, int channels, int sampleRate) {
+        int frames = pcm.length / (2 * channels);
+        float[] mono = new float[frames];
+        int offset = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            int sum = 0;
+            for (int channel = 0; channel < channels; channel++, offset += 2) {
+                sum += (short) ((pcm[offset] & 0xFF) | (pcm[offset + 1] << 8));
+            }
+            mono[frame] = sum / (32768f * channels);
+        }
+        return new Samples(mono, sampleRate);
+    }
+
+    // Analysis __________________________________________________________________________________
+
+    static Analysis analyse(Samples samples) {
+        double[] flux = spectralFlux(samples.data);
+        double frameSeconds = (double) HOP_SIZE / samples.sampleRate;
+        if (flux.length < 2) {
+            return new Analysis(0, new int[0], new int[]{0});
+        }
+
+        boolean[] onsets = pickOnsets(flux);
+        double period = estimatePeriod(flux, frameSeconds);
+        double[] beatFrames = trackBeats(flux, onsets, period);
+
+        int[] beatMillis = new int[beatFrames.length];
+        for (int i = 0; i < beatFrames.length; i++) {
+            // A frame's flux belongs to its middle
+            beatMillis[i] = (int) Math.round((beatFrames[i] * HOP_SIZE + FRAME_SIZE / 2.0) * 1000 / samples.sampleRate);
+        }
+        int[] sectionMillis = findSections(samples, beatMillis);
+        return new Analysis(60.0 / (period * frameSeconds), beatMillis, sectionMillis);
+    }
+
+    /**
+     * @return the spectral flux of every analysis frame
+     */
+    static double[] spectralFlux(float[] samples) {
+        int frames = samples.length < FRAME_SIZE ? 0 : (samples.length - FRAME_SIZE) / HOP_SIZE + 1;
+        double[] flux = new double[frames];
+        double[] window = new double[FRAME_SIZE];
+        for (int i = 0; i < FRAME_SIZE; i++) {
+            window[i] = 0.5 - 0.5 * Math.cos(2 * Math.PI * i / (FRAME_SIZE - 1));
+        }
+
+        Fft fft = new Fft(FRAME_SIZE);
+        double[] re = new double[FRAME_SIZE];
+        double[] im = new double[FRAME_SIZE];
+        double[] previous = new double[FRAME_SIZE / 2 + 1];
+        double[] magnitude = new double[FRAME_SIZE / 2 + 1];
+        for (int frame = 0; frame < frames; frame++) {
+            int start = frame * HOP_SIZE;
+            for (int i = 0; i < FRAME_SIZE; i++) {
+                re[i] = samples[start + i] * window[i];
+                im[i] = 0;
+            }
+            fft.transform(re, im);
+
+            double sum = 0;
+            for (int bin = 0; bin < magnitude.length; bin++) {
+                // Log compression keeps quiet instruments from being drowned out by loud ones
+                magnitude[bin] = Math.log1p(100 * Math.hypot(re[bin], im[bin]));
+                double rise = magnitude[bin] - previous[bin];
+                if (rise > 0) {
+                    sum += rise;
+                }
+            }
+            flux[frame] = frame == 0 ? 0 : sum;
+            double[] swap = previous;
+            previous = magnitude;
+            magnitude = swap;
+        }
+        return flux;
+    }
+
+    /**
+     * @return for each frame, whether it is an onset: a local flux peak above the moving average
+     */
+    static boolean[] pickOnsets(double[] flux) {
+        double max = 0;
+        for (double value : flux) {
+            max = Math.max(max, value);
+        }
+        boolean[] onsets = new boolean[flux.length];
+        for (int i = 0; i < flux.length; i++) {
+            int from = Math.max(0, i - ONSET_WINDOW);
+            int to = Math.min(flux.length - 1, i + ONSET_WINDOW);
+            double mean = 0;
+            boolean peak = true;
+            for (int j = from; j <= to; j++) {
+                mean += flux[j];
+                if (Math.abs(j - i) <= 3 && flux[j] > flux[i]) {
+                    peak = false;
+                }
+            }
+            mean /= to - from + 1;
+            onsets[i] = peak && flux[i] > mean + 0.05 * max;
+        }
+        return onsets;
+    }
+
+    /**
+     * @return the beat period in frames, with a fractional part
+     */
+    static double estimatePeriod(double[] flux, double frameSeconds) {
+        int minLag = Math.max(1, (int) Math.floor(60 / (MAX_BPM * frameSeconds)));
+        int maxLag = Math.min(flux.length - 1, (int) Math.ceil(60 / (MIN_BPM * frameSeconds)));
+        double preferredLag = 60 / (PREFERRED_BPM * frameSeconds);
+
+        double mean = 0;
+        for (double value : flux) {
+            mean += value;
+        }
+        mean /= flux.length;
+
+        double[] score = new double[maxLag + 2];
+        int bestLag = minLag;
+        for (int lag = minLag; lag <= maxLag; lag++) {
+            double sum = 0;
+            for (int i = lag; i < flux.length; i++) {
+                sum += (flux[i] - mean) * (flux[i - lag] - mean);
+            }
+            double octaves = Math.log(lag / preferredLag) / Math.log(2);
+            score[lag] = sum / (flux.length - lag) * Math.exp(-0.5 * octaves * octaves);
+            if (score[lag] > score[bestLag]) {
+                bestLag = lag;
+            }
+        }
+
+        // Parabolic interpolation between the neighbouring lags gives a fractional period
+        if (bestLag > minLag && bestLag < maxLag) {
+            double left = score[bestLag - 1];
+            double centre = score[bestLag];
+            double right = score[bestLag + 1];
+            double denominator = left - 2 * centre + right;
+            if (denominator < 0) {
+                return bestLag + 0.5 * (left - right) / denominator;
+            }
+        }
+        return bestLag;
+    }
+
+    /**
+     * Places the beats with dynamic programming: each frame's score is its onset strength plus the
+     * best score of an earlier beat, less a penalty for how far the gap is from the period. Following
+     * the best chain back from the end gives beats that sit on onsets and still keep a steady tempo,
+     * even when the estimated period is slightly off.
+     *
+     * @return the beat positions in frames
+     */
+    static double[] trackBeats(double[] flux, boolean[] onsets, double period) {
+        int n = flux.length;
+        double mean = 0;
+        for (double value : flux) {
+            mean += value;
+        }
+        mean /= n;
+        double deviation = 0;
+        for (double value : flux) {
+            deviation += (value - mean) * (value - mean);
+        }
+        deviation = Math.sqrt(deviation / n);
+
+        // Onsets count in full; other frames only by how much they stand out
+        double[] strength = new double[n];
+        for (int i = 0; i < n; i++) {
+            double normalised = deviation > 0 ? flux[i] / deviation : 0;
+            strength[i] = onsets[i] ? normalised : normalised * 0.5;
+        }
+
+        double[] score = new double[n];
+        int[] previous = new int[n];
+        int shortest = Math.max(1, (int) Math.round(period / 2));
+        int longest = (int) Math.round(period * 2);
+        for (int i = 0; i < n; i++) {
+            double best = Double.NEGATIVE_INFINITY;
+            int bestPrevious = -1;
+            for (int j = Math.max(0, i - longest); j <= i - shortest; j++) {
+                double gapError = Math.log((i - j) / period);
+                double candidate = score[j] - BEAT_TIGHTNESS * gapError * gapError;
+                if (candidate > best) {
+                    best = candidate;
+                    bestPrevious = j;
+                }
+            }
+            if (bestPrevious >= 0 && best > 0) {
+                score[i] = strength[i] + best;
+                previous[i] = bestPrevious;
+            } else {
+                score[i] = strength[i];
+                previous[i] = -1;
+            }
+        }
+
+        // The last beat is the best scoring frame within one period of the end
+        int last = n - 1;
+        for (int i = Math.max(0, n - (int) Math.ceil(period)); i < n; i++) {
+            if (score[i] > score[last]) {
+                last = i;
+            }
+        }
+        List<Double> beats = new ArrayList<>();
+        for (int beat = last; beat >= 0; beat = previous[beat]) {
+            beats.add(0, (double) beat);
+        }
+
+        double[] result = new double[beats.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = beats.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * @return the start of each section in milliseconds; the first section starts at 0
+     */
+    static int[] findSections(Samples samples, int[] beatMillis) {
+        int bars = beatMillis.length / BEATS_PER_BAR;
+        double[] loudness = new double[bars];
+        for (int bar = 0; bar < bars; bar++) {
+            int from = (int) ((long) beatMillis[bar * BEATS_PER_BAR] * samples.sampleRate / 1000);
+            int to = bar + 1 < bars
+                    ? (int) ((long) beatMillis[(bar + 1) * BEATS_PER_BAR] * samples.sampleRate / 1000)
+                    : samples.data.length;
+            double energy = 0;
+            for (int i = from; i < to && i < samples.data.length; i++) {
+                energy += samples.data[i] * samples.data[i];
+            }
+            loudness[bar] = 10 * Math.log10(energy / Math.max(1, to - from) + 1e-10);
+        }
+
+        // Change in loudness between the bars before and after each boundary
+        double[] change = new double[bars];
+        for (int bar = SECTION_CONTEXT_BARS; bar + SECTION_CONTEXT_BARS <= bars; bar++) {
+            double before = 0;
+            double after = 0;
+            for (int i = 0; i < SECTION_CONTEXT_BARS; i++) {
+                before += loudness[bar - 1 - i];
+                after += loudness[bar + i];
+            }
+            change[bar] = Math.abs(after - before) / SECTION_CONTEXT_BARS;
+        }
+
+        List<Integer> sections = new ArrayList<>();
+        sections.add(0);
+        int lastBar = 0;
+        for (int bar = 1; bar < bars; bar++) {
+            boolean localMax = change[bar] >= change[bar - 1] && (bar + 1 >= bars || change[bar] >= change[bar + 1]);
+            if (localMax && change[bar] > SECTION_THRESHOLD_DB && bar - lastBar >= MIN_SECTION_BARS) {
+                sections.add(beatMillis[bar * BEATS_PER_BAR]);
+                lastBar = bar;
+            }
+        }
+
+        int[] result = new int[sections.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = sections.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * In-place iterative radix-2 FFT with precomputed twiddle factors.
+     */
+    static final class Fft {
+        private final int size;
+        private final double[] cos;
+        private final double[] sin;
+        private final int[] reversed;
+
+        Fft(int size) {
+            if (Integer.bitCount(size) != 1) {
+                throw new IllegalArgumentException("FFT size must be a power of two: " + size);
+            }
+            this.size = size;
+            cos = new double[size / 2];
+            sin = new double[size / 2];
+            for (int i = 0; i < size / 2; i++) {
+                cos[i] = Math.cos(2 * Math.PI * i / size);
+                sin[i] = -Math.sin(2 * Math.PI * i / size);
+            }
+            reversed = new int[size];
+            int bits = Integer.numberOfTrailingZeros(size);
+            for (int i = 0; i < size; i++) {
+                reversed[i] = Integer.reverse(i) >>> (32 - bits);
+            }
+        }
+
+        void transform(double[] re, double[] im) {
+            for (int i = 0; i < size; i++) {
+                int j = reversed[i];
+                if (j > i) {
+                    double swap = re[i];
+                    re[i] = re[j];
+                    re[j] = swap;
+                    swap = im[i];
+                    im[i] = im[j];
+                    im[j] = swap;
+                }
+            }
+            for (int length = 2; length <= size; length <<= 1) {
+                int half = length / 2;
+                int step = size / length;
+                for (int start = 0; start < size; start += length) {
+                    for (int k = 0; k < half; k++) {
+                        double wr = cos[k * step];
+                        double wi = sin[k * step];
+                        int even = start + k;
+                        int odd = even + half;
+                        double tr = re[odd] * wr - im[odd] * wi;
+                        double ti = re[odd] * wi + im[odd] * wr;
+                        re[odd] = re[even] - tr;
+                        im[odd] = im[even] - ti;
+                        re[even] += tr;
+                        im[even] += ti;
+                    }
+                }
+            }
+        }
+    }
+
+    // Index _____________________________________________________________________________________
+
+    static void writeIndex(File file, byte[] hash, Analysis analysis) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.write(hash);
+            out.writeInt((int) Math.round(analysis.tempoBpm * 100));
+            out.writeInt(analysis.beatMillis.length);
+            for (int i = 0; i < analysis.beatMillis.length; i++) {
+                if (i == 0) {
+                    out.writeInt(analysis.beatMillis[0]);
+                } else {
+                    out.writeShort(Math.min(0xFFFF, analysis.beatMillis[i] - analysis.beatMillis[i - 1]));
+                }
+            }
+            out.writeShort(analysis.sectionMillis.length);
+            for (int start : analysis.sectionMillis) {
+                out.writeInt(start);
+            }
+        }
+    }
+
+    /**
+     * @return whether the index exists and was written by this analysis version for this content
+     */
+    static boolean isUpToDate(File indexFile, byte[] hash) {
+        if (!indexFile.isFile()) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                return false;
+            }
+            byte[] stored = new byte[hash.length];
+            in.readFully(stored);
+            return Arrays.equals(stored, hash);
+        } catch (IOException e) {
+            return false;  // Unreadable: analyse again
+        }
+    }
+
+    static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is missing from this JVM", e);
+        }
+    }
+
+    private static String extensionOf(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static String baseNameOf(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? fileName : fileName.substring(0, dot);
+    }
+}
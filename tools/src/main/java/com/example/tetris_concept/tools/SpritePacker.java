@@ -0,0 +1,386 @@
+package com.example.tetris_concept.tools;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.imageio.ImageIO;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+/**
+ * Build-time tool that packs the pet frame PNGs into one power-of-two atlas per pet.
+ * <p>
+ * It reads every {@code <pet>_<state>_frame_animation.xml} animation list in a drawable folder,
+ * loads the frame PNGs it names, and packs each pet's frames with the MaxRects bin packer
+ * (best short side fit). For every pet it writes {@code <pet>.png} and {@code <pet>.bin} into the
+ * output folder; {@link com.example.tetris_concept.SpriteSheet} loads both from
+ * {@code assets/sprites/} when they are there.
+ * </p>
+ *
+ * <p>
+ * Pets are packed in parallel, one task per pet. The output is deterministic: frames are sorted by a
+ * fixed key before packing and ties are broken by name, so the same input always gives the same files.
+ * </p>
+ *
+ * <p>Usage: {@code java com.example.tetris_concept.tools.SpritePacker <res/drawable dir> <output dir>}</p>
+ *
+ * <p>
+ * Metadata format ({@code <pet>.bin}, big endian): magic {@code "PSPR"}, version (short), atlas width
+ * and height (short each), density of the source folder in dpi (short, 0 for {@code nodpi}), sequence
+ * count (short); then per sequence: drawable name (UTF), one-shot
+ * flag (byte), frame count (short); then per frame: x, y, width, height (short each), duration in
+ * milliseconds (int).
+ * </p>
+ *
+ * <p>
+ * The atlas keeps the source pixels. The density, taken from the drawable folder's qualifier, lets
+ * the app show the frames at the size Android would give the same PNGs from that folder.
+ * </p>
+ *
+ * @author Aryan Farhang-pour
+ */
+public class SpritePacker {
+
+    static final int MAGIC = 0x50535052;  // "PSPR"
+    static final int VERSION = 2;
+
+    /** Density of {@code drawable/} and {@code drawable-mdpi/}, in dots per inch. */
+    static final int DEFAULT_DENSITY = 160;
+
+    /** Largest atlas side the packer will try; Android handles 4096 textures on every target device. */
+    static final int MAX_ATLAS_SIZE = 4096;
+
+    private static final String ANDROID_NS = "http://schemas.android.com/apk/res/android";
+    private static final String FRAME_LIST_SUFFIX = "_frame_animation.xml";
+
+    /**
+     * One frame of a sequence.
+     */
+    static final class Frame {
+        final String name;
+        final BufferedImage image;
+        final int durationMillis;
+        int x;
+        int y;
+
+        Frame(String name, BufferedImage image, int durationMillis) {
+            this.name = name;
+            this.image = image;
+            this.durationMillis = durationMillis;
+        }
+    }
+
+    /**
+     * One animation list: its drawable name and frames in play order.
+     */
+    static final class Sequence {
+        final String name;
+        final boolean oneShot;
+        final List<Frame> frames = new ArrayList<>();
+
+        Sequence(String name, boolean oneShot) {
+            this.name = name;
+            this.oneShot = oneShot;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.out.println("Usage: SpritePacker <res/drawable dir> <output dir>");
+            System.exit(1);
+        }
+        File drawableDir = new File(args[0]);
+        File outputDir = new File(args[1]);
+        if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+            throw new IOException("Cannot create " + outputDir);
+        }
+
+        Map<String, List<Sequence>> pets = readSequences(drawableDir);
+        int density = densityOf(drawableDir);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(pets.size(), Runtime.getRuntime().availableProcessors())));
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (Map.Entry<String, List<Sequence>> pet : pets.entrySet()) {
+                results.add(executor.submit(() -> packPet(pet.getKey(), pet.getValue(), density, outputDir)));
+            }
+            for (Future<String> result : results) {
+                System.out.println(result.get());  // In pet order, whatever order the tasks finished in
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // Input _______________________________________________________________________________________
+
+    /**
+     * Reads every frame animation list in a drawable folder, grouped by pet and sorted by name.
+     */
+    static Map<String, List<Sequence>> readSequences(File drawableDir) throws Exception {
+        File[] lists = drawableDir.listFiles((dir, name) -> name.endsWith(FRAME_LIST_SUFFIX));
+        if (lists == null) {
+            throw new IOException("Not a folder: " + drawableDir);
+        }
+        Arrays.sort(lists, Comparator.comparing(File::getName));
+
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        Map<String, List<Sequence>> pets = new TreeMap<>();
+        for (File list : lists) {
+            String sequenceName = list.getName().substring(0, list.getName().length() - ".xml".length());
+            String pet = sequenceName.substring(0, sequenceName.indexOf('_'));
+
+            Document document = factory.newDocumentBuilder().parse(list);
+            Element root = document.getDocumentElement();
+            Sequence sequence = new Sequence(sequenceName, Boolean.parseBoolean(root.getAttributeNS(ANDROID_NS, "oneshot")));
+            NodeList items = root.getElementsByTagName("item");
+            for (int i = 0; i < items.getLength(); i++) {
+                Element item = (Element) items.item(i);
+                String frameName = item.getAttributeNS(ANDROID_NS, "drawable").replace("@drawable/", "");
+                int duration = Integer.parseInt(item.getAttributeNS(ANDROID_NS, "duration"));
+                BufferedImage image = ImageIO.read(new File(drawableDir, frameName + ".png"));
+                if (image == null) {
+                    throw new IOException("Cannot read frame " + frameName + " of " + sequenceName);
+                }
+                sequence.frames.add(new Frame(frameName, image, duration));
+            }
+            pets.computeIfAbsent(pet, key -> new ArrayList<>()).add(sequence);
+        }
+        return pets;
+    }
+
+    /**
+     * Reads the density qualifier of a drawable folder, e.g. 320 for {@code drawable-xhdpi}.
+     *
+     * @return the density in dpi, {@link #DEFAULT_DENSITY} for a folder without one, or 0 for {@code nodpi}
+     */
+    static int densityOf(File drawableDir) {
+        for (String qualifier : drawableDir.getName().split("-")) {
+            switch (qualifier) {
+                case "nodpi":
+                    return 0;
+                case "ldpi":
+                    return 120;
+                case "mdpi":
+                    return 160;
+                case "hdpi":
+                    return 240;
+                case "xhdpi":
+                    return 320;
+                case "xxhdpi":
+                    return 480;
+                case "xxxhdpi":
+                    return 640;
+                default:
+                    break;
+            }
+        }
+        return DEFAULT_DENSITY;
+    }
+
+    // Packing _____________________________________________________________________________________
+
+    /**
+     * Packs one pet and writes its atlas and metadata.
+     *
+     * @param density the density of the source folder in dpi, see {@link #densityOf(File)}
+     * @return a one-line summary
+     */
+    static String packPet(String pet, List<Sequence> sequences, int density, File outputDir) throws IOException {
+        List<Frame> frames = new ArrayList<>();
+        for (Sequence sequence : sequences) {
+            frames.addAll(sequence.frames);
+        }
+        int[] size = pack(frames);
+
+        BufferedImage atlas = new BufferedImage(size[0], size[1], BufferedImage.TYPE_INT_ARGB);
+        for (Frame frame : frames) {
+            atlas.setRGB(frame.x, frame.y, frame.image.getWidth(), frame.image.getHeight(),
+                    frame.image.getRGB(0, 0, frame.image.getWidth(), frame.image.getHeight(), null, 0, frame.image.getWidth()),
+                    0, frame.image.getWidth());
+        }
+        ImageIO.write(atlas, "png", new File(outputDir, pet + ".png"));
+        writeMetadata(new File(outputDir, pet + ".bin"), size, density, sequences);
+
+        return pet + ": " + frames.size() + " frames in " + size[0] + "x" + size[1];
+    }
+
+    /**
+     * Places every frame in the smallest power-of-two atlas it fits in, growing the shorter side first.
+     *
+     * @param frames the frames; their {@code x} and {@code y} are set
+     * @return the atlas width and height
+     */
+    static int[] pack(List<Frame> frames) {
+        // Fixed order: tallest first, then widest, then by name, so equal inputs give equal atlases
+        List<Frame> order = new ArrayList<>(frames);
+        order.sort(Comparator.<Frame>comparingInt(f -> -f.image.getHeight())
+                .thenComparingInt(f -> -f.image.getWidth())
+                .thenComparing(f -> f.name));
+
+        long area = 0;
+        int maxWidth = 1;
+        int maxHeight = 1;
+        for (Frame frame : order) {
+            area += (long) frame.image.getWidth() * frame.image.getHeight();
+            maxWidth = Math.max(maxWidth, frame.image.getWidth());
+            maxHeight = Math.max(maxHeight, frame.image.getHeight());
+        }
+        int width = nextPowerOfTwo(maxWidth);
+        int height = nextPowerOfTwo(maxHeight);
+        while ((long) width * height < area) {
+            if (width <= height) {
+                width *= 2;
+            } else {
+                height *= 2;
+            }
+        }
+
+        while (width <= MAX_ATLAS_SIZE && height <= MAX_ATLAS_SIZE) {
+            if (new MaxRects(width, height).placeAll(order)) {
+                return new int[]{width, height};
+            }
+            if (width <= height) {
+                width *= 2;
+            } else {
+                height *= 2;
+            }
+        }
+        throw new IllegalStateException("Frames do not fit in a " + MAX_ATLAS_SIZE + " atlas");
+    }
+
+    static int nextPowerOfTwo(int value) {
+        int power = 1;
+        while (power < value) {
+            power <<= 1;
+        }
+        return power;
+    }
+
+    /**
+     * MaxRects bin packer with the best short side fit rule.
+     */
+    static final class MaxRects {
+        private final List<int[]> free = new ArrayList<>();  // {x, y, width, height}
+
+        MaxRects(int width, int height) {
+            free.add(new int[]{0, 0, width, height});
+        }
+
+        boolean placeAll(List<Frame> frames) {
+            for (Frame frame : frames) {
+                int[] spot = findSpot(frame.image.getWidth(), frame.image.getHeight());
+                if (spot == null) {
+                    return false;
+                }
+                frame.x = spot[0];
+                frame.y = spot[1];
+                split(spot);
+            }
+            return true;
+        }
+
+        private int[] findSpot(int width, int height) {
+            int[] best = null;
+            int bestShort = Integer.MAX_VALUE;
+            int bestLong = Integer.MAX_VALUE;
+            for (int[] rect : free) {
+                if (rect[2] >= width && rect[3] >= height) {
+                    int leftoverX = rect[2] - width;
+                    int leftoverY = rect[3] - height;
+                    int shortSide = Math.min(leftoverX, leftoverY);
+                    int longSide = Math.max(leftoverX, leftoverY);
+                    if (shortSide < bestShort || (shortSide == bestShort && longSide < bestLong)) {
+                        best = new int[]{rect[0], rect[1], width, height};
+                        bestShort = shortSide;
+                        bestLong = longSide;
+                    }
+                }
+            }
+            return best;
+        }
+
+        // Cuts the used rectangle out of every free rectangle it overlaps, then drops contained ones
+        private void split(int[] used) {
+            List<int[]> next = new ArrayList<>();
+            for (int[] rect : free) {
+                if (used[0] >= rect[0] + rect[2] || used[0] + used[2] <= rect[0]
+                        || used[1] >= rect[1] + rect[3] || used[1] + used[3] <= rect[1]) {
+                    next.add(rect);
+                    continue;
+                }
+                if (used[0] > rect[0]) {
+                    next.add(new int[]{rect[0], rect[1], used[0] - rect[0], rect[3]});
+                }
+                if (used[0] + used[2] < rect[0] + rect[2]) {
+                    next.add(new int[]{used[0] + used[2], rect[1], rect[0] + rect[2] - used[0] - used[2], rect[3]});
+                }
+                if (used[1] > rect[1]) {
+                    next.add(new int[]{rect[0], rect[1], rect[2], used[1] - rect[1]});
+                }
+                if (used[1] + used[3] < rect[1] + rect[3]) {
+                    next.add(new int[]{rect[0], used[1] + used[3], rect[2], rect[1] + rect[3] - used[1] - used[3]});
+                }
+            }
+            free.clear();
+            for (int i = 0; i < next.size(); i++) {
+                if (!isContained(next, i)) {
+                    free.add(next.get(i));
+                }
+            }
+        }
+
+        private static boolean isContained(List<int[]> rects, int index) {
+            int[] a = rects.get(index);
+            for (int j = 0; j < rects.size(); j++) {
+                int[] b = rects.get(j);
+                if (j != index && a[0] >= b[0] && a[1] >= b[1] && a[0] + a[2] <= b[0] + b[2] && a[1] + a[3] <= b[1] + b[3]
+                        && (j < index || !Arrays.equals(a, b))) {
+                    return true;  // Of two identical rectangles only the first is kept
+                }
+            }
+            return false;
+        }
+    }
+
+    // Output ______________________________________________________________________________________
+
+    static void writeMetadata(File file, int[] size, int density, List<Sequence> sequences) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeShort(size[0]);
+            out.writeShort(size[1]);
+            out.writeShort(density);
+            out.writeShort(sequences.size());
+            for (Sequence sequence : sequences) {
+                out.writeUTF(sequence.name);
+                out.writeByte(sequence.oneShot ? 1 : 0);
+                out.writeShort(sequence.frames.size());
+                for (Frame frame : sequence.frames) {
+                    out.writeShort(frame.x);
+                    out.writeShort(frame.y);
+                    out.writeShort(frame.image.getWidth());
+                    out.writeShort(frame.image.getHeight());
+                    out.writeInt(frame.durationMillis);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.tetris_concept.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Checks the MaxRects packing and the {@code .bin}/{@code .png} atlas format that
+ * {@code SpriteSheet.loadPacked} reads.
+ *
+ * @author Aryan Farhang-pour
+ */
+public class SpritePackerTest {
+
+    private File workDir;
+
+    @Before
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("sprite-packer").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        delete(workDir);
+    }
+
+    @Test
+    public void packPlacesEveryFrameInsideAPowerOfTwoAtlasWithoutOverlap() {
+        List<SpritePacker.Frame> frames = randomFrames(60, 1);
+        int[] size = SpritePacker.pack(frames);
+
+        assertEquals(1, Integer.bitCount(size[0]));
+        assertEquals(1, Integer.bitCount(size[1]));
+        for (int i = 0; i < frames.size(); i++) {
+            SpritePacker.Frame a = frames.get(i);
+            assertTrue(a.x >= 0 && a.y >= 0);
+            assertTrue(a.x + a.image.getWidth() <= size[0]);
+            assertTrue(a.y + a.image.getHeight() <= size[1]);
+            for (int j = i + 1; j < frames.size(); j++) {
+                SpritePacker.Frame b = frames.get(j);
+                boolean apart = a.x + a.image.getWidth() <= b.x || b.x + b.image.getWidth() <= a.x
+                        || a.y + a.image.getHeight() <= b.y || b.y + b.image.getHeight() <= a.y;
+                assertTrue(a.name + " overlaps " + b.name, apart);
+            }
+        }
+    }
+
+    @Test
+    public void packIsDeterministic() {
+        List<SpritePacker.Frame> first = randomFrames(40, 2);
+        List<SpritePacker.Frame> second = randomFrames(40, 2);
+        Collections.reverse(second);  // Input order must not matter
+        int[] firstSize = SpritePacker.pack(first);
+        int[] secondSize = SpritePacker.pack(second);
+
+        assertEquals(firstSize[0], secondSize[0]);
+        assertEquals(firstSize[1], secondSize[1]);
+        Collections.reverse(second);
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).x, second.get(i).x);
+            assertEquals(first.get(i).y, second.get(i).y);
+        }
+    }
+
+    @Test
+    public void densityComesFromTheFolderQualifier() {
+        assertEquals(SpritePacker.DEFAULT_DENSITY, SpritePacker.densityOf(new File("res/drawable")));
+        assertEquals(160, SpritePacker.densityOf(new File("res/drawable-mdpi")));
+        assertEquals(320, SpritePacker.densityOf(new File("res/drawable-xhdpi")));
+        assertEquals(480, SpritePacker.densityOf(new File("res/drawable-land-xxhdpi")));
+        assertEquals(0, SpritePacker.densityOf(new File("res/drawable-nodpi")));
+    }
+
+    @Test
+    public void packedAtlasMatchesTheFormatTheAppReads() throws Exception {
+        File drawableDir = new File(workDir, "drawable-xhdpi");
+        File outputDir = new File(workDir, "sprites");
+        assertTrue(drawableDir.mkdirs() && outputDir.mkdirs());
+        writeFrame(drawableDir, "fire_idle_1", 12, 20, 0xFFFF0000);
+        writeFrame(drawableDir, "fire_idle_2", 30, 8, 0xFF00FF00);
+        try (PrintWriter xml = new PrintWriter(new File(drawableDir, "fire_idle_frame_animation.xml"), "UTF-8")) {
+            xml.println("<animation-list xmlns:android=\"http://schemas.android.com/apk/res/android\" android:oneshot=\"true\">");
+            xml.println("    <item android:drawable=\"@drawable/fire_idle_1\" android:duration=\"100\" />");
+            xml.println("    <item android:drawable=\"@drawable/fire_idle_2\" android:duration=\"250\" />");
+            xml.println("</animation-list>");
+        }
+
+        Map<String, List<SpritePacker.Sequence>> pets = SpritePacker.readSequences(drawableDir);
+        assertEquals(1, pets.size());
+        SpritePacker.packPet("fire", pets.get("fire"), SpritePacker.densityOf(drawableDir), outputDir);
+
+        BufferedImage atlas = ImageIO.read(new File(outputDir, "fire.png"));
+        try (DataInputStream in = new DataInputStream(new FileInputStream(new File(outputDir, "fire.bin")))) {
+            assertEquals(SpritePacker.MAGIC, in.readInt());
+            assertEquals(SpritePacker.VERSION, in.readUnsignedShort());
+            assertEquals(atlas.getWidth(), in.readUnsignedShort());
+            assertEquals(atlas.getHeight(), in.readUnsignedShort());
+            assertEquals(320, in.readUnsignedShort());
+            assertEquals(1, in.readUnsignedShort());
+
+            assertEquals("fire_idle_frame_animation", in.readUTF());
+            assertEquals(1, in.readByte());
+            assertEquals(2, in.readUnsignedShort());
+            int[][] expected = {{12, 20, 100, 0xFFFF0000}, {30, 8, 250, 0xFF00FF00}};
+            for (int[] frame : expected) {
+                int x = in.readUnsignedShort();
+                int y = in.readUnsignedShort();
+                assertEquals(frame[0], in.readUnsignedShort());
+                assertEquals(frame[1], in.readUnsignedShort());
+                assertEquals(frame[2], in.readInt());
+                // Source pixels, unscaled: the app scales the rectangles by the density instead
+                assertEquals(frame[3], atlas.getRGB(x, y));
+                assertEquals(frame[3], atlas.getRGB(x + frame[0] - 1, y + frame[1] - 1));
+            }
+            assertEquals(-1, in.read());
+        }
+    }
+
+    private static List<SpritePacker.Frame> randomFrames(int count, long seed) {
+        Random random = new Random(seed);
+        List<SpritePacker.Frame> frames = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            BufferedImage image = new BufferedImage(4 + random.nextInt(60), 4 + random.nextInt(60), BufferedImage.TYPE_INT_ARGB);
+            frames.add(new SpritePacker.Frame("frame_" + i, image, 100));
+        }
+        return frames;
+    }
+
+    private static void writeFrame(File dir, String name, int width, int height, int argb) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, argb);
+            }
+        }
+        assertTrue(ImageIO.write(image, "png", new File(dir, name + ".png")));
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}